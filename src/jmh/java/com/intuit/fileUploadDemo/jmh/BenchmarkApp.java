@@ -0,0 +1,41 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.FileUploadDemoApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The application context for benchmarks that need the real database layer: no web server, a fresh
+ * in-memory H2 database per trial, quiet logging and placeholder AWS settings. S3 is never called;
+ * benchmarks that reach it swap in {@link StubS3Client}.
+ */
+final class BenchmarkApp {
+
+    private BenchmarkApp() {}
+
+    /** @param args extra {@code --name=value} properties, applied after the defaults */
+    static ConfigurableApplicationContext start(String... args) {
+        // DevTools would restart the context in another class loader, and its in-memory database shutdown
+        // hook fails when the pool has already closed the database
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "--AWS_REGION=us-east-1",
+                "--AWS_ACCESS_KEY_ID=bench",
+                "--AWS_SECRET_ACCESS_KEY=bench",
+                "--AWS_S3_BUCKET=" + Fixtures.BUCKET,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--spring.autoconfigure.exclude=org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration"));
+        appArgs.addAll(Arrays.asList(args));
+        return new SpringApplicationBuilder(FileUploadDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(appArgs.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,86 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import com.intuit.fileUploadDemo.metrics.S3CallMetrics;
+import com.intuit.fileUploadDemo.service.impl.S3CallBulkhead;
+import com.intuit.fileUploadDemo.service.impl.S3MultipartAsyncServiceImpl;
+import com.intuit.fileUploadDemo.service.impl.S3MultipartServiceImpl;
+import com.intuit.fileUploadDemo.service.impl.UploadPartPresigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+
+/**
+ * Wiring shared by the benchmarks: the real S3MultipartServiceImpl with a real (offline) presigner
+ * and the stub S3 client, configured like application.properties.
+ */
+final class Fixtures {
+
+    static final String BUCKET = "bench-bucket";
+    static final Duration URL_TTL = Duration.ofMinutes(10);
+
+    private Fixtures() {}
+
+    static final AwsCredentialsProvider CREDENTIALS = StaticCredentialsProvider.create(
+            AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+
+    static S3Presigner presigner() {
+        return S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(CREDENTIALS)
+                .build();
+    }
+
+    /** @param fastSigner false: every URL through the SDK presigner, as before UploadPartPresigner */
+    static UploadPartPresigner partPresigner(S3Presigner presigner, boolean fastSigner) {
+        return new UploadPartPresigner(presigner, CREDENTIALS, "us-east-1", BUCKET, URL_TTL, fastSigner);
+    }
+
+    /** Serves signed URLs for ttl - 2m, like the default configuration. */
+    static PresignedUrlCache urlCache(long maxSize) {
+        return new PresignedUrlCache(URL_TTL, Duration.ofMinutes(2), maxSize, new SimpleMeterRegistry());
+    }
+
+    /** A safety margin equal to the ttl disables reuse: every call signs. */
+    static PresignedUrlCache noUrlCache() {
+        return new PresignedUrlCache(URL_TTL, URL_TTL, 0, new SimpleMeterRegistry());
+    }
+
+    static S3MultipartServiceImpl multipartService(S3Presigner presigner, PresignedUrlCache urlCache) {
+        return multipartService(presigner, urlCache, true);
+    }
+
+    static S3MultipartServiceImpl multipartService(S3Presigner presigner, PresignedUrlCache urlCache, boolean fastSigner) {
+        S3MultipartServiceImpl svc = new S3MultipartServiceImpl(
+                StubS3Client.create(), presigner, urlCache, new S3CallBulkhead(50, Duration.ofSeconds(10)),
+                new S3CallMetrics(new SimpleMeterRegistry()), partPresigner(presigner, fastSigner));
+        ReflectionTestUtils.setField(svc, "bucket", BUCKET);
+        ReflectionTestUtils.setField(svc, "partUrlTtl", URL_TTL);
+        return svc;
+    }
+
+    static S3MultipartAsyncServiceImpl asyncMultipartService(PresignedUrlCache urlCache) {
+        S3MultipartAsyncServiceImpl svc = new S3MultipartAsyncServiceImpl(
+                StubS3Client.createAsync(), urlCache, new S3CallMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(svc, "bucket", BUCKET);
+        return svc;
+    }
+
+    /** Runs the callback inline: the in-memory repositories have nothing to commit. */
+    static TransactionTemplate inlineTransactions() {
+        return new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        };
+    }
+}
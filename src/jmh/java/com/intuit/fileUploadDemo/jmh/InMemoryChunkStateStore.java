@@ -0,0 +1,62 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Chunk state held in memory, so the benchmarks measure the service's own work rather than JDBC.
+ */
+final class InMemoryChunkStateStore implements ChunkStateStore {
+
+    private final Map<String, TreeMap<Integer, String>> uploadedByFile = new HashMap<>();
+
+    @Override
+    public void initialize(UploadFile file) {
+        uploadedByFile.put(file.getId(), new TreeMap<>());
+    }
+
+    @Override
+    public Set<Integer> existingChunkIndexes(UploadFile file, Collection<Integer> chunkIndexes) {
+        Set<Integer> existing = new HashSet<>();
+        for (Integer index : chunkIndexes) {
+            if (index >= 0 && index < file.getTotalChunks()) existing.add(index);
+        }
+        return existing;
+    }
+
+    @Override
+    public Map<String, List<Integer>> pendingChunkIndexesBySession(String sessionId) {
+        throw new UnsupportedOperationException("pendingChunkIndexesBySession");
+    }
+
+    @Override
+    public void markAllUploaded(UploadFile file, Map<Integer, String> partToEtag) {
+        ChunkStateStore.requireEtagForEveryPart(file.getTotalChunks(), partToEtag);
+        uploadedByFile.get(file.getId()).putAll(partToEtag);
+    }
+
+    @Override
+    public boolean markUploaded(UploadFile file, int partNumber, String etag) {
+        return uploadedByFile.get(file.getId()).put(partNumber, etag) == null;
+    }
+
+    @Override
+    public Map<String, SortedMap<Integer, String>> uploadedPartsBySessions(Collection<String> sessionIds) {
+        throw new UnsupportedOperationException("uploadedPartsBySessions");
+    }
+
+    // A copy, like a fresh query result
+    @Override
+    public SortedMap<Integer, String> uploadedParts(UploadFile file) {
+        return new TreeMap<>(uploadedByFile.get(file.getId()));
+    }
+}
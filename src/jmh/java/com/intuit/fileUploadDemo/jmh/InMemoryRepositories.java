@@ -0,0 +1,51 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * HashMap-backed stand-ins for the JPA repositories: only findById, save and saveAndFlush,
+ * which is all the benchmarked service methods touch. Anything else throws so a benchmark
+ * can't silently measure a no-op.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {}
+
+    static UploadFileRepository files(Map<String, UploadFile> rows) {
+        return create(UploadFileRepository.class, rows, UploadFile::getId);
+    }
+
+    static UploadSessionRepository sessions(Map<String, UploadSession> rows) {
+        return create(UploadSessionRepository.class, rows, UploadSession::getId);
+    }
+
+    static <T> Map<String, T> table() {
+        return new HashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, T> R create(Class<R> type, Map<String, T> rows, Function<T, String> id) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(rows.get((String) args[0]));
+                    case "save", "saveAndFlush" -> {
+                        T row = (T) args[0];
+                        rows.put(id.apply(row), row);
+                        yield row;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemory" + type.getSimpleName();
+                    default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                });
+    }
+}
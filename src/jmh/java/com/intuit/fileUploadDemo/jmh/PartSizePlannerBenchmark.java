@@ -0,0 +1,114 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
+import com.intuit.fileUploadDemo.service.PartSizePlanner;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Part plans for a file-size distribution: the planner vs typical client choices. The primary score is
+ * plans per microsecond; the {@code requests} and {@code chunkRows} counters are in the same unit, so
+ * dividing one by the primary score gives API requests and upload_chunks rows per file.
+ * Requests per file = register + presign batches (500 parts each) + one PUT and one ack per part + complete.
+ * Rows = parts with the row chunk store (the bitmap store always writes one row per file).
+ * Parts below S3's limits are counted as the client asked for them; S3 would reject some of these uploads.
+ * <pre>mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="PartSizePlannerBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartSizePlannerBenchmark {
+
+    private static final long MiB = 1024 * 1024;
+    private static final long GiB = 1024 * MiB;
+    private static final int FILES = 10_000;
+    private static final int PRESIGN_BATCH = 500;
+
+    @Param({"documents", "media", "backups"})
+    String distribution;
+
+    @Param({"fixed-1MiB", "fixed-5MiB", "100-parts", "planner", "planner-hinted"})
+    String strategy;
+
+    private final PartSizePlanner planner = new PartSizePlanner(
+            DataSize.ofMegabytes(16), DataSize.ofMegabytes(5), 10_000, Duration.ofSeconds(10));
+
+    private long[] sizes;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Totals {
+        public long requests;
+        public long chunkRows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            chunkRows = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        long min = switch (distribution) {
+            case "documents" -> 100 * 1024;
+            case "media" -> 50 * MiB;
+            default -> 4 * GiB;
+        };
+        long max = switch (distribution) {
+            case "documents" -> 50 * MiB;
+            case "media" -> 4 * GiB;
+            default -> 500 * GiB;
+        };
+        Random seeds = new Random(42);
+        sizes = new long[FILES];
+        for (int i = 0; i < FILES; i++) {
+            sizes[i] = logUniform(seeds.nextLong(), min, max);
+        }
+    }
+
+    @Benchmark
+    public long plan(Totals totals) {
+        long size = sizes[next];
+        next = (next + 1) % FILES;
+        long parts = switch (strategy) {
+            case "fixed-1MiB" -> Math.max(1, ceilDiv(size, MiB));
+            case "fixed-5MiB" -> Math.max(1, ceilDiv(size, 5 * MiB));
+            case "100-parts" -> 100;
+            case "planner" -> planner.plan(new RegisterFileRequest("f", size, null, null, null)).partCount();
+            default -> planner.plan(new RegisterFileRequest("f", size, null, 50_000_000L, 8)).partCount();
+        };
+        totals.requests += 2 + ceilDiv(parts, PRESIGN_BATCH) + 2 * parts;
+        totals.chunkRows += parts;
+        return parts;
+    }
+
+    private static long logUniform(long seed, long min, long max) {
+        double u = new Random(seed).nextDouble();
+        return (long) Math.exp(Math.log(min) + u * (Math.log(max) - Math.log(min)));
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}
@@ -0,0 +1,115 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
+import com.intuit.fileUploadDemo.dto.request.StartSessionRequest;
+import com.intuit.fileUploadDemo.dto.response.RegisterFileResponse;
+import com.intuit.fileUploadDemo.entities.UploadChunk;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.enums.ChunkStatus;
+import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.UploadService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Register latency by chunk count against the application's H2 database: registerFileAsync with the
+ * configured chunk store ("batched") vs the old one-JPA-save-per-chunk-row loop ("per-row").
+ * S3 is the stub client, so only the database work is measured. Each operation starts a fresh session.
+ * <pre>mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="RegisterFileBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegisterFileBenchmark {
+
+    @Param({"100", "1000", "5000", "10000"})
+    int chunks;
+
+    @Param({"batched", "per-row"})
+    String insert;
+
+    private ConfigurableApplicationContext app;
+    private UploadService uploadService;
+    private UploadSessionRepository sessionRepo;
+    private UploadFileRepository fileRepo;
+    private UploadChunkRepository chunkRepo;
+    private TransactionTemplate tx;
+
+    @Setup
+    public void setup() {
+        app = BenchmarkApp.start();
+        uploadService = app.getBean(UploadService.class);
+        sessionRepo = app.getBean(UploadSessionRepository.class);
+        fileRepo = app.getBean(UploadFileRepository.class);
+        chunkRepo = app.getBean(UploadChunkRepository.class);
+        tx = app.getBean(TransactionTemplate.class);
+        // CreateMultipartUpload answered locally instead of by S3
+        ReflectionTestUtils.setField(uploadService, "asyncMultipartSvc",
+                Fixtures.asyncMultipartService(app.getBean(PresignedUrlCache.class)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Object register() {
+        return "batched".equals(insert) ? registerBatched() : registerPerRow();
+    }
+
+    private RegisterFileResponse registerBatched() {
+        return uploadService.registerFileAsync(newSession(),
+                new RegisterFileRequest("bench.bin", chunks * 5L * 1024 * 1024, chunks)).join();
+    }
+
+    // Baseline: what registration did before, one JPA save per chunk row
+    private UploadFile registerPerRow() {
+        String sessionId = newSession();
+        return tx.execute(status -> {
+            UploadFile f = fileRepo.save(UploadFile.builder()
+                    .id("F" + UUID.randomUUID().toString().replace("-", ""))
+                    .session(sessionRepo.getReferenceById(sessionId))
+                    .fileName("bench.bin")
+                    .fileSize(chunks * 5L * 1024 * 1024)
+                    .totalChunks(chunks)
+                    .build());
+            for (int i = 0; i < chunks; i++) {
+                chunkRepo.save(UploadChunk.builder()
+                        .id("C" + UUID.randomUUID().toString().replace("-", ""))
+                        .file(f)
+                        .chunkIndex(i)
+                        .status(ChunkStatus.PENDING)
+                        .build());
+            }
+            return f;
+        });
+    }
+
+    private String newSession() {
+        // A fresh user per operation so startSession never reuses an open session
+        return uploadService.startSession(new StartSessionRequest("bench-" + UUID.randomUUID())).getSessionId();
+    }
+}
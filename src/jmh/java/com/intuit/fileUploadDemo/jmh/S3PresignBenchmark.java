@@ -0,0 +1,88 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import com.intuit.fileUploadDemo.service.impl.S3MultipartServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * S3MultipartServiceImpl.presignPart: SigV4 signing on a cache miss vs a PresignedUrlCache hit,
+ * a 500-part presignParts batch, and invalidating one upload's URLs in a full cache.
+ * <pre>mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="S3PresignBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3PresignBenchmark {
+
+    private static final String KEY = "uploads/S1/F1";
+    private static final String UPLOAD_ID = "bench-upload";
+    private static final int CACHE_SIZE = 50_000;
+
+    private S3MultipartServiceImpl uncached;
+    private S3MultipartServiceImpl cached;
+    private PresignedUrlCache fullCache;
+    private List<Integer> batch;
+    private int nextPart;
+
+    @Setup
+    public void setup() {
+        S3Presigner presigner = Fixtures.presigner();
+        uncached = Fixtures.multipartService(presigner, Fixtures.noUrlCache());
+        cached = Fixtures.multipartService(presigner, Fixtures.urlCache(CACHE_SIZE));
+        for (int p = 1; p <= 1000; p++) cached.presignPart(KEY, UPLOAD_ID, p, 0L);
+
+        // Default max size, filled with other uploads' URLs
+        fullCache = Fixtures.urlCache(CACHE_SIZE);
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            fullCache.get(new PresignedUrlCache.Key(KEY, "upload-" + (i / 100), i % 100 + 1, 0L), k -> "url");
+        }
+
+        batch = IntStream.rangeClosed(1, 500).boxed().toList();
+    }
+
+    @Benchmark
+    public String presignPartUncached() {
+        return uncached.presignPart(KEY, UPLOAD_ID, nextPart(), 0L);
+    }
+
+    @Benchmark
+    public String presignPartCached() {
+        return cached.presignPart(KEY, UPLOAD_ID, nextPart(), 0L);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, String> presignPartsBatch500() {
+        return uncached.presignParts(KEY, UPLOAD_ID, batch);
+    }
+
+    // What complete/abort pay per call: only the upload's own keys are dropped, via the uploadId index
+    @Benchmark
+    public PresignedUrlCache invalidateUploadInFullCache() {
+        fullCache.invalidateUpload(UPLOAD_ID);
+        return fullCache;
+    }
+
+    private int nextPart() {
+        nextPart = nextPart % 1000 + 1;
+        return nextPart;
+    }
+}
@@ -0,0 +1,58 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * S3Client (and S3AsyncClient, with already completed futures) that answers the multipart calls locally
+ * without a network round trip, so the request building in the multipart services (part sorting,
+ * CompletedPart objects) is all that's measured.
+ */
+final class StubS3Client {
+
+    private StubS3Client() {}
+
+    static S3Client create() {
+        return (S3Client) Proxy.newProxyInstance(S3Client.class.getClassLoader(), new Class<?>[]{S3Client.class},
+                (proxy, method, args) -> answer(proxy, method, args));
+    }
+
+    static S3AsyncClient createAsync() {
+        return (S3AsyncClient) Proxy.newProxyInstance(S3AsyncClient.class.getClassLoader(), new Class<?>[]{S3AsyncClient.class},
+                (proxy, method, args) -> {
+                    Object response = answer(proxy, method, args);
+                    return method.getName().endsWith("MultipartUpload") ? CompletableFuture.completedFuture(response) : response;
+                });
+    }
+
+    private static Object answer(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "createMultipartUpload" -> CreateMultipartUploadResponse.builder()
+                    .uploadId(UUID.randomUUID().toString())
+                    .build();
+            case "completeMultipartUpload" -> {
+                CompleteMultipartUploadRequest req = (CompleteMultipartUploadRequest) args[0];
+                yield CompleteMultipartUploadResponse.builder()
+                        .key(req.key())
+                        .eTag("\"" + req.multipartUpload().parts().size() + "\"")
+                        .build();
+            }
+            case "abortMultipartUpload" -> AbortMultipartUploadResponse.builder().build();
+            case "serviceName" -> S3Client.SERVICE_NAME;
+            case "close" -> null;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "StubS3Client";
+            default -> throw new UnsupportedOperationException("S3Client." + method.getName());
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.dto.request.StartSessionRequest;
+import com.intuit.fileUploadDemo.service.UploadService;
+import com.intuit.fileUploadDemo.service.impl.S3CallBulkhead;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request throughput on a Tomcat-sized platform pool vs one virtual thread per request.
+ * "s3" requests make one blocking S3 round trip (a fixed 40 ms park through {@link S3CallBulkhead});
+ * "s3+jdbc" requests also read session status first, so Hikari's pool becomes the shared limit.
+ * Scores are requests per second.
+ * <pre>mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="ThreadingThroughputBenchmark -jvmArgsAppend -Djdk.tracePinnedThreads=short"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadingThroughputBenchmark {
+
+    private static final int PLATFORM_THREADS = 200; // server.tomcat.threads.max default
+    private static final int REQUESTS = 2_000;
+    private static final long S3_LATENCY_NANOS = 40_000_000L;
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"s3", "s3+jdbc"})
+    String request;
+
+    private ConfigurableApplicationContext app;
+    private Runnable work;
+
+    @Setup
+    public void setup() {
+        // Let the simulated S3 latency, not the bulkhead, be the limit being measured
+        app = BenchmarkApp.start("--app.s3.sync.max-connections=2000");
+        UploadService uploadService = app.getBean(UploadService.class);
+        S3CallBulkhead bulkhead = app.getBean(S3CallBulkhead.class);
+        String sessionId = uploadService.startSession(new StartSessionRequest("bench-" + UUID.randomUUID())).getSessionId();
+
+        Runnable s3Only = () -> bulkhead.run(() -> LockSupport.parkNanos(S3_LATENCY_NANOS));
+        work = "s3".equals(request) ? s3Only : () -> {
+            uploadService.getSessionStatus(sessionId);
+            s3Only.run();
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void requests() throws Exception {
+        try (ExecutorService executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(work));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+    }
+}
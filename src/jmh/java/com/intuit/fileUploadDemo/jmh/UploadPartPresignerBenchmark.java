@@ -0,0 +1,60 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.service.impl.UploadPartPresigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * UploadPartPresigner (cached SigV4 signing key, shared canonical request per upload) vs the SDK's
+ * S3Presigner, with no URL cache in front: one part, and a 500-part batch as presignPartUrls signs it.
+ * <pre>mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="UploadPartPresignerBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadPartPresignerBenchmark {
+
+    private static final String KEY = "uploads/S1/F1/holiday video.mp4";
+    private static final String UPLOAD_ID = "2~Kx3fPz0hL9mVYo8gN1bqTnWcA5dEjR";
+
+    @Param({"sdk", "sigv4"})
+    String signer;
+
+    private UploadPartPresigner presigner;
+    private List<Integer> batch;
+    private int nextPart;
+
+    @Setup
+    public void setup() {
+        presigner = Fixtures.partPresigner(Fixtures.presigner(), "sigv4".equals(signer));
+        batch = IntStream.rangeClosed(1, 500).boxed().toList();
+    }
+
+    @Benchmark
+    public String presignPart() {
+        nextPart = nextPart % 10_000 + 1;
+        return presigner.presign(KEY, UPLOAD_ID, nextPart, 0L);
+    }
+
+    @Benchmark
+    public Map<Integer, String> presignBatch500() {
+        return presigner.presign(KEY, UPLOAD_ID, batch);
+    }
+}
@@ -0,0 +1,147 @@
+package com.intuit.fileUploadDemo.jmh;
+
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import com.intuit.fileUploadDemo.cache.UploadLookupCache;
+import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
+import com.intuit.fileUploadDemo.dto.request.PresignPartUrlRequest;
+import com.intuit.fileUploadDemo.dto.response.FilePartsResponse;
+import com.intuit.fileUploadDemo.dto.response.PresignPartUrlResponse;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.service.PartSizePlanner;
+import com.intuit.fileUploadDemo.service.impl.UploadServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UploadServiceImpl hot paths with in-memory repositories, chunk state and S3, by file part count.
+ * Presigning goes through the real S3Presigner with URL reuse disabled, so it includes signing;
+ * see {@link S3PresignBenchmark} for the cached path.
+ * <pre>mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="UploadServiceBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadServiceBenchmark {
+
+    private static final String UPLOAD_ID = "bench-upload";
+
+    @Param({"100", "1000", "10000"})
+    int parts;
+
+    private UploadServiceImpl service;
+    private UploadFile completable;
+    private CompleteFileRequest completeRequest;
+    private PresignPartUrlRequest[] presignRequests;
+    private int nextPresign;
+
+    @Setup
+    public void setup() {
+        Map<String, UploadSession> sessions = InMemoryRepositories.table();
+        Map<String, UploadFile> files = InMemoryRepositories.table();
+        InMemoryChunkStateStore chunks = new InMemoryChunkStateStore();
+        PresignedUrlCache urlCache = Fixtures.noUrlCache();
+
+        service = new UploadServiceImpl(
+                InMemoryRepositories.sessions(sessions),
+                InMemoryRepositories.files(files),
+                chunks,
+                Fixtures.multipartService(Fixtures.presigner(), urlCache),
+                Fixtures.asyncMultipartService(urlCache),
+                Fixtures.inlineTransactions(),
+                Runnable::run,
+                new PartSizePlanner(DataSize.ofMegabytes(16), DataSize.ofMegabytes(5), 10_000, Duration.ofSeconds(10)),
+                Runnable::run,
+                new UploadLookupCache(1_000, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                null,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxPresignBatchSize", 500);
+        ReflectionTestUtils.setField(service, "singlePutMaxSize", DataSize.ofMegabytes(16));
+
+        UploadSession session = UploadSession.builder().id("S1").userId("bench").build();
+        sessions.put(session.getId(), session);
+
+        completable = file(session, "F-complete");
+        UploadFile inFlight = file(session, "F-parts");
+        files.put(completable.getId(), completable);
+        files.put(inFlight.getId(), inFlight);
+        chunks.initialize(completable);
+        chunks.initialize(inFlight);
+
+        // Clients send parts in whatever order their uploads finished
+        List<CompleteFileRequest.PartETag> etags = new ArrayList<>(parts);
+        for (int p = 1; p <= parts; p++) etags.add(new CompleteFileRequest.PartETag(p, etag(p)));
+        Collections.shuffle(etags, new Random(42));
+        completeRequest = new CompleteFileRequest(UPLOAD_ID, etags);
+
+        // Half acknowledged, interleaved, so the pending list is as fragmented as it gets
+        for (int p = 1; p <= parts; p += 2) chunks.markUploaded(inFlight, p, etag(p));
+
+        presignRequests = new PresignPartUrlRequest[parts];
+        for (int p = 1; p <= parts; p++) presignRequests[p - 1] = new PresignPartUrlRequest(p);
+    }
+
+    @Benchmark
+    public PresignPartUrlResponse presignPartUrl() {
+        PresignPartUrlRequest request = presignRequests[nextPresign];
+        nextPresign = (nextPresign + 1) % parts;
+        return service.presignPartUrl("F-parts", request);
+    }
+
+    @Benchmark
+    public UploadFile completeFile() {
+        // Re-open the file so every invocation walks the full validate -> complete -> mark path; the stub
+        // S3 client answers with completed futures and the executor is inline, so this is synchronous
+        completable.setStatus(FileStatus.IN_PROGRESS);
+        service.completeFileAsync(completable.getId(), completeRequest).join();
+        return completable;
+    }
+
+    @Benchmark
+    public FilePartsResponse getFileParts() {
+        return service.getFileParts("F-parts");
+    }
+
+    private UploadFile file(UploadSession session, String id) {
+        return UploadFile.builder()
+                .id(id)
+                .session(session)
+                .fileName(id + ".bin")
+                .fileSize(parts * 16L * 1024 * 1024)
+                .totalChunks(parts)
+                .partSize(16L * 1024 * 1024)
+                .status(FileStatus.IN_PROGRESS)
+                .s3Bucket(Fixtures.BUCKET)
+                .s3Key("uploads/S1/" + id)
+                .uploadId(UPLOAD_ID)
+                .build();
+    }
+
+    private static String etag(int partNumber) {
+        return "\"" + Integer.toHexString(partNumber * 0x9E3779B1) + "d41d8cd98f00b204e980\"";
+    }
+}
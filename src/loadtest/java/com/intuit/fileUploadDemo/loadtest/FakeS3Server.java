@@ -0,0 +1,321 @@
+package com.intuit.fileUploadDemo.loadtest;
+
+import com.intuit.fileUploadDemo.loadtest.S3Faults.Operation;
+import com.intuit.fileUploadDemo.loadtest.S3Faults.Outcome;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the S3 REST API, enough of it for this service: CreateMultipartUpload,
+ * UploadPart, ListParts, CompleteMultipartUpload, AbortMultipartUpload, PutObject, HeadObject and
+ * HeadBucket, path-style ({@code /bucket/key}). The app's SDK clients reach it through
+ * {@code app.s3.endpoint}; presigned URLs then point here too, so load clients PUT their parts to it.
+ * <p>
+ * Keeps uploads and object sizes in memory and discards part bodies. Signatures are not verified,
+ * only required to be present. Every request first goes through {@link S3Faults}.
+ */
+final class FakeS3Server implements AutoCloseable {
+
+    private static final String NS = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final Pattern PART = Pattern.compile("<Part>(.*?)</Part>", Pattern.DOTALL);
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+    private static final Pattern ETAG = Pattern.compile("<ETag>(.*?)</ETag>", Pattern.DOTALL);
+
+    private record Part(String etag, long size) {}
+
+    private record Upload(String key, NavigableMap<Integer, Part> parts) {}
+
+    private final S3Faults faults;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private final Map<String, Long> objects = new ConcurrentHashMap<>();
+
+    private final Map<Operation, Map<Outcome, LongAdder>> counts = new EnumMap<>(Operation.class);
+    private final LongAdder bytesReceived = new LongAdder();
+
+    FakeS3Server(S3Faults faults) throws IOException {
+        this.faults = faults;
+        for (Operation op : Operation.values()) {
+            Map<Outcome, LongAdder> byOutcome = new EnumMap<>(Outcome.class);
+            for (Outcome o : Outcome.values()) byOutcome.put(o, new LongAdder());
+            counts.put(op, byOutcome);
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0), 4096);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long count(Operation op, Outcome outcome) {
+        return counts.get(op).get(outcome).sum();
+    }
+
+    long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    int openUploads() {
+        return uploads.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Routing
+    // ───────────────────────────────────────────────────────────────
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            String method = ex.getRequestMethod();
+            // Raw path: the SDK and presigned URLs encode keys the same way, so it identifies the object
+            String path = ex.getRequestURI().getRawPath();
+            int keyAt = path.indexOf('/', 1);
+            String key = keyAt < 0 ? "" : path.substring(keyAt + 1);
+            Map<String, String> query = query(ex.getRequestURI().getRawQuery());
+
+            if (key.isEmpty()) {
+                // HeadBucket (S3HealthController) and anything else at bucket level
+                send(ex, "HEAD".equals(method) ? 200 : 405, null);
+                return;
+            }
+
+            Operation op = operation(method, query);
+            if (op == null) {
+                send(ex, 405, error("MethodNotAllowed", method + " is not supported here"));
+                return;
+            }
+            if ((op == Operation.UPLOAD_PART || op == Operation.PUT_OBJECT) && !signed(ex, query)) {
+                send(ex, 403, error("AccessDenied", "Request is not signed"));
+                return;
+            }
+
+            Outcome outcome = faults.apply(op);
+            counts.get(op).get(outcome).increment();
+            switch (outcome) {
+                case THROTTLED -> send(ex, 503, error("SlowDown", "Please reduce your request rate."));
+                case ERROR -> send(ex, 500, error("InternalError", "We encountered an internal error. Please try again."));
+                case OK -> dispatch(ex, op, key, query);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Operation operation(String method, Map<String, String> query) {
+        boolean uploadId = query.containsKey("uploadId");
+        return switch (method) {
+            case "POST" -> query.containsKey("uploads") ? Operation.CREATE : uploadId ? Operation.COMPLETE : null;
+            case "PUT" -> uploadId && query.containsKey("partNumber") ? Operation.UPLOAD_PART : Operation.PUT_OBJECT;
+            case "GET" -> uploadId ? Operation.LIST_PARTS : null;
+            case "DELETE" -> uploadId ? Operation.ABORT : null;
+            case "HEAD" -> Operation.HEAD_OBJECT;
+            default -> null;
+        };
+    }
+
+    private void dispatch(HttpExchange ex, Operation op, String key, Map<String, String> query) throws IOException {
+        switch (op) {
+            case CREATE -> create(ex, key);
+            case UPLOAD_PART -> uploadPart(ex, query.get("uploadId"), Integer.parseInt(query.get("partNumber")));
+            case LIST_PARTS -> listParts(ex, key, query);
+            case COMPLETE -> complete(ex, key, query.get("uploadId"));
+            case ABORT -> abort(ex, query.get("uploadId"));
+            case PUT_OBJECT -> putObject(ex, key);
+            case HEAD_OBJECT -> headObject(ex, key);
+        }
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Operations
+    // ───────────────────────────────────────────────────────────────
+    private void create(HttpExchange ex, String key) throws IOException {
+        ex.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        uploads.put(uploadId, new Upload(key, new ConcurrentSkipListMap<>()));
+        send(ex, 200, "<InitiateMultipartUploadResult xmlns=\"" + NS + "\"><Bucket>bucket</Bucket><Key>" + key
+                + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+    }
+
+    private void uploadPart(HttpExchange ex, String uploadId, int partNumber) throws IOException {
+        long size = ex.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        bytesReceived.add(size);
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            send(ex, 404, error("NoSuchUpload", "The specified upload does not exist."));
+            return;
+        }
+        if (partNumber < 1 || partNumber > 10_000) {
+            send(ex, 400, error("InvalidArgument", "Part number must be an integer between 1 and 10000, inclusive"));
+            return;
+        }
+        String etag = "\"" + UUID.randomUUID().toString().replace("-", "") + "\"";
+        upload.parts().put(partNumber, new Part(etag, size));
+        ex.getResponseHeaders().set("ETag", etag);
+        send(ex, 200, null);
+    }
+
+    private void listParts(HttpExchange ex, String key, Map<String, String> query) throws IOException {
+        Upload upload = uploads.get(query.get("uploadId"));
+        if (upload == null) {
+            send(ex, 404, error("NoSuchUpload", "The specified upload does not exist."));
+            return;
+        }
+        int marker = Integer.parseInt(query.getOrDefault("part-number-marker", "0"));
+        int maxParts = Integer.parseInt(query.getOrDefault("max-parts", "1000"));
+
+        StringBuilder xml = new StringBuilder("<ListPartsResult xmlns=\"" + NS + "\"><Bucket>bucket</Bucket><Key>")
+                .append(key).append("</Key><UploadId>").append(query.get("uploadId")).append("</UploadId>");
+        int listed = 0;
+        int last = marker;
+        NavigableMap<Integer, Part> after = upload.parts().tailMap(marker, false);
+        for (Map.Entry<Integer, Part> p : after.entrySet()) {
+            if (listed == maxParts) break;
+            xml.append("<Part><PartNumber>").append(p.getKey()).append("</PartNumber><ETag>")
+                    .append(p.getValue().etag().replace("\"", "&quot;")).append("</ETag><Size>")
+                    .append(p.getValue().size()).append("</Size></Part>");
+            last = p.getKey();
+            listed++;
+        }
+        boolean truncated = after.size() > listed;
+        xml.append("<IsTruncated>").append(truncated).append("</IsTruncated>")
+                .append("<NextPartNumberMarker>").append(last).append("</NextPartNumberMarker>")
+                .append("<MaxParts>").append(maxParts).append("</MaxParts></ListPartsResult>");
+        send(ex, 200, xml.toString());
+    }
+
+    private void complete(HttpExchange ex, String key, String uploadId) throws IOException {
+        String body = new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            send(ex, 404, error("NoSuchUpload", "The specified upload does not exist."));
+            return;
+        }
+        long size = 0;
+        int count = 0;
+        int previous = 0;
+        Matcher part = PART.matcher(body);
+        while (part.find()) {
+            Matcher number = PART_NUMBER.matcher(part.group(1));
+            Matcher etag = ETAG.matcher(part.group(1));
+            if (!number.find() || !etag.find()) {
+                send(ex, 400, error("MalformedXML", "Part without PartNumber or ETag"));
+                return;
+            }
+            int partNumber = Integer.parseInt(number.group(1));
+            Part stored = upload.parts().get(partNumber);
+            if (stored == null || !unquote(stored.etag()).equals(unquote(etag.group(1)))) {
+                send(ex, 400, error("InvalidPart", "Part " + partNumber + " was not uploaded or its ETag does not match"));
+                return;
+            }
+            if (partNumber <= previous) {
+                send(ex, 400, error("InvalidPartOrder", "The list of parts was not in ascending order."));
+                return;
+            }
+            previous = partNumber;
+            size += stored.size();
+            count++;
+        }
+        if (count == 0) {
+            send(ex, 400, error("MalformedXML", "No parts"));
+            return;
+        }
+        uploads.remove(uploadId);
+        objects.put(key, size);
+        send(ex, 200, "<CompleteMultipartUploadResult xmlns=\"" + NS + "\"><Location>" + endpoint() + "/bucket/" + key
+                + "</Location><Bucket>bucket</Bucket><Key>" + key + "</Key><ETag>&quot;"
+                + UUID.randomUUID().toString().replace("-", "") + "-" + count + "&quot;</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private void abort(HttpExchange ex, String uploadId) throws IOException {
+        if (uploads.remove(uploadId) == null) {
+            send(ex, 404, error("NoSuchUpload", "The specified upload does not exist."));
+            return;
+        }
+        send(ex, 204, null);
+    }
+
+    private void putObject(HttpExchange ex, String key) throws IOException {
+        long size = ex.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        bytesReceived.add(size);
+        objects.put(key, size);
+        ex.getResponseHeaders().set("ETag", "\"" + UUID.randomUUID().toString().replace("-", "") + "\"");
+        send(ex, 200, null);
+    }
+
+    private void headObject(HttpExchange ex, String key) throws IOException {
+        Long size = objects.get(key);
+        if (size == null) {
+            send(ex, 404, null);
+            return;
+        }
+        // Set by hand: a HEAD response declares the length of a body it does not send
+        ex.getResponseHeaders().set("Content-Length", Long.toString(size));
+        ex.sendResponseHeaders(200, -1);
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Helpers
+    // ───────────────────────────────────────────────────────────────
+    private static boolean signed(HttpExchange ex, Map<String, String> query) {
+        return query.containsKey("X-Amz-Signature") || ex.getRequestHeaders().containsKey("Authorization");
+    }
+
+    private static String unquote(String etag) {
+        return etag.replace("&quot;", "").replace("\"", "").trim();
+    }
+
+    private static String error(String code, String message) {
+        return "<Error><Code>" + code + "</Code><Message>" + message + "</Message><RequestId>fake</RequestId></Error>";
+    }
+
+    private static void send(HttpExchange ex, int status, String xml) throws IOException {
+        ex.getResponseHeaders().set("x-amz-request-id", "fake");
+        if (xml == null) {
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/xml");
+        ex.sendResponseHeaders(status, body.length);
+        ex.getResponseBody().write(body);
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+}
@@ -0,0 +1,78 @@
+package com.intuit.fileUploadDemo.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures per workload step. Keeps every sample (a run records at most a few
+ * million), so percentiles are exact rather than bucketed.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> steps = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    void record(String step, long nanos) {
+        steps.computeIfAbsent(step, s -> new Samples()).add(nanos);
+    }
+
+    /** A failed call: counted per step and reason (HTTP status or exception), not timed. */
+    void fail(String step, String reason) {
+        failures.computeIfAbsent(step + " " + reason, k -> new LongAdder()).increment();
+    }
+
+    long totalCalls() {
+        return steps.values().stream().mapToLong(Samples::size).sum();
+    }
+
+    String report(String[] order) {
+        StringBuilder sb = new StringBuilder(String.format("%-16s %9s %9s %9s %9s %9s %9s%n",
+                "step", "calls", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (String step : order) {
+            Samples s = steps.get(step);
+            if (s == null) continue;
+            long[] sorted = s.sorted();
+            sb.append(String.format("%-16s %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n", step, sorted.length,
+                    ms(percentile(sorted, 50)), ms(percentile(sorted, 90)), ms(percentile(sorted, 99)),
+                    ms(percentile(sorted, 99.9)), ms(sorted[sorted.length - 1])));
+        }
+        if (!failures.isEmpty()) {
+            sb.append(String.format("%nfailures%n"));
+            new TreeMap<>(failures).forEach((k, v) -> sb.append(String.format("  %-40s %9d%n", k, v.sum())));
+        }
+        return sb.toString();
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.intuit.fileUploadDemo.loadtest;
+
+import com.intuit.fileUploadDemo.FileUploadDemoApplication;
+import com.intuit.fileUploadDemo.loadtest.S3Faults.Operation;
+import com.intuit.fileUploadDemo.loadtest.S3Faults.Outcome;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load run: boots the app in this JVM against {@link FakeS3Server} and drives it with
+ * {@link WorkloadDriver}, then prints throughput, per-step latency percentiles and failures.
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec@loadtest -Dloadtest.args="--load.clients=2000 --s3.latency=20ms/200ms
+ *     --s3.error-rate=0.01 --s3.throttle-rps.upload-part=3500 --app.upload.chunk-store=bitmap"
+ * </pre>
+ * Workload options ({@code --load.*}, defaults in brackets): clients [1000], files-per-client [1],
+ * file-sizes, comma-separated, assigned round-robin [8MB,64MB,256MB], part-body: bytes actually sent per part
+ * PUT [1KB], presign-batch [100], part-concurrency per file [4], ramp-up [5s].
+ * Fake S3 options ({@code --s3.*}): see {@link S3Faults}. Every other {@code --name=value} goes to the app,
+ * e.g. {@code --spring.datasource.url=...} to run against a real database instead of in-memory H2.
+ * <p>
+ * Part PUTs send {@code part-body} bytes, not the planned part size: the data plane runs client → S3 and never
+ * touches the app, so only request counts matter here. Single-PUT files are sent whole (their size is checked).
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, eq);
+            if (name.startsWith("load.") || name.startsWith("s3.")) {
+                options.put(name, arg.substring(eq + 1));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+
+        WorkloadDriver.Workload workload = new WorkloadDriver.Workload(
+                Integer.parseInt(options.getOrDefault("load.clients", "1000")),
+                Integer.parseInt(options.getOrDefault("load.files-per-client", "1")),
+                Arrays.stream(options.getOrDefault("load.file-sizes", "8MB,64MB,256MB").split(","))
+                        .mapToLong(s -> DataSize.parse(s.trim()).toBytes()).toArray(),
+                (int) DataSize.parse(options.getOrDefault("load.part-body", "1KB")).toBytes(),
+                Integer.parseInt(options.getOrDefault("load.presign-batch", "100")),
+                Integer.parseInt(options.getOrDefault("load.part-concurrency", "4")),
+                DurationStyle.detectAndParse(options.getOrDefault("load.ramp-up", "5s")));
+        S3Faults faults = S3Faults.from(options);
+        // DevTools would relaunch main() in a restart class loader, a second fake S3 and driver included
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (FakeS3Server s3 = new FakeS3Server(faults)) {
+            // Command-line arguments win over the environment and application.properties, so the app
+            // can't end up on real S3; the rest are defaults any --name=value of the same name replaces
+            appArgs.add("--app.s3.endpoint=" + s3.endpoint());
+            Map<String, String> appDefaults = new LinkedHashMap<>();
+            appDefaults.put("server.port", "0");
+            appDefaults.put("AWS_REGION", "us-east-1");
+            appDefaults.put("AWS_ACCESS_KEY_ID", "loadtest");
+            appDefaults.put("AWS_SECRET_ACCESS_KEY", "loadtest");
+            appDefaults.put("AWS_S3_BUCKET", "loadtest");
+            appDefaults.put("spring.jpa.show-sql", "false");
+            appDefaults.put("logging.level.root", "WARN");
+            appDefaults.put("app.server-timing.slow-request-threshold", "1m");
+            appDefaults.forEach((name, value) -> {
+                if (appArgs.stream().noneMatch(a -> a.startsWith("--" + name + "="))) {
+                    appArgs.add("--" + name + "=" + value);
+                }
+            });
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(FileUploadDemoApplication.class)
+                    .run(appArgs.toArray(String[]::new))) {
+
+                String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                LatencyRecorder recorder = new LatencyRecorder();
+                WorkloadDriver driver = new WorkloadDriver(baseUrl, workload, recorder);
+
+                System.out.printf("%nWorkload: %d clients x %d files, sizes %s, part body %dB, presign batch %d, "
+                                + "%d parts in flight per file, ramp-up %s%nFake S3:%n%s",
+                        workload.clients(), workload.filesPerClient(), options.getOrDefault("load.file-sizes", "8MB,64MB,256MB"),
+                        workload.partBodyBytes(), workload.presignBatch(), workload.partConcurrency(), workload.rampUp(),
+                        faults.describe());
+                WorkloadDriver.Result result = driver.run();
+                report(result, recorder, s3, driver);
+            }
+        }
+    }
+
+    private static void report(WorkloadDriver.Result r, LatencyRecorder recorder, FakeS3Server s3, WorkloadDriver driver) {
+        double seconds = r.elapsed().toNanos() / 1_000_000_000.0;
+        System.out.printf("%nFlows: %d ok, %d failed in %.1fs (%.1f flows/s)%n", r.flowsOk(), r.flowsFailed(), seconds,
+                r.flowsOk() / seconds);
+        System.out.printf("Throughput: %.0f API calls/s, %.0f S3 PUTs/s%n%n", r.apiCalls() / seconds, r.partPuts() / seconds);
+        System.out.print(recorder.report(WorkloadDriver.STEPS));
+
+        System.out.printf("%n%-12s %9s %9s %9s%n", "fake S3 op", "ok", "error", "throttled");
+        for (Operation op : Operation.values()) {
+            long ok = s3.count(op, Outcome.OK);
+            long error = s3.count(op, Outcome.ERROR);
+            long throttled = s3.count(op, Outcome.THROTTLED);
+            if (ok + error + throttled > 0) {
+                System.out.printf("%-12s %9d %9d %9d%n", op.option(), ok, error, throttled);
+            }
+        }
+        System.out.printf("Multipart uploads left open: %d; bytes received: %s%n", s3.openUploads(),
+                DataSize.ofBytes(s3.bytesReceived()).toKilobytes() + "KB");
+
+        if (!driver.firstFailures().isEmpty()) {
+            System.out.printf("%nFirst response per failure:%n");
+            driver.firstFailures().forEach((k, v) -> System.out.printf("  %s: %s%n", k, v));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.intuit.fileUploadDemo.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency, error and throttling behaviour of {@link FakeS3Server}, per S3 operation.
+ * <p>
+ * Options (defaults for every operation, overridable with a {@code .<operation>} suffix,
+ * e.g. {@code s3.latency.complete=200ms/2s}):
+ * <ul>
+ *   <li>{@code s3.latency=<median>/<p99>}: log-normal latency, or a single value for a fixed one; {@code 0} for none</li>
+ *   <li>{@code s3.error-rate=<0..1>}: fraction of requests answered 500 InternalError</li>
+ *   <li>{@code s3.throttle-rps=<n>}: token bucket per operation (one second of burst); over it, 503 SlowDown</li>
+ * </ul>
+ * Operations: {@link Operation} in lower-kebab case (create, upload-part, list-parts, complete, abort, put-object, head-object).
+ */
+final class S3Faults {
+
+    enum Operation {
+        CREATE, UPLOAD_PART, LIST_PARTS, COMPLETE, ABORT, PUT_OBJECT, HEAD_OBJECT;
+
+        String option() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    enum Outcome { OK, ERROR, THROTTLED }
+
+    // z-score of the 99th percentile of a standard normal
+    private static final double Z_99 = 2.3263478740408408;
+
+    private final Map<Operation, OperationFaults> byOperation = new EnumMap<>(Operation.class);
+
+    private S3Faults() {}
+
+    static S3Faults none() {
+        return from(Map.of());
+    }
+
+    static S3Faults from(Map<String, String> options) {
+        S3Faults faults = new S3Faults();
+        for (Operation op : Operation.values()) {
+            String latency = option(options, "s3.latency", op, "0");
+            double errorRate = Double.parseDouble(option(options, "s3.error-rate", op, "0"));
+            double throttleRps = Double.parseDouble(option(options, "s3.throttle-rps", op, "0"));
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("s3.error-rate must be in [0, 1]: " + errorRate);
+            }
+            faults.byOperation.put(op, new OperationFaults(parseLatency(latency), errorRate,
+                    throttleRps > 0 ? new TokenBucket(throttleRps) : null));
+        }
+        return faults;
+    }
+
+    /** Sleeps the sampled latency, then decides how the request ends. */
+    Outcome apply(Operation op) throws InterruptedException {
+        OperationFaults f = byOperation.get(op);
+        long nanos = f.latency().sampleNanos();
+        if (nanos > 0) {
+            Thread.sleep(Duration.ofNanos(nanos));
+        }
+        if (f.throttle() != null && !f.throttle().tryAcquire()) {
+            return Outcome.THROTTLED;
+        }
+        if (f.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < f.errorRate()) {
+            return Outcome.ERROR;
+        }
+        return Outcome.OK;
+    }
+
+    String describe() {
+        StringBuilder sb = new StringBuilder();
+        byOperation.forEach((op, f) -> sb.append(String.format("  %-12s latency %-16s errors %5.2f%%  throttle %s%n",
+                op.option(), f.latency(), f.errorRate() * 100,
+                f.throttle() == null ? "-" : String.format("%.0f rps", f.throttle().rate))));
+        return sb.toString();
+    }
+
+    private static String option(Map<String, String> options, String name, Operation op, String fallback) {
+        return options.getOrDefault(name + "." + op.option(), options.getOrDefault(name, fallback));
+    }
+
+    private static Latency parseLatency(String value) {
+        String[] parts = value.split("/");
+        Duration median = DurationStyle.detectAndParse(parts[0].trim());
+        if (parts.length == 1) {
+            return new Latency(median.toNanos(), 0);
+        }
+        Duration p99 = DurationStyle.detectAndParse(parts[1].trim());
+        if (p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("p99 below median in s3.latency: " + value);
+        }
+        double sigma = median.isZero() ? 0 : Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return new Latency(median.toNanos(), sigma);
+    }
+
+    private record OperationFaults(Latency latency, double errorRate, TokenBucket throttle) {}
+
+    // Log-normal around the median; sigma 0 is a fixed latency
+    private record Latency(long medianNanos, double sigma) {
+
+        long sampleNanos() {
+            if (medianNanos == 0 || sigma == 0) {
+                return medianNanos;
+            }
+            return (long) (medianNanos * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+
+        @Override
+        public String toString() {
+            if (medianNanos == 0) return "0";
+            long p99 = (long) (medianNanos * Math.exp(sigma * Z_99));
+            return sigma == 0 ? millis(medianNanos) : millis(medianNanos) + "/" + millis(p99);
+        }
+
+        private static String millis(long nanos) {
+            return nanos / 1_000_000 + "ms";
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double rate;
+        private double tokens;
+        private long last = System.nanoTime();
+
+        TokenBucket(double rate) {
+            this.rate = rate;
+            this.tokens = rate;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(rate, tokens + (now - last) * rate / 1_000_000_000.0);
+            last = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
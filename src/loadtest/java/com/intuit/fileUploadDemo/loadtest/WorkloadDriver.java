@@ -0,0 +1,283 @@
+package com.intuit.fileUploadDemo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated upload clients, one virtual thread each, all talking HTTP to the running app and,
+ * through presigned URLs, to the fake S3:
+ * start → register → (batch presign → PUT part → acknowledge)* → complete file → complete session,
+ * or for single-PUT files register → PUT object → complete/single.
+ * Any non-2xx from the app fails that client's flow; part PUTs are retried on 5xx like an S3 client would.
+ */
+final class WorkloadDriver {
+
+    static final String[] STEPS = {"start", "register", "presign", "put-part", "ack", "complete-file",
+            "put-object", "complete-single", "complete-session"};
+
+    record Workload(int clients, int filesPerClient, long[] fileSizes, int partBodyBytes, int presignBatch,
+                    int partConcurrency, Duration rampUp) {}
+
+    record Result(int flowsOk, int flowsFailed, long apiCalls, long partPuts, Duration elapsed) {}
+
+    private static final int PUT_ATTEMPTS = 3;
+    private static final byte[] ZEROS = new byte[64 * 1024];
+
+    private final String api;
+    private final Workload workload;
+    private final LatencyRecorder recorder;
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final AtomicLong apiCalls = new AtomicLong();
+    private final AtomicLong partPuts = new AtomicLong();
+    private final Map<String, String> firstFailure = new ConcurrentHashMap<>();
+
+    WorkloadDriver(String baseUrl, Workload workload, LatencyRecorder recorder) {
+        this.api = baseUrl + "/api/v1/upload";
+        this.workload = workload;
+        this.recorder = recorder;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                // Default executor on purpose: a virtual-thread one stalls streamed request bodies under load
+                .build();
+    }
+
+    Result run() throws InterruptedException {
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long rampStepNanos = workload.clients() > 1 ? workload.rampUp().toNanos() / workload.clients() : 0;
+
+        long t0 = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(workload.clients());
+            for (int c = 0; c < workload.clients(); c++) {
+                int client = c;
+                futures.add(clients.submit(() -> {
+                    try {
+                        Thread.sleep(Duration.ofNanos(client * rampStepNanos));
+                        if (runClient(client)) ok.incrementAndGet(); else failed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    failed.incrementAndGet();
+                }
+            }
+        }
+        return new Result(ok.get(), failed.get(), apiCalls.get(), partPuts.get(), Duration.ofNanos(System.nanoTime() - t0));
+    }
+
+    /** One message per failing step and status, so a broken setup is visible without a debugger. */
+    Map<String, String> firstFailures() {
+        return new TreeMap<>(firstFailure);
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Client flow
+    // ───────────────────────────────────────────────────────────────
+    private boolean runClient(int client) throws InterruptedException {
+        try {
+            JsonNode session = call("start", post(api + "/start", json.createObjectNode().put("userId", "load-" + client)));
+            String sessionId = session.get("sessionId").asText();
+            for (int i = 0; i < workload.filesPerClient(); i++) {
+                long size = workload.fileSizes()[(client + i) % workload.fileSizes().length];
+                uploadFile(sessionId, "file-" + client + "-" + i + ".bin", size);
+            }
+            call("complete-session", patch(api + "/" + sessionId + "/complete", null));
+            return true;
+        } catch (FlowFailed | IOException e) {
+            return false;
+        }
+    }
+
+    private void uploadFile(String sessionId, String name, long size) throws IOException, InterruptedException {
+        JsonNode file = call("register", post(api + "/" + sessionId + "/files",
+                json.createObjectNode().put("fileName", name).put("fileSize", size)));
+        String fileId = file.get("fileId").asText();
+
+        if ("SINGLE_PUT".equals(file.get("uploadMode").asText())) {
+            // The URL signs Content-Length, and complete/single checks the stored size: send the whole file
+            putToS3("put-object", file.get("uploadUrl").asText(), size);
+            call("complete-single", patch(api + "/files/" + fileId + "/complete/single", null));
+            return;
+        }
+
+        int partCount = file.get("partCount").asInt();
+        Map<Integer, String> etags = new ConcurrentHashMap<>();
+        for (int from = 1; from <= partCount; from += workload.presignBatch()) {
+            int to = Math.min(partCount, from + workload.presignBatch() - 1);
+            JsonNode urls = call("presign", post(api + "/files/" + fileId + "/parts/urls",
+                    json.createObjectNode().put("fromPart", from).put("toPart", to))).get("urls");
+            uploadParts(fileId, urls, etags);
+        }
+
+        ObjectNode complete = json.createObjectNode().put("uploadId", file.get("uploadId").asText());
+        ArrayNode parts = complete.putArray("parts");
+        new TreeMap<>(etags).forEach((p, etag) -> parts.addObject().put("partNumber", p).put("eTag", etag));
+        call("complete-file", patch(api + "/files/" + fileId + "/complete", complete));
+    }
+
+    // PUT parts with bounded per-file parallelism, acknowledging each as it lands
+    private void uploadParts(String fileId, JsonNode urls, Map<Integer, String> etags) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(workload.partConcurrency());
+        AtomicInteger failures = new AtomicInteger();
+        try (ExecutorService parts = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (JsonNode u : urls) {
+                int partNumber = u.get("partNumber").asInt();
+                String url = u.get("url").asText();
+                inFlight.acquire();
+                if (failures.get() > 0) {
+                    inFlight.release();
+                    break;
+                }
+                parts.submit(() -> {
+                    try {
+                        String etag = putToS3("put-part", url, workload.partBodyBytes());
+                        etags.put(partNumber, etag);
+                        call("ack", put(api + "/files/" + fileId + "/parts/" + partNumber,
+                                json.createObjectNode().put("eTag", etag)));
+                    } catch (FlowFailed | IOException e) {
+                        failures.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failures.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        if (failures.get() > 0) {
+            throw new FlowFailed();
+        }
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // HTTP
+    // ───────────────────────────────────────────────────────────────
+    private JsonNode call(String step, HttpRequest request) throws IOException, InterruptedException {
+        apiCalls.incrementAndGet();
+        long t0 = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            fail(step, e.getClass().getSimpleName(), String.valueOf(e.getMessage()));
+            throw new FlowFailed();
+        }
+        if (response.statusCode() / 100 != 2) {
+            fail(step, Integer.toString(response.statusCode()), response.body());
+            throw new FlowFailed();
+        }
+        recorder.record(step, System.nanoTime() - t0);
+        return response.body().isEmpty() ? null : json.readTree(response.body());
+    }
+
+    // Returns the ETag S3 sent back
+    private String putToS3(String step, String url, long bytes) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .PUT(zeros(bytes))
+                .timeout(Duration.ofMinutes(1))
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            partPuts.incrementAndGet();
+            long t0 = System.nanoTime();
+            String reason;
+            String detail;
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    recorder.record(step, System.nanoTime() - t0);
+                    return response.headers().firstValue("ETag").orElseThrow();
+                }
+                reason = Integer.toString(response.statusCode());
+                detail = response.body();
+                if (response.statusCode() < 500) {
+                    fail(step, reason, detail);
+                    throw new FlowFailed();
+                }
+            } catch (IOException e) {
+                reason = e.getClass().getSimpleName();
+                detail = String.valueOf(e.getMessage());
+            }
+            if (attempt == PUT_ATTEMPTS) {
+                fail(step, reason, detail);
+                throw new FlowFailed();
+            }
+            recorder.fail(step, reason + " (retried)");
+            Thread.sleep(Duration.ofMillis(50L << attempt));
+        }
+    }
+
+    // Fixed-length body streamed from one shared block, so large single PUTs allocate nothing
+    private static HttpRequest.BodyPublisher zeros(long bytes) {
+        List<byte[]> blocks = new ArrayList<>((int) (bytes / ZEROS.length) + 1);
+        for (long left = bytes; left > 0; left -= ZEROS.length) {
+            blocks.add(left >= ZEROS.length ? ZEROS : Arrays.copyOf(ZEROS, (int) left));
+        }
+        return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofByteArrays(blocks), bytes);
+    }
+
+    private void fail(String step, String reason, String detail) {
+        recorder.fail(step, reason);
+        firstFailure.putIfAbsent(step + " " + reason, detail.length() > 300 ? detail.substring(0, 300) : detail);
+    }
+
+    private HttpRequest post(String url, JsonNode body) {
+        return jsonRequest(url, "POST", body);
+    }
+
+    private HttpRequest put(String url, JsonNode body) {
+        return jsonRequest(url, "PUT", body);
+    }
+
+    private HttpRequest patch(String url, JsonNode body) {
+        return jsonRequest(url, "PATCH", body);
+    }
+
+    private HttpRequest jsonRequest(String url, String method, JsonNode body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(2))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    // Ends the current client's flow; already counted in the recorder
+    private static final class FlowFailed extends RuntimeException {
+        FlowFailed() {
+            super(null, null, false, false);
+        }
+    }
+}
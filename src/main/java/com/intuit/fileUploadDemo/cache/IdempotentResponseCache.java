@@ -0,0 +1,53 @@
+package com.intuit.fileUploadDemo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded front of the idempotency_records table. Only completed responses are cached; a miss falls
+ * through to the table, so eviction never breaks deduplication. Each entry expires with its record's
+ * {@code expires_at}, never later: past it the record may be purged and the key used again.
+ */
+@Component
+public class IdempotentResponseCache {
+
+    public record StoredResponse(String requestHash, String responseJson, Instant expiresAt) {}
+
+    private final Cache<String, StoredResponse> cache;
+
+    public IdempotentResponseCache(@Value("${app.idempotency.cache.max-size:10000}") long maxSize,
+                                   MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.writing((String id, StoredResponse stored) -> untilExpiry(stored)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotentResponses");
+    }
+
+    public StoredResponse get(String recordId) {
+        return cache.getIfPresent(recordId);
+    }
+
+    public void put(String recordId, StoredResponse response) {
+        cache.put(recordId, response);
+    }
+
+    private static Duration untilExpiry(StoredResponse stored) {
+        Duration left = Duration.between(Instant.now(), stored.expiresAt());
+        return left.isNegative() ? Duration.ZERO : left;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
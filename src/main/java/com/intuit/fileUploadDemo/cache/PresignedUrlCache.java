@@ -0,0 +1,106 @@
+package com.intuit.fileUploadDemo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of presigned UploadPart URLs.
+ * <p>
+ * A URL is served from the cache until {@code safety-margin} before its signature expires,
+ * so a client always gets at least that much time to start the PUT. Entries are evicted by
+ * size and by age, and all entries of an upload are dropped when it is completed or aborted.
+ * Keys are also indexed by uploadId so that drop only touches that upload's entries.
+ */
+@Component
+public class PresignedUrlCache {
+
+    public record Key(String s3Key, String uploadId, int partNumber, long contentLength) {}
+
+    private final Cache<Key, String> cache;
+    // margin >= ttl means nothing is ever safe to reuse: every call signs
+    private final boolean reuse;
+    // uploadId -> its cached keys; entries leave on eviction (listener) or invalidateUpload
+    private final ConcurrentMap<String, Set<Key>> keysByUpload = new ConcurrentHashMap<>();
+
+    public PresignedUrlCache(@Value("${app.s3.presign.ttl:10m}") Duration urlTtl,
+                             @Value("${app.s3.presign.cache.safety-margin:2m}") Duration safetyMargin,
+                             @Value("${app.s3.presign.cache.max-size:50000}") long maxSize,
+                             MeterRegistry meterRegistry) {
+        Duration servable = urlTtl.minus(safetyMargin);
+        this.reuse = servable.isPositive();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(reuse ? maxSize : 0)
+                .expireAfterWrite(reuse ? servable : Duration.ofMillis(1))
+                .evictionListener((Key key, String url, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "presignedPartUrls");
+    }
+
+    public String get(Key key, Function<Key, String> signer) {
+        if (!reuse) {
+            return signer.apply(key);
+        }
+        return cache.get(key, k -> {
+            String url = signer.apply(k);
+            index(k);
+            return url;
+        });
+    }
+
+    /** Cached URLs for {@code keys}; the missing ones are signed together with one {@code signer} call. */
+    public Map<Key, String> getAll(Collection<Key> keys, Function<Set<? extends Key>, Map<Key, String>> signer) {
+        if (!reuse) {
+            return signer.apply(new LinkedHashSet<>(keys));
+        }
+        return cache.getAll(keys, missing -> {
+            Map<Key, String> signed = signer.apply(missing);
+            signed.keySet().forEach(this::index);
+            return signed;
+        });
+    }
+
+    /** Drop every cached part URL of the given multipart upload. */
+    public void invalidateUpload(String uploadId) {
+        Set<Key> keys = keysByUpload.remove(uploadId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void index(Key key) {
+        keysByUpload.compute(key.uploadId(), (id, keys) -> {
+            Set<Key> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    private void unindex(Key key) {
+        keysByUpload.computeIfPresent(key.uploadId(), (id, keys) -> keys.remove(key) && keys.isEmpty() ? null : keys);
+    }
+
+    // Uploads with at least one indexed key; for tests
+    int indexedUploads() {
+        return keysByUpload.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,168 @@
+package com.intuit.fileUploadDemo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the upload_files and upload_sessions columns the request paths check
+ * (status, mode, S3 key, uploadId, part count), so presigning a part normally needs no DB read.
+ * <p>
+ * Entries are immutable snapshots, never entities. Every status change in this instance invalidates
+ * the affected entries when it happens and again after its transaction commits, so a concurrent read
+ * can't put the pre-commit state back. Changes made by other instances are only seen once the entry
+ * expires: {@code ttl} bounds that staleness. Paths that write (complete, acknowledge, register)
+ * still read the row itself.
+ * <p>
+ * Cached files are indexed by session id, so invalidating a session drops its files without scanning the cache.
+ */
+@Component
+public class UploadLookupCache {
+
+    public record FileLookup(String id, String sessionId, String s3Key, String uploadId, int totalChunks,
+                             FileStatus status, UploadMode uploadMode) {
+
+        public static FileLookup of(UploadFile f) {
+            return new FileLookup(f.getId(), f.getSession() == null ? null : f.getSession().getId(),
+                    f.getS3Key(), f.getUploadId(), f.getTotalChunks(), f.getStatus(), f.getUploadMode());
+        }
+    }
+
+    public record SessionLookup(String id, String userId, SessionStatus status) {
+
+        public static SessionLookup of(UploadSession s) {
+            return new SessionLookup(s.getId(), s.getUserId(), s.getStatus());
+        }
+    }
+
+    private final Cache<String, FileLookup> files;
+    private final Cache<String, SessionLookup> sessions;
+    // sessionId -> ids of its cached files; updated under the file entry's own lock (load, eviction, invalidation)
+    private final ConcurrentMap<String, Set<String>> fileIdsBySession = new ConcurrentHashMap<>();
+
+    public UploadLookupCache(@Value("${app.upload.lookup-cache.max-size:100000}") long maxSize,
+                             @Value("${app.upload.lookup-cache.ttl:30s}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.files = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((String id, FileLookup f, RemovalCause cause) -> unindex(f))
+                .recordStats()
+                .build();
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, files, "uploadFiles");
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "uploadSessions");
+    }
+
+    /** Cached file, or {@code loader}'s; a missing row is not cached. */
+    public Optional<FileLookup> file(String fileId, Function<String, Optional<FileLookup>> loader) {
+        return Optional.ofNullable(files.get(fileId, id -> {
+            FileLookup loaded = loader.apply(id).orElse(null);
+            if (loaded != null) {
+                index(loaded);
+            }
+            return loaded;
+        }));
+    }
+
+    /** Cached session, or {@code loader}'s; a missing row is not cached. */
+    public Optional<SessionLookup> session(String sessionId, Function<String, Optional<SessionLookup>> loader) {
+        return Optional.ofNullable(sessions.get(sessionId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /** Call whenever the file's row changes; also fires after the surrounding transaction commits. */
+    public void invalidateFile(String fileId) {
+        afterCommitToo(() -> files.asMap().computeIfPresent(fileId, (id, f) -> {
+            unindex(f);
+            return null;
+        }));
+    }
+
+    /**
+     * Call whenever the session's row changes. Drops its files as well, for set-based updates that
+     * change them without going through {@link #invalidateFile}.
+     */
+    public void invalidateSession(String sessionId) {
+        invalidateSessions(List.of(sessionId));
+    }
+
+    /** {@link #invalidateSession} for a batch, with one after-commit callback for all of them. */
+    public void invalidateSessions(Collection<String> sessionIds) {
+        List<String> ids = List.copyOf(sessionIds);
+        afterCommitToo(() -> {
+            sessions.invalidateAll(ids);
+            for (String sessionId : ids) {
+                Set<String> fileIds = fileIdsBySession.remove(sessionId);
+                if (fileIds != null) {
+                    files.invalidateAll(fileIds);
+                }
+            }
+        });
+    }
+
+    public CacheStats fileStats() {
+        return files.stats();
+    }
+
+    public CacheStats sessionStats() {
+        return sessions.stats();
+    }
+
+    private void index(FileLookup f) {
+        if (f.sessionId() != null) {
+            fileIdsBySession.compute(f.sessionId(), (id, fileIds) -> {
+                Set<String> indexed = fileIds != null ? fileIds : ConcurrentHashMap.newKeySet();
+                indexed.add(f.id());
+                return indexed;
+            });
+        }
+    }
+
+    private void unindex(FileLookup f) {
+        if (f.sessionId() != null) {
+            fileIdsBySession.computeIfPresent(f.sessionId(), (id, fileIds) -> fileIds.remove(f.id()) && fileIds.isEmpty() ? null : fileIds);
+        }
+    }
+
+    // Sessions with at least one indexed file; for tests
+    int indexedSessions() {
+        return fileIdsBySession.size();
+    }
+
+    private static void afterCommitToo(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.intuit.fileUploadDemo.config;
+
+import com.intuit.fileUploadDemo.metrics.RequestTiming;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${app.upload.executor.core-size:8}")
+    private int coreSize;
+
+    @Value("${app.upload.executor.max-size:32}")
+    private int maxSize;
+
+    @Value("${app.upload.executor.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.upload.executor.virtual-concurrency-limit:1000}")
+    private int virtualConcurrencyLimit;
+
+    @Value("${app.upload.completion-jobs.workers:4}")
+    private int completionWorkers;
+
+    @Value("${app.upload.completion-jobs.queue-capacity:200}")
+    private int completionQueueCapacity;
+
+    @Value("${app.upload.bulk-register.parallelism:16}")
+    private int bulkRegisterParallelism;
+
+    // Runs the DB half of async upload operations once their S3 future completes,
+    // so no JDBC work happens on SDK event-loop threads. Tasks keep the request's RequestTiming (Server-Timing)
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    ThreadPoolTaskExecutor uploadTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.setTaskDecorator(RequestTiming::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    // spring.threads.virtual.enabled=true: one virtual thread per task instead of a pool.
+    // The limit stands in for max-size + queue-capacity; Hikari's pool still bounds the JDBC work itself.
+    @Bean(name = "uploadTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    SimpleAsyncTaskExecutor virtualUploadTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("upload-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(virtualConcurrencyLimit);
+        executor.setTaskDecorator(RequestTiming::wrap);
+        return executor;
+    }
+
+    // Fixed-size worker pool for queued file completions; a full queue rejects instead of growing
+    @Bean
+    ThreadPoolTaskExecutor completionJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(completionWorkers);
+        executor.setMaxPoolSize(completionWorkers);
+        executor.setQueueCapacity(completionQueueCapacity);
+        executor.setThreadNamePrefix("completion-");
+        executor.initialize();
+        return executor;
+    }
+
+    // CreateMultipartUpload fan-out for bulk registration. Blocking calls (they still pass through
+    // S3CallBulkhead); when every worker is busy the request thread runs the call itself, which slows
+    // that caller down instead of queueing without limit or failing files
+    @Bean
+    ThreadPoolTaskExecutor bulkRegisterExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkRegisterParallelism);
+        executor.setMaxPoolSize(bulkRegisterParallelism);
+        executor.setQueueCapacity(bulkRegisterParallelism * 4);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("bulk-register-");
+        executor.setTaskDecorator(RequestTiming::wrap);
+        executor.initialize();
+        return executor;
+    }
+}
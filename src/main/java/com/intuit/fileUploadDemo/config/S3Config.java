@@ -4,11 +4,21 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.net.URI;
+import java.time.Duration;
+
 @Configuration
 public class S3Config {
 
@@ -21,21 +31,71 @@ public class S3Config {
     @Value("${AWS_SECRET_ACCESS_KEY}")
     private String secretKey;
 
+    @Value("${app.s3.sync.max-connections:50}")
+    private int syncMaxConnections;
+
+    @Value("${app.s3.sync.acquire-timeout:10s}")
+    private Duration syncAcquireTimeout;
+
+    @Value("${app.s3.async.max-concurrency:128}")
+    private int asyncMaxConcurrency;
+
+    @Value("${app.s3.async.max-pending-acquires:10000}")
+    private int asyncMaxPendingAcquires;
+
+    @Value("${app.s3.async.acquire-timeout:10s}")
+    private Duration asyncAcquireTimeout;
+
+    // S3-compatible endpoint instead of AWS (load-test fake, MinIO, LocalStack); addressed path-style
+    @Value("${app.s3.endpoint:}")
+    private String endpoint;
+
+    // Shared by the clients, the SDK presigner and UploadPartPresigner
+    @Bean
+    AwsCredentialsProvider awsCredentialsProvider() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+
+    // Pool size is shared with S3CallBulkhead, which keeps callers from queueing inside the pool
+    @Bean
+    S3Client s3Client(AwsCredentialsProvider credentialsProvider) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider)
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(syncMaxConnections)
+                        .connectionAcquisitionTimeout(syncAcquireTimeout));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    // Connection pool of the async client bounds in-flight S3 control-plane calls
     @Bean
-    S3Client s3Client() {
-        return S3Client.builder()
+    S3AsyncClient s3AsyncClient(AwsCredentialsProvider credentialsProvider) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)))
-                .build();
+                .credentialsProvider(credentialsProvider)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(asyncMaxConcurrency)
+                        .maxPendingConnectionAcquires(asyncMaxPendingAcquires)
+                        .connectionAcquisitionTimeout(asyncAcquireTimeout));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
     }
 
     @Bean
-    S3Presigner s3Presigner() {
-        return S3Presigner.builder()
+    S3Presigner s3Presigner(AwsCredentialsProvider credentialsProvider) {
+        S3Presigner.Builder builder = S3Presigner.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)))
-                .build();
+                .credentialsProvider(credentialsProvider);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+        }
+        return builder.build();
     }
 }
@@ -0,0 +1,24 @@
+package com.intuit.fileUploadDemo.config;
+
+import com.intuit.fileUploadDemo.metrics.UploadGauges;
+import com.intuit.fileUploadDemo.service.impl.CompletionJobServiceImpl;
+import com.intuit.fileUploadDemo.service.impl.IdempotencyServiceImpl;
+import com.intuit.fileUploadDemo.service.impl.SessionArchive;
+import com.intuit.fileUploadDemo.service.impl.StaleUploadReaper;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // With spring.main.lazy-initialization=true (faststart profile) a bean is only created on first use.
+    // Beans that do background work nobody asks for must still start with the context:
+    // the idempotency purge, the gauge refresh, the upload reaper, the session archive and the completion job
+    // heartbeat are @Scheduled methods, registered only once their bean exists.
+    @Bean
+    static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(IdempotencyServiceImpl.class, UploadGauges.class,
+                StaleUploadReaper.class, SessionArchive.class, CompletionJobServiceImpl.class);
+    }
+}
@@ -0,0 +1,140 @@
+package com.intuit.fileUploadDemo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import com.intuit.fileUploadDemo.dto.response.SessionStatusResponse;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import com.intuit.fileUploadDemo.service.S3MultipartService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Exercises the presign and session-status paths before the instance takes traffic, so the first
+ * real requests don't pay for lazy bean creation, class loading and interpreted code.
+ * <p>
+ * Runs as an {@link ApplicationRunner}: Spring Boot reports readiness ACCEPTING_TRAFFIC only after
+ * runners finish, so a readiness probe keeps the load balancer away until warm-up is done.
+ * Nothing leaves the process: presigning is local SigV4 signing with a made-up key and upload id
+ * (dropped from the URL cache afterwards). One status request goes over loopback for a session id
+ * that does not exist (404, builds the controller chain); after that the loop sends loopback
+ * liveness probes for the Tomcat/MVC/Jackson path and runs the status queries and the JSON
+ * serialization of a synthetic response in-process, so the 404 warning is logged only once.
+ * Failures are logged and never stop startup.
+ * <p>
+ * Switched by {@code app.warmup.enabled} at run time rather than with a condition, because an AOT
+ * build freezes conditions and the AOT-built jar must still be able to skip the warm-up.
+ */
+@Slf4j
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    static final String WARMUP_SESSION_ID = "S-warmup";
+    static final String WARMUP_UPLOAD_ID = "warmup-upload";
+    private static final int PARTS_PER_ITERATION = 10;
+
+    private final S3MultipartService multipartSvc;
+    private final PresignedUrlCache urlCache;
+    private final UploadFileRepository uploadFileRepository;
+    private final ChunkStateStore chunkStateStore;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public StartupWarmup(S3MultipartService multipartSvc,
+                         PresignedUrlCache urlCache,
+                         UploadFileRepository uploadFileRepository,
+                         ChunkStateStore chunkStateStore,
+                         ObjectMapper objectMapper,
+                         Environment environment,
+                         @Value("${app.warmup.enabled:false}") boolean enabled,
+                         @Value("${app.warmup.iterations:100}") int iterations,
+                         @Value("${app.warmup.max-duration:5s}") Duration maxDuration) {
+        this.multipartSvc = multipartSvc;
+        this.urlCache = urlCache;
+        this.uploadFileRepository = uploadFileRepository;
+        this.chunkStateStore = chunkStateStore;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        String port = environment.getProperty("local.server.port");
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        SessionStatusResponse syntheticStatus = syntheticStatus();
+
+        int done = 0;
+        int failures = 0;
+        for (; done < iterations && System.nanoTime() < deadline; done++) {
+            try {
+                presignPath(done);
+                statusPath(http, port, done == 0, syntheticStatus);
+            } catch (Exception e) {
+                // e.g. schema not there yet; keep warming the other paths
+                if (failures++ == 0) {
+                    log.warn("Warm-up iteration failed: {}", e.toString());
+                }
+            }
+        }
+        urlCache.invalidateUpload(WARMUP_UPLOAD_ID);
+        log.info("Warm-up: {} iterations ({} failed) in {} ms", done, failures, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Distinct part numbers every iteration, so each one signs instead of hitting the URL cache
+    private void presignPath(int iteration) {
+        int first = iteration * PARTS_PER_ITERATION + 1;
+        multipartSvc.presignParts("warmup/warmup.bin", WARMUP_UPLOAD_ID,
+                IntStream.range(first, first + PARTS_PER_ITERATION).boxed().toList());
+        multipartSvc.presignPut("warmup/warmup-" + iteration + ".txt", 1024);
+    }
+
+    private void statusPath(HttpClient http, String port, boolean first, SessionStatusResponse syntheticStatus) throws Exception {
+        if (port != null) {
+            String path = first ? "/api/v1/upload/" + WARMUP_SESSION_ID + "/status" : "/actuator/health/liveness";
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            http.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+        // The 404 stops after the session lookup; run the rest of the success path directly
+        uploadFileRepository.findStatusViewsBySessionId(WARMUP_SESSION_ID);
+        chunkStateStore.pendingChunkIndexesBySession(WARMUP_SESSION_ID);
+        objectMapper.writeValueAsString(syntheticStatus);
+    }
+
+    private static SessionStatusResponse syntheticStatus() {
+        List<SessionStatusResponse.FileStatusItem> files = new ArrayList<>();
+        for (int f = 0; f < 3; f++) {
+            files.add(new SessionStatusResponse.FileStatusItem("F-warmup-" + f, "warmup-" + f + ".bin", 100, 40,
+                    FileStatus.IN_PROGRESS, IntStream.range(40, 100).boxed().toList()));
+        }
+        return new SessionStatusResponse(WARMUP_SESSION_ID, SessionStatus.IN_PROGRESS, files);
+    }
+}
@@ -0,0 +1,88 @@
+package com.intuit.fileUploadDemo.config;
+
+import com.intuit.fileUploadDemo.metrics.ApiMetricsInterceptor;
+import com.intuit.fileUploadDemo.metrics.RequestTiming;
+import com.intuit.fileUploadDemo.metrics.RequestTimingJsonConverter;
+import com.intuit.fileUploadDemo.metrics.RequestTimingValidator;
+import com.intuit.fileUploadDemo.metrics.ServerTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final jakarta.validation.Validator beanValidator;
+
+    public WebConfig(MeterRegistry meterRegistry, jakarta.validation.Validator beanValidator) {
+        this.meterRegistry = meterRegistry;
+        this.beanValidator = beanValidator;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ApiMetricsInterceptor(meterRegistry))
+                .addPathPatterns("/api/v1/upload/**");
+    }
+
+    // SERVER-TIMING ─────────────────────────────────────────────────
+    // Per-request breakdown (RequestTiming) of upload API calls: db, s3, validation and serialization
+
+    // Always registered and switched at runtime: the faststart AOT build freezes bean conditions
+    @Bean
+    FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${app.server-timing.enabled:true}") boolean enabled,
+            @Value("${app.server-timing.slow-request-threshold:1s}") Duration slowRequestThreshold) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(enabled, slowRequestThreshold));
+        registration.addUrlPatterns("/api/v1/upload/*");
+        return registration;
+    }
+
+    // Every repository method, including the JDBC fragments, counts as db time of the calling request
+    @Bean
+    static BeanPostProcessor requestTimingRepositoryListener() {
+        RepositoryMethodInvocationListener listener = invocation ->
+                RequestTiming.record(RequestTiming.Category.DB, invocation.getDuration(TimeUnit.NANOSECONDS));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public Validator getValidator() {
+        return new RequestTimingValidator(new SpringValidatorAdapter(beanValidator));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converters.get(i);
+                converters.set(i, new RequestTimingJsonConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+}
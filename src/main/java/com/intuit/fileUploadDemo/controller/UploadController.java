@@ -1,10 +1,16 @@
 package com.intuit.fileUploadDemo.controller;
 
+import com.intuit.fileUploadDemo.dto.request.AcknowledgePartRequest;
+import com.intuit.fileUploadDemo.dto.request.BatchPresignPartUrlRequest;
+import com.intuit.fileUploadDemo.dto.request.BulkRegisterFilesRequest;
 import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
 import com.intuit.fileUploadDemo.dto.request.PresignPartUrlRequest;
 import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
 import com.intuit.fileUploadDemo.dto.request.StartSessionRequest;
 import com.intuit.fileUploadDemo.dto.response.*;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.service.CompletionJobService;
+import com.intuit.fileUploadDemo.service.IdempotencyService;
 import com.intuit.fileUploadDemo.service.UploadService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,28 +18,50 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/upload")
 @RequiredArgsConstructor
 public class UploadController {
 
     private final UploadService uploadService;
+    private final CompletionJobService completionJobService;
+    private final IdempotencyService idempotencyService;
 
     // SESSION ───────────────────────────────────────────────────────
 
+    // Mutating endpoints below accept an optional Idempotency-Key header: a retry with the same key
+    // and body returns the first response without repeating the work (see IdempotencyService)
+
     // Start or reuse a session
     @PostMapping("/start")
-    public ResponseEntity<StartSessionResponse> startSession(@Valid @RequestBody StartSessionRequest request) {
-        StartSessionResponse response = uploadService.startSession(request);
+    public ResponseEntity<StartSessionResponse> startSession(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                             @Valid @RequestBody StartSessionRequest request) {
+        StartSessionResponse response = idempotencyService.execute(idempotencyKey, "startSession", request,
+                StartSessionResponse.class, () -> uploadService.startSession(request));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
-    // Register a file under a session
+    // Register a file under a session (request thread is released while S3 creates the upload)
     @PostMapping("/{sessionId}/files")
-    public ResponseEntity<RegisterFileResponse> registerFile(@PathVariable String sessionId,
-                                                             @Valid @RequestBody RegisterFileRequest request) {
-        RegisterFileResponse response = uploadService.registerFile(sessionId, request);
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+    public CompletableFuture<ResponseEntity<RegisterFileResponse>> registerFile(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                                @PathVariable String sessionId,
+                                                                                @Valid @RequestBody RegisterFileRequest request) {
+        return idempotencyService.executeAsync(idempotencyKey, "registerFile:" + sessionId, request,
+                        RegisterFileResponse.class, () -> uploadService.registerFileAsync(sessionId, request))
+                .thenApply(response -> ResponseEntity.status(HttpStatus.OK).body(response));
+    }
+
+    // Register many files in one call; 200 with a result per file, in request order
+    @PostMapping("/{sessionId}/files/bulk")
+    public ResponseEntity<BulkRegisterFilesResponse> registerFiles(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                   @PathVariable String sessionId,
+                                                                   @Valid @RequestBody BulkRegisterFilesRequest request) {
+        BulkRegisterFilesResponse body = idempotencyService.execute(idempotencyKey, "registerFiles:" + sessionId, request,
+                BulkRegisterFilesResponse.class, () -> uploadService.registerFiles(sessionId, request));
+        return ResponseEntity.ok(body);
     }
 
     // Session status
@@ -43,6 +71,16 @@ public class UploadController {
         return ResponseEntity.ok(body);
     }
 
+    // A user's sessions, newest first; ?cursor= is the previous page's nextCursor
+    @GetMapping("/users/{userId}/sessions")
+    public ResponseEntity<SessionHistoryResponse> sessionHistory(@PathVariable String userId,
+                                                                 @RequestParam(required = false) SessionStatus status,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "20") int limit) {
+        SessionHistoryResponse body = uploadService.getSessionHistory(userId, status, cursor, limit);
+        return ResponseEntity.ok(body);
+    }
+
     // Pause / resume session
     @PatchMapping("/{sessionId}/pause")
     public ResponseEntity<Void> pauseSession(@PathVariable String sessionId) {
@@ -74,12 +112,43 @@ public class UploadController {
         return ResponseEntity.ok(body);
     }
 
-    // Complete file (send all partNumber + eTag)
+    // Presign many part URLs in one call (list and/or range of part numbers)
+    @PostMapping("/files/{fileId}/parts/urls")
+    public ResponseEntity<BatchPresignPartUrlResponse> presignPartUrls(@PathVariable String fileId,
+                                                                       @Valid @RequestBody BatchPresignPartUrlRequest req) {
+        BatchPresignPartUrlResponse body = uploadService.presignPartUrls(fileId, req);
+        return ResponseEntity.ok(body);
+    }
+
+    // Complete file (send all partNumber + eTag); async so a slow CompleteMultipartUpload holds no thread
     @PatchMapping("/files/{fileId}/complete")
-    public ResponseEntity<Void> completeFile(@PathVariable String fileId,
-                                             @Valid @RequestBody CompleteFileRequest req) {
-        uploadService.completeFile(fileId, req);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> completeFile(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                @PathVariable String fileId,
+                                                                @Valid @RequestBody CompleteFileRequest req) {
+        return idempotencyService.executeAsync(idempotencyKey, "completeFile:" + fileId, req,
+                        Void.class, () -> uploadService.completeFileAsync(fileId, req))
+                .thenApply(v -> ResponseEntity.noContent().<Void>build());
+    }
+
+    // Complete a small file registered in SINGLE_PUT mode (no parts, no body)
+    @PatchMapping("/files/{fileId}/complete/single")
+    public CompletableFuture<ResponseEntity<Void>> completeSingleUpload(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                        @PathVariable String fileId) {
+        return idempotencyService.executeAsync(idempotencyKey, "completeSingleUpload:" + fileId, null,
+                        Void.class, () -> uploadService.completeSingleUploadAsync(fileId))
+                .thenApply(v -> ResponseEntity.noContent().<Void>build());
+    }
+
+    // Queue the completion and return 202 at once; poll the job for the result (large files, LB timeouts)
+    @PostMapping("/files/{fileId}/complete/jobs")
+    public ResponseEntity<CompletionJobResponse> submitCompletionJob(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                     @PathVariable String fileId,
+                                                                     @Valid @RequestBody CompleteFileRequest req) {
+        CompletionJobResponse body = idempotencyService.execute(idempotencyKey, "submitCompletionJob:" + fileId, req,
+                CompletionJobResponse.class, () -> completionJobService.submit(fileId, req));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/upload/jobs/" + body.getJobId()))
+                .body(body);
     }
 
     // Pause / resume a single file
@@ -95,9 +164,34 @@ public class UploadController {
         return ResponseEntity.noContent().build();
     }
 
+    // Acknowledge one finished part with the ETag S3 returned for it
+    @PutMapping("/files/{fileId}/parts/{partNumber}")
+    public ResponseEntity<PartAckResponse> acknowledgePart(@PathVariable String fileId,
+                                                           @PathVariable int partNumber,
+                                                           @Valid @RequestBody AcknowledgePartRequest req) {
+        return ResponseEntity.ok(uploadService.acknowledgePart(fileId, partNumber, req));
+    }
+
+    // Uploaded / pending parts from acknowledged state; reconcile=true also asks S3 ListParts
     @GetMapping("/files/{fileId}/parts")
-    public ResponseEntity<FilePartsResponse> getFileParts(@PathVariable String fileId) {
-        FilePartsResponse body = uploadService.getFileParts(fileId);
-        return ResponseEntity.ok(body);
+    public CompletableFuture<ResponseEntity<FilePartsResponse>> getFileParts(@PathVariable String fileId,
+                                                                             @RequestParam(defaultValue = "false") boolean reconcile) {
+        if (!reconcile) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(uploadService.getFileParts(fileId)));
+        }
+        return uploadService.reconcileFilePartsAsync(fileId)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    // COMPLETION JOBS ───────────────────────────────────────────────
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<CompletionJobResponse> getCompletionJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(completionJobService.getJob(jobId));
+    }
+
+    @PostMapping("/jobs/{jobId}/retry")
+    public ResponseEntity<CompletionJobResponse> retryCompletionJob(@PathVariable String jobId) {
+        return ResponseEntity.accepted().body(completionJobService.retry(jobId));
     }
 }
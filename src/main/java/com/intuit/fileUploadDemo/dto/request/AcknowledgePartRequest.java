@@ -0,0 +1,20 @@
+package com.intuit.fileUploadDemo.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcknowledgePartRequest {
+
+    // ETag header returned by S3 for the part PUT
+    @NotBlank
+    @JsonProperty("eTag")
+    private String eTag;
+}
@@ -0,0 +1,29 @@
+package com.intuit.fileUploadDemo.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Either an explicit list of part numbers or an inclusive range [fromPart, toPart].
+ * If both are given, the union is presigned.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPresignPartUrlRequest {
+
+    private List<@NotNull @Min(1) Integer> partNumbers;
+
+    @Min(1)
+    private Integer fromPart;
+
+    @Min(1)
+    private Integer toPart;
+}
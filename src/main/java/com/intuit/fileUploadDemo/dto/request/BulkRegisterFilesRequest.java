@@ -0,0 +1,24 @@
+package com.intuit.fileUploadDemo.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Many files registered under one session in a single call (e.g. a dropped folder).
+ * Each entry is validated like a single {@link RegisterFileRequest}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRegisterFilesRequest {
+
+    @NotEmpty
+    private List<@Valid RegisterFileRequest> files;
+}
@@ -1,5 +1,6 @@
 package com.intuit.fileUploadDemo.dto.request;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -20,6 +21,17 @@ public class RegisterFileRequest {
     @Positive
     private long fileSize;
 
+    // Optional hints for PartSizePlanner; the server decides the final part size and count
     @Min(1)
-    private int chunkCount;
+    private Integer chunkCount;
+
+    @Positive
+    private Long bandwidthBytesPerSecond;
+
+    @Min(1) @Max(1000)
+    private Integer concurrency;
+
+    public RegisterFileRequest(String fileName, long fileSize, Integer chunkCount) {
+        this(fileName, fileSize, chunkCount, null, null);
+    }
 }
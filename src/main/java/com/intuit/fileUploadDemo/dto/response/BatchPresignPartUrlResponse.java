@@ -0,0 +1,20 @@
+package com.intuit.fileUploadDemo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BatchPresignPartUrlResponse {
+    private final String fileId;
+    private final List<PartUrl> urls;   // sorted by partNumber
+
+    @Getter
+    @AllArgsConstructor
+    public static class PartUrl {
+        private final int partNumber;
+        private final String url;
+    }
+}
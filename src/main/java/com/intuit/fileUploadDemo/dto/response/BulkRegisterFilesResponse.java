@@ -0,0 +1,25 @@
+package com.intuit.fileUploadDemo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BulkRegisterFilesResponse {
+    private final String sessionId;
+    private final int registered;
+    private final int failed;
+    private final List<FileResult> files;   // same order as the request
+
+    // Exactly one of file / error is set
+    @Getter
+    @AllArgsConstructor
+    public static class FileResult {
+        private final int index;
+        private final String fileName;
+        private final RegisterFileResponse file;
+        private final String error;
+    }
+}
@@ -0,0 +1,19 @@
+package com.intuit.fileUploadDemo.dto.response;
+
+import com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class CompletionJobResponse {
+    private final String jobId;
+    private final String fileId;
+    private final CompletionJobStatus status;
+    private final int attempts;
+    private final String lastError;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.intuit.fileUploadDemo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PartAckResponse {
+    private final String fileId;
+    private final int partNumber;
+    private final boolean newlyUploaded;   // false when the part had already been acknowledged
+    private final int uploadedChunks;
+    private final int totalChunks;
+}
@@ -1,5 +1,6 @@
 package com.intuit.fileUploadDemo.dto.response;
 
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -10,4 +11,12 @@ public class RegisterFileResponse {
     private final String fileId;
     private final String s3Key;
     private final String uploadId;
+
+    // Plan chosen by the server: every part is partSize bytes except the last
+    private final long partSize;
+    private final int partCount;
+
+    // SINGLE_PUT: upload the whole file with one PUT to uploadUrl (uploadId is null), then call complete/single
+    private final UploadMode uploadMode;
+    private final String uploadUrl;
 }
@@ -0,0 +1,27 @@
+package com.intuit.fileUploadDemo.dto.response;
+
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SessionHistoryResponse {
+    private final List<SessionSummary> sessions;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private final String nextCursor;
+
+    @Getter
+    @AllArgsConstructor
+    public static class SessionSummary {
+        private final String sessionId;
+        private final SessionStatus status;
+        private final Instant createdAt;
+        private final Instant updatedAt;
+        private final long fileCount;
+        private final long totalBytes;
+    }
+}
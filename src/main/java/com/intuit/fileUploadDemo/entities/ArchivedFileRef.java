@@ -0,0 +1,26 @@
+package com.intuit.fileUploadDemo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Which archived session holds a file, so file reads can find it without the hot upload_files row.
+ */
+@Entity
+@Table(name = "upload_file_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ArchivedFileRef {
+
+    @Id
+    @Column(name = "file_id", nullable = false, length = 40)
+    @EqualsAndHashCode.Include
+    private String fileId;
+
+    @Column(name = "session_id", nullable = false, length = 40)
+    private String sessionId;
+}
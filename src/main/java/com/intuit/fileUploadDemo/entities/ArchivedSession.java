@@ -0,0 +1,58 @@
+package com.intuit.fileUploadDemo.entities;
+
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A finished session moved out of the hot tables: one row holding the session's columns and,
+ * in {@code filesJson}, its files with their acknowledged parts (written by {@code SessionArchive}).
+ * Never updated after it is written.
+ */
+@Entity
+@Table(
+        name = "upload_session_archive",
+        indexes = {
+                @Index(name = "ix_session_archive_user_created", columnList = "user_id, created_at, id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ArchivedSession {
+
+    @Id
+    @Column(name = "id", nullable = false, length = 40)
+    @EqualsAndHashCode.Include
+    private String id;
+
+    @Column(name = "user_id", nullable = false, length = 120)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private SessionStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Column(name = "file_count", nullable = false)
+    private int fileCount;
+
+    @Column(name = "total_bytes", nullable = false)
+    private long totalBytes;
+
+    @Column(name = "files_json", nullable = false, columnDefinition = "text")
+    private String filesJson;
+}
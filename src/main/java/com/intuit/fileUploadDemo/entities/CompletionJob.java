@@ -0,0 +1,67 @@
+package com.intuit.fileUploadDemo.entities;
+
+import com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A queued file completion (S3 CompleteMultipartUpload + DB finalization). Persisted so that
+ * queued or interrupted jobs are picked up again after a restart.
+ */
+@Entity
+@Table(
+        name = "upload_completion_jobs",
+        indexes = {
+                @Index(name = "ix_completion_jobs_file_id", columnList = "file_id"),
+                @Index(name = "ix_completion_jobs_status", columnList = "status, created_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CompletionJob {
+
+    @Id
+    @Column(name = "id", nullable = false, length = 40)
+    @EqualsAndHashCode.Include
+    private String id; // e.g., "J1"
+
+    @Column(name = "file_id", nullable = false, length = 40)
+    private String fileId;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private CompletionJobStatus status = CompletionJobStatus.QUEUED;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    // CompleteFileRequest as JSON (uploadId + every partNumber/eTag)
+    @Column(name = "request_json", nullable = false, columnDefinition = "text")
+    private String requestJson;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Instance that claimed the job and its last sign of life while RUNNING; only a stale heartbeat is requeued
+    @Column(name = "owner", length = 120)
+    private String owner;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    @Builder.Default
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,57 @@
+package com.intuit.fileUploadDemo.entities;
+
+import com.intuit.fileUploadDemo.entities.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a mutating request sent with an {@code Idempotency-Key} header, replayed to retries
+ * of the same request until {@code expiresAt}. Only successful responses are stored.
+ */
+@Entity
+@Table(
+        name = "idempotency_records",
+        indexes = {
+                @Index(name = "ix_idempotency_expires_at", columnList = "expires_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class IdempotencyRecord {
+
+    // SHA-256 of scope + key, so arbitrary client keys fit a fixed-size primary key
+    @Id
+    @Column(name = "id", nullable = false, length = 64)
+    @EqualsAndHashCode.Include
+    private String id;
+
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String idempotencyKey;
+
+    // Operation and path ids, e.g. "registerFile:S123"; the same key may be reused across scopes
+    @Column(name = "scope", nullable = false, length = 255)
+    private String scope;
+
+    // SHA-256 of the request body; a retry with a different body is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    @Column(name = "response_json", columnDefinition = "text")
+    private String responseJson;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
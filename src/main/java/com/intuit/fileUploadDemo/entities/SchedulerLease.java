@@ -0,0 +1,32 @@
+package com.intuit.fileUploadDemo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide lock for a background job: the instance named in {@code owner} may run the job
+ * until {@code lockedUntil}, and keeps it by renewing before then.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "name", nullable = false, length = 64)
+    @EqualsAndHashCode.Include
+    private String name; // e.g., "upload-reaper"
+
+    @Column(name = "owner", nullable = false, length = 120)
+    private String owner;
+
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+}
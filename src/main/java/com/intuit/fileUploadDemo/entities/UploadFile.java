@@ -2,6 +2,7 @@ package com.intuit.fileUploadDemo.entities;
 
 
 import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -40,6 +41,10 @@ public class UploadFile {
     @Column(name = "total_chunks", nullable = false)
     private int totalChunks;
 
+    // Bytes per part chosen by PartSizePlanner (last part may be smaller); null for files registered before it
+    @Column(name = "part_size")
+    private Long partSize;
+
     @Builder.Default
     @Column(name = "uploaded_chunks", nullable = false)
     private int uploadedChunks = 0;
@@ -49,6 +54,12 @@ public class UploadFile {
     @Column(name = "status", nullable = false, length = 20)
     private FileStatus status = FileStatus.PENDING;
 
+    // MULTIPART, or SINGLE_PUT for small files uploaded with one presigned PutObject (no uploadId, no chunk state)
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "upload_mode", length = 20)
+    private UploadMode uploadMode = UploadMode.MULTIPART;
+
     // S3 multipart metadata (kept simple)
     @Column(name = "s3_bucket", length = 255)
     private String s3Bucket;
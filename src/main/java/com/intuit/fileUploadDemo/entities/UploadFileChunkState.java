@@ -0,0 +1,49 @@
+package com.intuit.fileUploadDemo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Compact per-file chunk state used by the bitmap chunk store: one row per file instead of
+ * one row per part. Encoding lives in {@code PackedChunkState}.
+ */
+@Entity
+@Table(name = "upload_file_chunk_states")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UploadFileChunkState {
+
+    @Id
+    @Column(name = "file_id", nullable = false, length = 40)
+    @EqualsAndHashCode.Include
+    private String fileId;
+
+    @Column(name = "total_chunks", nullable = false)
+    private int totalChunks;
+
+    // BitSet.toByteArray() of uploaded chunk indexes (10,000 parts -> at most 1,250 bytes)
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(name = "uploaded_bits", nullable = false, length = 1250)
+    private byte[] uploadedBits;
+
+    // 16 bytes per part (binary MD5 ETag); null until the first ETag is recorded
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(name = "etags", length = 160000)
+    private byte[] etags;
+
+    // "index=etag" lines for ETags that are not a plain MD5 hex digest
+    @Column(name = "etag_overflow", columnDefinition = "text")
+    private String etagOverflow;
+
+    @Builder.Default
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+}
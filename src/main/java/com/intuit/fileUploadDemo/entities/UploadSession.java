@@ -10,7 +10,8 @@ import java.time.Instant;
 @Table(
         name = "upload_sessions",
         indexes = {
-                @Index(name = "ix_sessions_user_id", columnList = "user_id"),
+                // Keyset order of the session history; its user_id prefix also serves lookups by user
+                @Index(name = "ix_sessions_user_created", columnList = "user_id, created_at, id"),
                 @Index(name = "ix_sessions_status", columnList = "status")
         }
 )
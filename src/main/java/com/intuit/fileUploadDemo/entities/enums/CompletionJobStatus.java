@@ -0,0 +1,8 @@
+package com.intuit.fileUploadDemo.entities.enums;
+
+public enum CompletionJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
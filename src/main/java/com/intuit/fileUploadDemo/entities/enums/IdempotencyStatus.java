@@ -0,0 +1,6 @@
+package com.intuit.fileUploadDemo.entities.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
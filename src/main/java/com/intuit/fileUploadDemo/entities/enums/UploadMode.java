@@ -0,0 +1,6 @@
+package com.intuit.fileUploadDemo.entities.enums;
+
+public enum UploadMode {
+    MULTIPART,
+    SINGLE_PUT
+}
@@ -0,0 +1,8 @@
+package com.intuit.fileUploadDemo.exception;
+
+// Thrown when a bounded resource (S3 connections, worker queue) cannot take more work right now
+public class ServiceBusyException extends RuntimeException{
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
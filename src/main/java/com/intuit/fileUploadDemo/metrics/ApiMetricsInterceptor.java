@@ -0,0 +1,58 @@
+package com.intuit.fileUploadDemo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Counts upload API calls per controller operation.
+ * <p>
+ * Counter {@code upload.api.requests}, tags {@code operation} (controller method name), {@code outcome}
+ * (SUCCESS / CLIENT_ERROR / SERVER_ERROR ...) and {@code exception} (simple class name of the exception
+ * that GlobalExceptionHandler turned into the response, {@code none} otherwise).
+ * Async endpoints are counted once, when their result has been written on the async dispatch.
+ * Latency per endpoint is already in Spring's {@code http.server.requests} timer.
+ */
+public class ApiMetricsInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC = "upload.api.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    public ApiMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        // Set by DispatcherServlet when an @ExceptionHandler produced the response
+        Object handled = request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        Throwable error = ex != null ? ex : handled instanceof Throwable t ? t : null;
+        counter(handlerMethod.getMethod(), Outcome.forStatus(response.getStatus()), error == null ? null : error.getClass())
+                .increment();
+    }
+
+    private record CounterKey(Method operation, Outcome outcome, Class<?> exception) {}
+
+    private Counter counter(Method operation, Outcome outcome, Class<?> exception) {
+        return counters.computeIfAbsent(new CounterKey(operation, outcome, exception), k -> Counter.builder(METRIC)
+                .description("Upload API requests by operation and outcome")
+                .tag("operation", k.operation().getName())
+                .tag("outcome", k.outcome().name())
+                .tag("exception", k.exception() == null ? "none" : k.exception().getSimpleName())
+                .register(meterRegistry));
+    }
+}
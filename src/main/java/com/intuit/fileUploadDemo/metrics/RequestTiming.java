@@ -0,0 +1,104 @@
+package com.intuit.fileUploadDemo.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time one API request spends per category (DB, S3, validation, JSON), for its Server-Timing header.
+ * <p>
+ * Bound to the request thread by {@link ServerTimingFilter}; the upload executors carry it over to their
+ * tasks ({@link #wrap}) and {@link S3CallMetrics} to the continuations of async S3 calls. Recording with
+ * nothing bound (scheduled jobs, completion workers) is a no-op. Durations are summed per category, so
+ * parallel calls (bulk registration) can add up to more than the request's wall time.
+ */
+public final class RequestTiming {
+
+    public enum Category {
+        DB("db"),
+        S3("s3"),
+        VALIDATION("validation"),
+        SERIALIZATION("serialization");
+
+        private final String metricName;
+
+        Category(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(Category.values().length);
+    private final AtomicIntegerArray calls = new AtomicIntegerArray(Category.values().length);
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /** Adds to the timing bound to this thread, if any. */
+    public static void record(Category category, long durationNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(category, durationNanos);
+        }
+    }
+
+    /**
+     * Binds {@code timing} (or nothing, if null) to this thread.
+     * @return the previously bound timing, to restore with another call
+     */
+    public static RequestTiming bind(RequestTiming timing) {
+        RequestTiming previous = CURRENT.get();
+        if (timing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timing);
+        }
+        return previous;
+    }
+
+    /** Runs {@code task} with the caller's timing bound; usable as an executor TaskDecorator. */
+    public static Runnable wrap(Runnable task) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            RequestTiming previous = bind(timing);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    public void add(Category category, long durationNanos) {
+        nanos.addAndGet(category.ordinal(), durationNanos);
+        calls.incrementAndGet(category.ordinal());
+    }
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /** e.g. {@code db;dur=4.1;desc="3 calls", s3;dur=120.5;desc="1 call", total;dur=131.0} */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(160);
+        for (Category category : Category.values()) {
+            int count = calls.get(category.ordinal());
+            if (count == 0) continue;
+            header.append(category.metricName)
+                    .append(";dur=").append(millis(nanos.get(category.ordinal())))
+                    .append(";desc=\"").append(count).append(count == 1 ? " call\", " : " calls\", ");
+        }
+        return header.append("total;dur=").append(millis(System.nanoTime() - startNanos)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.intuit.fileUploadDemo.metrics;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * MVC validator that records @Valid bean validation time as {@link RequestTiming.Category#VALIDATION}.
+ */
+public class RequestTimingValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+
+    public RequestTimingValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        long start = System.nanoTime();
+        try {
+            delegate.validate(target, errors);
+        } finally {
+            RequestTiming.record(RequestTiming.Category.VALIDATION, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        long start = System.nanoTime();
+        try {
+            delegate.validate(target, errors, validationHints);
+        } finally {
+            RequestTiming.record(RequestTiming.Category.VALIDATION, System.nanoTime() - start);
+        }
+    }
+}
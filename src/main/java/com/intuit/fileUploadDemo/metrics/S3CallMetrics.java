@@ -0,0 +1,112 @@
+package com.intuit.fileUploadDemo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times S3 calls made by the S3 multipart services.
+ * <p>
+ * Timer {@code upload.s3.calls}, tags {@code client} (sync / async), {@code operation} (service method),
+ * {@code outcome} (success / error) and {@code exception} (simple class name, {@code none} on success).
+ * Timers are looked up once per tag combination and reused, so a call costs a map lookup and a record.
+ * Percentiles and histogram buckets come from {@code management.metrics.distribution.*.upload.s3}.
+ * Each call is also added to the calling request's {@link RequestTiming} (Server-Timing {@code s3}).
+ */
+@Component
+public class S3CallMetrics {
+
+    public static final String METRIC = "upload.s3.calls";
+
+    private static final String SYNC = "sync";
+    private static final String ASYNC = "async";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public S3CallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            recordSync(operation, null, System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            recordSync(operation, e.getClass(), System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private void recordSync(String operation, Class<?> exception, long nanos) {
+        timer(SYNC, operation, exception).record(nanos, TimeUnit.NANOSECONDS);
+        RequestTiming.record(RequestTiming.Category.S3, nanos);
+    }
+
+    public void run(String operation, Runnable call) {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Timed until the returned future completes; the result and error are passed through unchanged.
+     * The caller's RequestTiming stays bound while the returned future completes, so continuations that
+     * run on the SDK thread or are handed to a decorated executor from there still record into it.
+     */
+    public <T> CompletableFuture<T> recordAsync(String operation, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        RequestTiming timing = RequestTiming.current();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            long nanos = System.nanoTime() - start;
+            timer(ASYNC, operation, e.getClass()).record(nanos, TimeUnit.NANOSECONDS);
+            RequestTiming.record(RequestTiming.Category.S3, nanos);
+            throw e;
+        }
+        CompletableFuture<T> timed = new CompletableFuture<>();
+        future.whenComplete((result, error) -> {
+            long nanos = System.nanoTime() - start;
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            timer(ASYNC, operation, cause == null ? null : cause.getClass()).record(nanos, TimeUnit.NANOSECONDS);
+            if (timing != null) {
+                timing.add(RequestTiming.Category.S3, nanos);
+            }
+            RequestTiming previous = RequestTiming.bind(timing);
+            try {
+                if (error != null) {
+                    timed.completeExceptionally(error);
+                } else {
+                    timed.complete(result);
+                }
+            } finally {
+                RequestTiming.bind(previous);
+            }
+        });
+        return timed;
+    }
+
+    private record TimerKey(String client, String operation, Class<?> exception) {}
+
+    private Timer timer(String client, String operation, Class<?> exception) {
+        return timers.computeIfAbsent(new TimerKey(client, operation, exception), k -> Timer.builder(METRIC)
+                .description("S3 calls by the upload service")
+                .tag("client", k.client())
+                .tag("operation", k.operation())
+                .tag("outcome", k.exception() == null ? "success" : "error")
+                .tag("exception", k.exception() == null ? "none" : k.exception().getSimpleName())
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,81 @@
+package com.intuit.fileUploadDemo.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Adds a {@code Server-Timing} header with the request's {@link RequestTiming} breakdown to upload API
+ * responses, and logs requests slower than {@code app.server-timing.slow-request-threshold} with it.
+ * <p>
+ * The body is buffered until the handler is done so the header can still include JSON serialization time.
+ * Async endpoints keep the same timing across their initial and async dispatch, like ShallowEtagHeaderFilter
+ * keeps its buffer.
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final String TIMING_ATTRIBUTE = ServerTimingFilter.class.getName() + ".timing";
+
+    private final boolean enabled;
+    private final Duration slowRequestThreshold;
+
+    public ServerTimingFilter(boolean enabled, Duration slowRequestThreshold) {
+        this.enabled = enabled;
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = (RequestTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing == null) {
+            timing = new RequestTiming();
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+        }
+        ContentCachingResponseWrapper buffered = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (buffered == null) {
+            buffered = new ContentCachingResponseWrapper(response);
+        }
+
+        RequestTiming previous = RequestTiming.bind(timing);
+        try {
+            chain.doFilter(request, buffered);
+        } finally {
+            RequestTiming.bind(previous);
+        }
+
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        String serverTiming = timing.toServerTiming();
+        buffered.setHeader(HEADER, serverTiming);
+        buffered.copyBodyToResponse();
+
+        long elapsedMillis = timing.elapsedMillis();
+        if (elapsedMillis >= slowRequestThreshold.toMillis()) {
+            log.warn("Slow request {} {} -> {} in {} ms: {}", request.getMethod(), request.getRequestURI(),
+                    buffered.getStatus(), elapsedMillis, serverTiming);
+        }
+    }
+}
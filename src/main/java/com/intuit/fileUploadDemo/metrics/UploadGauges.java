@@ -0,0 +1,58 @@
+package com.intuit.fileUploadDemo.metrics;
+
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges {@code upload.sessions.active} (IN_PROGRESS or PAUSED sessions) and {@code upload.files.in_flight}
+ * (PENDING, IN_PROGRESS or PAUSED files), across all instances since they come from the database.
+ * Counted on a schedule rather than per scrape, so scrape frequency never turns into query load.
+ */
+@Slf4j
+@Component
+public class UploadGauges {
+
+    private static final Set<SessionStatus> ACTIVE_SESSION = EnumSet.of(SessionStatus.IN_PROGRESS, SessionStatus.PAUSED);
+    private static final Set<FileStatus> IN_FLIGHT_FILE = EnumSet.of(FileStatus.PENDING, FileStatus.IN_PROGRESS, FileStatus.PAUSED);
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadFileRepository uploadFileRepository;
+    private final AtomicLong activeSessions = new AtomicLong();
+    private final AtomicLong inFlightFiles = new AtomicLong();
+
+    public UploadGauges(UploadSessionRepository uploadSessionRepository,
+                        UploadFileRepository uploadFileRepository,
+                        MeterRegistry meterRegistry) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadFileRepository = uploadFileRepository;
+        Gauge.builder("upload.sessions.active", activeSessions, AtomicLong::get)
+                .description("Upload sessions in progress or paused")
+                .register(meterRegistry);
+        Gauge.builder("upload.files.in_flight", inFlightFiles, AtomicLong::get)
+                .description("Files registered but not yet uploaded or failed")
+                .register(meterRegistry);
+    }
+
+    // A failed count keeps the last values; the next run retries
+    @Scheduled(fixedDelayString = "${app.metrics.gauge-refresh-interval:30s}")
+    public void refresh() {
+        try {
+            activeSessions.set(uploadSessionRepository.countByStatusIn(ACTIVE_SESSION));
+            inFlightFiles.set(uploadFileRepository.countByStatusIn(IN_FLIGHT_FILE));
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh upload gauges: {}", e.getMessage());
+        }
+    }
+}
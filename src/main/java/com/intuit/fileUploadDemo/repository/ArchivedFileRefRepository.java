@@ -0,0 +1,7 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.ArchivedFileRef;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivedFileRefRepository extends JpaRepository<ArchivedFileRef, String> {
+}
@@ -0,0 +1,28 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.ArchivedSession;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.repository.projection.SessionHistoryView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedSessionRepository extends JpaRepository<ArchivedSession, String>, ArchivedSessionRepositoryCustom {
+
+    // Same keyset page as UploadSessionRepository.findHistoryPage; the file totals were stored when archiving
+    @Query("select a.id as sessionId, a.status as status, a.createdAt as createdAt, a.updatedAt as updatedAt, "
+            + "a.fileCount as fileCount, a.totalBytes as totalBytes "
+            + "from ArchivedSession a where a.userId = :userId and a.status in :statuses "
+            + "and (a.createdAt, a.id) < (:createdAt, :id) "
+            + "order by a.createdAt desc, a.id desc")
+    List<SessionHistoryView> findHistoryPage(@Param("userId") String userId,
+                                             @Param("statuses") Collection<SessionStatus> statuses,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") String id,
+                                             Pageable pageable);
+}
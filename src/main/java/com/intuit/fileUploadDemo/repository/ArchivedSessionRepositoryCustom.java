@@ -0,0 +1,15 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.ArchivedFileRef;
+import com.intuit.fileUploadDemo.entities.ArchivedSession;
+
+import java.util.List;
+
+public interface ArchivedSessionRepositoryCustom {
+
+    /**
+     * Insert archive rows and their file references with batched JDBC inserts.
+     * The entities are not attached to the persistence context.
+     */
+    void insertAll(List<ArchivedSession> sessions, List<ArchivedFileRef> fileRefs);
+}
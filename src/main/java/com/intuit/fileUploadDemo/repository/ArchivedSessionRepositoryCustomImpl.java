@@ -0,0 +1,48 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.ArchivedFileRef;
+import com.intuit.fileUploadDemo.entities.ArchivedSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC side of {@link ArchivedSessionRepository}: archive ids are the original ones, so saveAll would
+ * merge (one SELECT per row) where a batch of INSERTs is enough.
+ */
+@RequiredArgsConstructor
+public class ArchivedSessionRepositoryCustomImpl implements ArchivedSessionRepositoryCustom {
+
+    private static final String INSERT_SESSION =
+            "insert into upload_session_archive (id, user_id, status, created_at, updated_at, archived_at, "
+                    + "file_count, total_bytes, files_json) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_FILE_REF = "insert into upload_file_archive (file_id, session_id) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.upload.chunk-insert-batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<ArchivedSession> sessions, List<ArchivedFileRef> fileRefs) {
+        jdbcTemplate.batchUpdate(INSERT_SESSION, sessions, batchSize, (ps, s) -> {
+            ps.setString(1, s.getId());
+            ps.setString(2, s.getUserId());
+            ps.setString(3, s.getStatus().name());
+            ps.setTimestamp(4, Timestamp.from(s.getCreatedAt()));
+            ps.setTimestamp(5, Timestamp.from(s.getUpdatedAt()));
+            ps.setTimestamp(6, Timestamp.from(s.getArchivedAt()));
+            ps.setInt(7, s.getFileCount());
+            ps.setLong(8, s.getTotalBytes());
+            ps.setString(9, s.getFilesJson());
+        });
+        jdbcTemplate.batchUpdate(INSERT_FILE_REF, fileRefs, batchSize, (ps, r) -> {
+            ps.setString(1, r.getFileId());
+            ps.setString(2, r.getSessionId());
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.CompletionJob;
+import com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CompletionJobRepository extends JpaRepository<CompletionJob, String> {
+
+    Optional<CompletionJob> findFirstByFileIdAndStatusInOrderByCreatedAtDesc(String fileId, Collection<CompletionJobStatus> statuses);
+
+    @Query("select j.id from CompletionJob j where j.status = :status order by j.createdAt asc")
+    List<String> findIdsByStatus(@Param("status") CompletionJobStatus status, Pageable pageable);
+
+    // Conditional status transition; returns 0 when the job is no longer in status `from`
+    @Modifying
+    @Query("update CompletionJob j set j.status = :to, j.updatedAt = :now "
+            + "where j.id = :id and j.status = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") CompletionJobStatus from,
+                   @Param("to") CompletionJobStatus to,
+                   @Param("now") Instant now);
+
+    // QUEUED -> RUNNING for exactly one worker, counting the attempt and recording who runs it
+    @Modifying
+    @Query("update CompletionJob j set j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.RUNNING, "
+            + "j.attempts = j.attempts + 1, j.owner = :owner, j.heartbeatAt = :now, j.updatedAt = :now "
+            + "where j.id = :id and j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.QUEUED")
+    int claim(@Param("id") String id, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update CompletionJob j set j.heartbeatAt = :now "
+            + "where j.id in :ids and j.owner = :owner "
+            + "and j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.RUNNING")
+    int heartbeat(@Param("ids") Collection<String> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    // RUNNING jobs whose owner stopped heartbeating (it died or lost the database) go back to QUEUED
+    @Modifying
+    @Query("update CompletionJob j set j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.QUEUED, "
+            + "j.owner = null, j.updatedAt = :now "
+            + "where j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.RUNNING "
+            + "and (j.heartbeatAt is null or j.heartbeatAt < :cutoff)")
+    int requeueStale(@Param("cutoff") Instant cutoff, @Param("now") Instant now);
+
+    // RUNNING -> SUCCEEDED/FAILED, only by the instance that still owns the run; returns 0 when the job was
+    // requeued as stale in the meantime (and possibly claimed by another instance)
+    @Modifying
+    @Query("update CompletionJob j set j.status = :status, j.lastError = :error, j.updatedAt = :now "
+            + "where j.id = :id and j.owner = :owner "
+            + "and j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.RUNNING")
+    int finish(@Param("id") String id,
+               @Param("owner") String owner,
+               @Param("status") CompletionJobStatus status,
+               @Param("error") String error,
+               @Param("now") Instant now);
+
+    // QUEUED -> FAILED for a job that could not be dispatched; returns 0 when a worker already claimed it
+    @Modifying
+    @Query("update CompletionJob j set j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.FAILED, "
+            + "j.lastError = :error, j.updatedAt = :now "
+            + "where j.id = :id and j.status = com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus.QUEUED")
+    int failQueued(@Param("id") String id, @Param("error") String error, @Param("now") Instant now);
+}
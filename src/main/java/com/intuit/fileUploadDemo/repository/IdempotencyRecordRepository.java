@@ -0,0 +1,41 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain INSERT (save() would merge into an existing row) that skips a key already held and returns 0,
+    // so an ordinary retry is not a constraint violation. Only two claims racing past the NOT EXISTS both
+    // insert, and the primary key makes the second fail
+    @Modifying
+    @Query(value = "insert into idempotency_records (id, idempotency_key, scope, request_hash, status, created_at, expires_at) "
+            + "select :id, :key, :scope, :requestHash, 'IN_PROGRESS', :now, :expiresAt "
+            + "where not exists (select 1 from idempotency_records r where r.id = :id)", nativeQuery = true)
+    int insertInProgressIfAbsent(@Param("id") String id,
+                         @Param("key") String key,
+                         @Param("scope") String scope,
+                         @Param("requestHash") String requestHash,
+                         @Param("now") Instant now,
+                         @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = com.intuit.fileUploadDemo.entities.enums.IdempotencyStatus.COMPLETED, "
+            + "r.responseJson = :responseJson where r.id = :id")
+    int complete(@Param("id") String id, @Param("responseJson") String responseJson);
+
+    // Expired rows, and IN_PROGRESS rows whose request died before finishing, no longer hold the key
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and (r.expiresAt < :now or "
+            + "(r.status = com.intuit.fileUploadDemo.entities.enums.IdempotencyStatus.IN_PROGRESS and r.createdAt < :staleBefore))")
+    int deleteIfReclaimable(@Param("id") String id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
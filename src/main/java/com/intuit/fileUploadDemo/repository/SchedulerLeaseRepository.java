@@ -0,0 +1,31 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // Plain INSERT: when two instances create the lease at once, the primary key lets exactly one win
+    @Modifying
+    @Query(value = "insert into scheduler_leases (name, owner, locked_until) values (:name, :owner, :lockedUntil)",
+            nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner, @Param("lockedUntil") Instant lockedUntil);
+
+    // Renews our own lease or takes over an expired one; 0 while another instance holds it
+    @Modifying
+    @Query("update SchedulerLease l set l.owner = :owner, l.lockedUntil = :lockedUntil "
+            + "where l.name = :name and (l.owner = :owner or l.lockedUntil < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") Instant now,
+                @Param("lockedUntil") Instant lockedUntil);
+
+    @Modifying
+    @Query("update SchedulerLease l set l.lockedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
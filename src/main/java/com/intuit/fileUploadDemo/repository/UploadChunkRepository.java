@@ -1,15 +1,80 @@
 package com.intuit.fileUploadDemo.repository;
 
 import com.intuit.fileUploadDemo.entities.UploadChunk;
+import com.intuit.fileUploadDemo.entities.enums.ChunkStatus;
+import com.intuit.fileUploadDemo.repository.projection.PendingChunkView;
+import com.intuit.fileUploadDemo.repository.projection.UploadedChunkView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface UploadChunkRepository extends JpaRepository<UploadChunk,String> {
+public interface UploadChunkRepository extends JpaRepository<UploadChunk,String>, UploadChunkRepositoryCustom {
     List<UploadChunk> findByFileIdOrderByChunkIndexAsc(String fileId);
+
+    // Locks a legacy file's rows while the bitmap store converts it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from UploadChunk c where c.file.id = :fileId order by c.chunkIndex")
+    List<UploadChunk> findByFileIdForUpdate(@Param("fileId") String fileId);
     List<UploadChunk> findByFileIdAndStatusOrderByChunkIndexAsc(String fileId, String status);
     Optional<UploadChunk> findByFileIdAndChunkIndex(String fileId, int chunkIndex);
     long countByFileIdAndStatus(String fileId, String status);
     boolean existsByFileIdAndChunkIndex(String fileId, int chunkIndex);
+
+    @Query("select c.chunkIndex from UploadChunk c where c.file.id = :fileId and c.chunkIndex in :chunkIndexes")
+    List<Integer> findExistingChunkIndexes(@Param("fileId") String fileId,
+                                           @Param("chunkIndexes") Collection<Integer> chunkIndexes);
+
+    // Pending chunk indexes of every file in a session, in one statement and without loading entities
+    @Query("select c.file.id as fileId, c.chunkIndex as chunkIndex from UploadChunk c "
+            + "where c.file.session.id = :sessionId and c.status <> :uploaded order by c.chunkIndex")
+    List<PendingChunkView> findPendingBySessionId(@Param("sessionId") String sessionId,
+                                                  @Param("uploaded") ChunkStatus uploaded);
+
+    // Acknowledge a part; matches nothing if it was already uploaded, so only one concurrent ack wins
+    @Modifying
+    @Query("update UploadChunk c set c.status = :uploaded, c.etag = :etag, c.uploadedAt = :now "
+            + "where c.file.id = :fileId and c.chunkIndex = :chunkIndex and c.status <> :uploaded")
+    int markChunkUploaded(@Param("fileId") String fileId,
+                          @Param("chunkIndex") int chunkIndex,
+                          @Param("etag") String etag,
+                          @Param("now") Instant now,
+                          @Param("uploaded") ChunkStatus uploaded);
+
+    @Modifying
+    @Query("update UploadChunk c set c.etag = :etag where c.file.id = :fileId and c.chunkIndex = :chunkIndex")
+    int updateChunkEtag(@Param("fileId") String fileId,
+                        @Param("chunkIndex") int chunkIndex,
+                        @Param("etag") String etag);
+
+    @Query("select c.file.id as fileId, c.chunkIndex as chunkIndex, c.etag as etag from UploadChunk c "
+            + "where c.file.id = :fileId and c.status = :uploaded order by c.chunkIndex")
+    List<UploadedChunkView> findUploadedByFileId(@Param("fileId") String fileId,
+                                                 @Param("uploaded") ChunkStatus uploaded);
+
+    // Uploaded parts of every file in the given sessions, in one statement
+    @Query("select c.file.id as fileId, c.chunkIndex as chunkIndex, c.etag as etag from UploadChunk c "
+            + "where c.file.session.id in :sessionIds and c.status = :uploaded")
+    List<UploadedChunkView> findUploadedBySessionIds(@Param("sessionIds") Collection<String> sessionIds,
+                                                     @Param("uploaded") ChunkStatus uploaded);
+
+    // Keyset over file ids, so a file whose rows survive a batch is never returned again
+    @Query("select distinct c.file.id from UploadChunk c where c.file.id > :after order by c.file.id")
+    List<String> findFileIdsWithChunksAfter(@Param("after") String after, Pageable pageable);
+
+    @Modifying
+    @Query("delete from UploadChunk c where c.file.id = :fileId")
+    int deleteByFileId(@Param("fileId") String fileId);
+
+    @Modifying
+    @Query("delete from UploadChunk c where c.file.id in (select f.id from UploadFile f where f.session.id in :sessionIds)")
+    int deleteBySessionIds(@Param("sessionIds") Collection<String> sessionIds);
 }
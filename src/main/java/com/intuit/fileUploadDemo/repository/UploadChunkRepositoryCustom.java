@@ -0,0 +1,26 @@
+package com.intuit.fileUploadDemo.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+public interface UploadChunkRepositoryCustom {
+
+    /**
+     * Insert {@code chunkCount} PENDING chunk rows (indexes 0..chunkCount-1) for a file
+     * using batched JDBC inserts. The file row must already be flushed.
+     */
+    void insertPendingChunks(String fileId, int chunkCount);
+
+    /**
+     * {@link #insertPendingChunks(String, int)} for several files, filling batches across file boundaries.
+     * @param chunkCountByFileId fileId -> chunkCount
+     */
+    void insertPendingChunks(Map<String, Integer> chunkCountByFileId);
+
+    /**
+     * Set status UPLOADED, the ETag and uploadedAt for the given parts with batched JDBC updates.
+     * @param partToEtag partNumber (1-based) -> eTag
+     * @return number of chunk rows updated
+     */
+    int markUploaded(String fileId, Map<Integer, String> partToEtag, Instant uploadedAt);
+}
@@ -0,0 +1,81 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.enums.ChunkStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC side of {@link UploadChunkRepository}. Registering a file creates one row per part,
+ * which through JPA means one merge + insert per row; here the rows go out as JDBC batches
+ * (for PostgreSQL, add reWriteBatchedInserts=true to the JDBC URL to turn them into multi-row inserts).
+ */
+@RequiredArgsConstructor
+public class UploadChunkRepositoryCustomImpl implements UploadChunkRepositoryCustom {
+
+    private static final String INSERT_CHUNK =
+            "insert into upload_chunks (id, file_id, chunk_index, status) values (?, ?, ?, ?)";
+
+    private static final String MARK_UPLOADED =
+            "update upload_chunks set status = ?, etag = ?, uploaded_at = ? where file_id = ? and chunk_index = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.upload.chunk-insert-batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void insertPendingChunks(String fileId, int chunkCount) {
+        insertPendingChunks(Map.of(fileId, chunkCount));
+    }
+
+    @Override
+    public void insertPendingChunks(Map<String, Integer> chunkCountByFileId) {
+        int total = chunkCountByFileId.values().stream().mapToInt(Integer::intValue).sum();
+        List<Object[]> batch = new ArrayList<>(Math.min(total, batchSize));
+        for (Map.Entry<String, Integer> file : chunkCountByFileId.entrySet()) {
+            for (int i = 0; i < file.getValue(); i++) {
+                batch.add(new Object[]{nextChunkId(), file.getKey(), i, ChunkStatus.PENDING.name()});
+                if (batch.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_CHUNK, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CHUNK, batch);
+        }
+    }
+
+    @Override
+    public int markUploaded(String fileId, Map<Integer, String> partToEtag, Instant uploadedAt) {
+        Timestamp ts = Timestamp.from(uploadedAt);
+        List<Object[]> args = new ArrayList<>(partToEtag.size());
+        partToEtag.forEach((partNo, etag) ->
+                args.add(new Object[]{ChunkStatus.UPLOADED.name(), etag, ts, fileId, partNo - 1}));
+
+        int updated = 0;
+        for (int[] counts : jdbcTemplate.batchUpdate(MARK_UPLOADED, args, batchSize,
+                (ps, a) -> {
+                    for (int i = 0; i < a.length; i++) ps.setObject(i + 1, a[i]);
+                })) {
+            for (int c : counts) {
+                // Some drivers report SUCCESS_NO_INFO (-2) for batched statements
+                updated += c == Statement.SUCCESS_NO_INFO ? 1 : c;
+            }
+        }
+        return updated;
+    }
+
+    private static String nextChunkId() {
+        return "C" + UUID.randomUUID().toString().replace("-", "");
+    }
+}
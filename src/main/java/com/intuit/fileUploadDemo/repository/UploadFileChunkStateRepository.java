@@ -0,0 +1,36 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.UploadFileChunkState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadFileChunkStateRepository extends JpaRepository<UploadFileChunkState,String> {
+    // Row lock for read-modify-write of a single part (part acknowledgements)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select st from UploadFileChunkState st where st.fileId = :fileId")
+    Optional<UploadFileChunkState> findForUpdate(@Param("fileId") String fileId);
+
+    // [fileId, state-or-null] for every multipart file of a session; null means the file has no bitmap yet
+    @Query("select f.id, st from UploadFile f left join UploadFileChunkState st on st.fileId = f.id "
+            + "where f.session.id = :sessionId "
+            + "and (f.uploadMode is null or f.uploadMode <> com.intuit.fileUploadDemo.entities.enums.UploadMode.SINGLE_PUT)")
+    List<Object[]> findFileIdsWithStateBySessionId(@Param("sessionId") String sessionId);
+
+    // Same, for the files of several sessions
+    @Query("select f.id, st from UploadFile f left join UploadFileChunkState st on st.fileId = f.id "
+            + "where f.session.id in :sessionIds "
+            + "and (f.uploadMode is null or f.uploadMode <> com.intuit.fileUploadDemo.entities.enums.UploadMode.SINGLE_PUT)")
+    List<Object[]> findFileIdsWithStateBySessionIds(@Param("sessionIds") Collection<String> sessionIds);
+
+    @Modifying
+    @Query("delete from UploadFileChunkState st where st.fileId in (select f.id from UploadFile f where f.session.id in :sessionIds)")
+    int deleteBySessionIds(@Param("sessionIds") Collection<String> sessionIds);
+}
@@ -2,15 +2,77 @@ package com.intuit.fileUploadDemo.repository;
 
 import com.intuit.fileUploadDemo.entities.UploadFile;
 import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.repository.projection.FileStatusView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface UploadFileRepository extends JpaRepository<UploadFile,String> {
+public interface UploadFileRepository extends JpaRepository<UploadFile,String>, UploadFileRepositoryCustom {
     List<UploadFile> findBySessionIdOrderByCreatedAtAsc(String sessionId);
     List<UploadFile> findBySessionIdAndStatus(String sessionId, FileStatus status);
     Optional<UploadFile> findBySessionIdAndFileName(String sessionId, String fileName);
     long countBySessionIdAndStatus(String sessionId, FileStatus status);
+    long countByStatusIn(Collection<FileStatus> statuses);
 
+    @Query("select f.id as fileId, f.fileName as fileName, f.totalChunks as totalChunks, "
+            + "f.uploadedChunks as uploadedChunks, f.status as status, f.uploadMode as uploadMode "
+            + "from UploadFile f where f.session.id = :sessionId order by f.createdAt asc")
+    List<FileStatusView> findStatusViewsBySessionId(@Param("sessionId") String sessionId);
+
+    // Set-based status transition for every file of a session currently in status `from`
+    @Modifying
+    @Query("update UploadFile f set f.status = :to, f.updatedAt = :now "
+            + "where f.session.id = :sessionId and f.status = :from")
+    int updateStatusBySessionId(@Param("sessionId") String sessionId,
+                                @Param("from") FileStatus from,
+                                @Param("to") FileStatus to,
+                                @Param("now") Instant now);
+
+    // Progress counter maintained in the database, so concurrent acknowledgements never lose an increment
+    @Modifying
+    @Query("update UploadFile f set f.uploadedChunks = f.uploadedChunks + :delta, f.updatedAt = :now "
+            + "where f.id = :fileId")
+    int incrementUploadedChunks(@Param("fileId") String fileId,
+                                @Param("delta") int delta,
+                                @Param("now") Instant now);
+
+    @Query("select f.uploadedChunks from UploadFile f where f.id = :fileId")
+    int findUploadedChunksById(@Param("fileId") String fileId);
+
+    // Uploads nobody has touched since `cutoff`, oldest first. Locked until the caller's transaction ends,
+    // so an acknowledgement racing the reaper waits for the status change instead of reviving the file
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from UploadFile f where f.status in :statuses and f.updatedAt < :cutoff order by f.updatedAt asc")
+    List<UploadFile> findIdleForUpdate(@Param("statuses") Collection<FileStatus> statuses,
+                                       @Param("cutoff") Instant cutoff,
+                                       Pageable pageable);
+
+    // Serializes writers that check-then-insert per file (completion job submission) until the caller's
+    // transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from UploadFile f where f.id = :id")
+    Optional<UploadFile> findByIdForUpdate(@Param("id") String id);
+
+    @Query("select f from UploadFile f where f.session.id in :sessionIds order by f.createdAt asc")
+    List<UploadFile> findBySessionIds(@Param("sessionIds") Collection<String> sessionIds);
+
+    @Modifying
+    @Query("delete from UploadFile f where f.session.id in :sessionIds")
+    int deleteBySessionIds(@Param("sessionIds") Collection<String> sessionIds);
+
+    @Modifying
+    @Query("update UploadFile f set f.status = :to, f.updatedAt = :now where f.id in :ids and f.status in :from")
+    int updateStatusByIds(@Param("ids") Collection<String> ids,
+                          @Param("from") Collection<FileStatus> from,
+                          @Param("to") FileStatus to,
+                          @Param("now") Instant now);
 }
@@ -0,0 +1,14 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.UploadFile;
+
+import java.util.List;
+
+public interface UploadFileRepositoryCustom {
+
+    /**
+     * Insert new file rows with batched JDBC inserts. The entities are not attached to the
+     * persistence context; ids and the session must already be set.
+     */
+    void insertAll(List<UploadFile> files);
+}
@@ -0,0 +1,47 @@
+package com.intuit.fileUploadDemo.repository;
+
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC side of {@link UploadFileRepository}. UploadFile ids are assigned, so saveAll would
+ * merge (one SELECT then one INSERT per file); bulk registration writes the rows as JDBC batches instead.
+ */
+@RequiredArgsConstructor
+public class UploadFileRepositoryCustomImpl implements UploadFileRepositoryCustom {
+
+    private static final String INSERT_FILE =
+            "insert into upload_files (id, session_id, file_name, file_size, total_chunks, part_size, uploaded_chunks, "
+                    + "status, upload_mode, s3_bucket, s3_key, upload_id, created_at, updated_at) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.upload.chunk-insert-batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<UploadFile> files) {
+        jdbcTemplate.batchUpdate(INSERT_FILE, files, batchSize, (ps, f) -> {
+            ps.setString(1, f.getId());
+            ps.setString(2, f.getSession().getId());
+            ps.setString(3, f.getFileName());
+            ps.setLong(4, f.getFileSize());
+            ps.setInt(5, f.getTotalChunks());
+            ps.setObject(6, f.getPartSize());
+            ps.setInt(7, f.getUploadedChunks());
+            ps.setString(8, f.getStatus().name());
+            ps.setString(9, f.getUploadMode().name());
+            ps.setString(10, f.getS3Bucket());
+            ps.setString(11, f.getS3Key());
+            ps.setString(12, f.getUploadId());
+            ps.setTimestamp(13, Timestamp.from(f.getCreatedAt()));
+            ps.setTimestamp(14, Timestamp.from(f.getUpdatedAt()));
+        });
+    }
+}
@@ -1,12 +1,21 @@
 package com.intuit.fileUploadDemo.repository;
 
 import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
 import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.repository.projection.SessionHistoryView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UploadSessionRepository extends JpaRepository<UploadSession,String> {
@@ -18,5 +27,55 @@ public interface UploadSessionRepository extends JpaRepository<UploadSession,Str
     // Reuse by userId: get the most recent non-completed session (IN_PROGRESS or PAUSED)
     Optional<UploadSession> findFirstByUserIdAndStatusIn(String userId, Collection<SessionStatus> statuses);
 
+    long countByStatusIn(Collection<SessionStatus> statuses);
 
+    // A page of a user's sessions, newest first, strictly after the keyset (createdAt, id).
+    // The row-value predicate is one range on ix_sessions_user_created, and the page is cut in the
+    // subquery so only its `limit` sessions are joined to their files and aggregated
+    @Query("select p.id as sessionId, p.status as status, p.createdAt as createdAt, p.updatedAt as updatedAt, "
+            + "count(f.id) as fileCount, coalesce(sum(f.fileSize), 0) as totalBytes "
+            + "from (select s.id as id, s.status as status, s.createdAt as createdAt, s.updatedAt as updatedAt "
+            + "      from UploadSession s where s.userId = :userId and s.status in :statuses "
+            + "      and (s.createdAt, s.id) < (:createdAt, :id) "
+            + "      order by s.createdAt desc, s.id desc limit :limit) p "
+            + "left join UploadFile f on f.session.id = p.id "
+            + "group by p.id, p.status, p.createdAt, p.updatedAt "
+            + "order by p.createdAt desc, p.id desc")
+    List<SessionHistoryView> findHistoryPage(@Param("userId") String userId,
+                                             @Param("statuses") Collection<SessionStatus> statuses,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") String id,
+                                             @Param("limit") int limit);
+
+    // Sessions idle since `cutoff`: neither the session nor any of its files changed after it, not counting
+    // files that changed by failing. Oldest first, locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UploadSession s where s.status in :statuses and s.updatedAt < :cutoff "
+            + "and not exists (select f.id from UploadFile f where f.session = s and f.updatedAt >= :cutoff "
+            + "and f.status <> com.intuit.fileUploadDemo.entities.enums.FileStatus.FAILED) "
+            + "order by s.updatedAt asc")
+    List<UploadSession> findIdleForUpdate(@Param("statuses") Collection<SessionStatus> statuses,
+                                          @Param("cutoff") Instant cutoff,
+                                          Pageable pageable);
+
+    // Finished sessions last changed before `cutoff` whose files have all settled. Oldest first, locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UploadSession s where s.status in :statuses and s.updatedAt < :cutoff "
+            + "and not exists (select f.id from UploadFile f where f.session = s and f.status in :unsettled) "
+            + "order by s.updatedAt asc")
+    List<UploadSession> findArchivableForUpdate(@Param("statuses") Collection<SessionStatus> statuses,
+                                                @Param("unsettled") Collection<FileStatus> unsettledFileStatuses,
+                                                @Param("cutoff") Instant cutoff,
+                                                Pageable pageable);
+
+    @Modifying
+    @Query("delete from UploadSession s where s.id in :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("update UploadSession s set s.status = :to, s.updatedAt = :now where s.id in :ids and s.status in :from")
+    int updateStatusByIds(@Param("ids") Collection<String> ids,
+                          @Param("from") Collection<SessionStatus> from,
+                          @Param("to") SessionStatus to,
+                          @Param("now") Instant now);
 }
@@ -0,0 +1,16 @@
+package com.intuit.fileUploadDemo.repository.projection;
+
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+
+/**
+ * Columns of upload_files needed for a session status row.
+ */
+public interface FileStatusView {
+    String getFileId();
+    String getFileName();
+    int getTotalChunks();
+    int getUploadedChunks();
+    FileStatus getStatus();
+    UploadMode getUploadMode();
+}
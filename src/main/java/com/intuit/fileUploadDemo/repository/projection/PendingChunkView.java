@@ -0,0 +1,6 @@
+package com.intuit.fileUploadDemo.repository.projection;
+
+public interface PendingChunkView {
+    String getFileId();
+    int getChunkIndex();
+}
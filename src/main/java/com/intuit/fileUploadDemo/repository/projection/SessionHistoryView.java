@@ -0,0 +1,17 @@
+package com.intuit.fileUploadDemo.repository.projection;
+
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+
+import java.time.Instant;
+
+/**
+ * One row of a user's session history, with its files aggregated by the same query.
+ */
+public interface SessionHistoryView {
+    String getSessionId();
+    SessionStatus getStatus();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+    long getFileCount();
+    long getTotalBytes();
+}
@@ -0,0 +1,7 @@
+package com.intuit.fileUploadDemo.repository.projection;
+
+public interface UploadedChunkView {
+    String getFileId();
+    int getChunkIndex();
+    String getEtag();
+}
@@ -0,0 +1,78 @@
+package com.intuit.fileUploadDemo.service;
+
+import com.intuit.fileUploadDemo.entities.UploadFile;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Per-part upload state of multipart files. Chunk indexes are 0-based; part numbers 1-based.
+ * Selected with {@code app.upload.chunk-store}: {@code rows} (one upload_chunks row per part, default)
+ * or {@code bitmap} (one packed row per file).
+ */
+public interface ChunkStateStore {
+
+    /**
+     * Create state for a newly registered file with all {@code file.totalChunks} parts pending.
+     * The file row must already be flushed.
+     */
+    void initialize(UploadFile file);
+
+    /**
+     * {@link #initialize} for many newly registered files at once (bulk registration).
+     */
+    default void initializeAll(Collection<UploadFile> files) {
+        files.forEach(this::initialize);
+    }
+
+    /**
+     * Of the given chunk indexes, return those that exist for the file.
+     */
+    Set<Integer> existingChunkIndexes(UploadFile file, Collection<Integer> chunkIndexes);
+
+    /**
+     * Pending (not uploaded) chunk indexes, ascending, keyed by file id, for every file of a session.
+     * Files with nothing pending may be absent from the map. Uses a constant number of queries.
+     */
+    Map<String, List<Integer>> pendingChunkIndexesBySession(String sessionId);
+
+    /**
+     * Mark every chunk of the file uploaded with its ETag.
+     * @param partToEtag partNumber -> eTag; must cover every part
+     * @throws IllegalStateException if a part has no ETag
+     */
+    void markAllUploaded(UploadFile file, Map<Integer, String> partToEtag);
+
+    /**
+     * Record one acknowledged part. Acknowledging a part again only replaces its ETag.
+     * Safe under concurrent acknowledgements of the same part: exactly one caller sees {@code true}.
+     * @return true if the part was not uploaded before
+     */
+    boolean markUploaded(UploadFile file, int partNumber, String etag);
+
+    /**
+     * Uploaded parts of the file as partNumber -> eTag, ascending by part number.
+     */
+    SortedMap<Integer, String> uploadedParts(UploadFile file);
+
+    /**
+     * {@link #uploadedParts} of every file in the given sessions, keyed by file id. Files with no uploaded
+     * part may be absent from the map. Uses a constant number of queries and never writes.
+     */
+    Map<String, SortedMap<Integer, String>> uploadedPartsBySessions(Collection<String> sessionIds);
+
+    /**
+     * @throws IllegalStateException unless every part 1..totalChunks has a non-blank ETag
+     */
+    static void requireEtagForEveryPart(int totalChunks, Map<Integer, String> partToEtag) {
+        for (int partNo = 1; partNo <= totalChunks; partNo++) {
+            String etag = partToEtag.get(partNo);
+            if (etag == null || etag.isBlank()) {
+                throw new IllegalStateException("Missing ETag for partNumber " + partNo);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.intuit.fileUploadDemo.service;
+
+import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
+import com.intuit.fileUploadDemo.dto.response.CompletionJobResponse;
+
+public interface CompletionJobService {
+
+    // Validates the request, persists a QUEUED job and hands it to the worker pool
+    CompletionJobResponse submit(String fileId, CompleteFileRequest request);
+
+    CompletionJobResponse getJob(String jobId);
+
+    // FAILED -> QUEUED, re-dispatched with the originally submitted parts
+    CompletionJobResponse retry(String jobId);
+}
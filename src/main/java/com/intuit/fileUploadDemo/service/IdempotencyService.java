@@ -0,0 +1,21 @@
+package com.intuit.fileUploadDemo.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs a mutating operation at most once per {@code Idempotency-Key} and scope. A retry with the
+ * same key and request gets the stored response without the operation running again; a retry while
+ * the first request is still running gets 409, and reusing a key with a different request gets 400.
+ * Failed operations are not stored, so the client can retry them with the same key.
+ * A null key runs the operation unconditionally.
+ */
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    <T> T execute(String key, String scope, Object request, Class<T> responseType, Supplier<T> operation);
+
+    <T> CompletableFuture<T> executeAsync(String key, String scope, Object request, Class<T> responseType,
+                                          Supplier<CompletableFuture<T>> operation);
+}
@@ -0,0 +1,84 @@
+package com.intuit.fileUploadDemo.service;
+
+import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Chooses the multipart part size and part count for a file.
+ * <p>
+ * Starting point, in order of preference: the client's {@code chunkCount}, then a size that one
+ * connection uploads in {@code target-part-duration} given the client's bandwidth and concurrency,
+ * then the configured target size. The result is then forced inside S3's limits (5 MiB minimum
+ * part, 5 GiB maximum part, 10,000 parts) and, when the client has parallel connections, shrunk
+ * so there are at least as many parts as connections.
+ */
+@Component
+public class PartSizePlanner {
+
+    public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    public static final long MAX_PART_SIZE = 5L * 1024 * 1024 * 1024;
+    public static final int MAX_PARTS = 10_000;
+    public static final long MAX_OBJECT_SIZE = 5L * 1024 * 1024 * 1024 * 1024;
+
+    private static final long ALIGNMENT = 1024 * 1024;
+
+    private final long targetPartSize;
+    private final long minPartSize;
+    private final int maxParts;
+    private final Duration targetPartDuration;
+
+    public PartSizePlanner(@Value("${app.upload.part-size.target:16MB}") DataSize targetPartSize,
+                           @Value("${app.upload.part-size.min:5MB}") DataSize minPartSize,
+                           @Value("${app.upload.part-size.max-parts:10000}") int maxParts,
+                           @Value("${app.upload.part-size.target-part-duration:10s}") Duration targetPartDuration) {
+        this.minPartSize = Math.max(MIN_PART_SIZE, minPartSize.toBytes());
+        this.targetPartSize = Math.max(this.minPartSize, targetPartSize.toBytes());
+        this.maxParts = Math.min(MAX_PARTS, maxParts);
+        this.targetPartDuration = targetPartDuration;
+    }
+
+    public record PartPlan(long partSize, int partCount) {}
+
+    public PartPlan plan(RegisterFileRequest request) {
+        long fileSize = request.getFileSize();
+        if (fileSize > MAX_OBJECT_SIZE) {
+            throw new IllegalArgumentException("fileSize exceeds the 5 TiB S3 object limit: " + fileSize);
+        }
+        int concurrency = request.getConcurrency() == null ? 1 : request.getConcurrency();
+
+        long partSize;
+        if (request.getChunkCount() != null) {
+            partSize = ceilDiv(fileSize, request.getChunkCount());
+        } else if (request.getBandwidthBytesPerSecond() != null) {
+            // Size a part so a failed one costs at most ~targetPartDuration to resend on one connection
+            long perConnection = Math.max(1, request.getBandwidthBytesPerSecond() / concurrency);
+            partSize = perConnection * targetPartDuration.toSeconds();
+        } else {
+            partSize = targetPartSize;
+        }
+
+        // Keep every connection busy: no fewer parts than connections, as long as parts stay >= minimum
+        if (concurrency > 1) {
+            partSize = Math.min(partSize, ceilDiv(fileSize, concurrency));
+        }
+
+        partSize = Math.max(partSize, minPartSize);
+        partSize = Math.max(partSize, ceilDiv(fileSize, maxParts));
+        partSize = Math.min(align(partSize), MAX_PART_SIZE);
+
+        int partCount = (int) Math.max(1, ceilDiv(fileSize, partSize));
+        return new PartPlan(partSize, partCount);
+    }
+
+    private static long align(long size) {
+        return ceilDiv(size, ALIGNMENT) * ALIGNMENT;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}
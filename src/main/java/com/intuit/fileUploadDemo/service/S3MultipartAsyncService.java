@@ -0,0 +1,43 @@
+package com.intuit.fileUploadDemo.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link S3MultipartService} for the S3 control-plane calls.
+ * Futures complete on SDK threads; callers must hop to their own executor before blocking work
+ * such as JDBC. Presigning is local CPU work and stays on {@link S3MultipartService}.
+ */
+public interface S3MultipartAsyncService {
+
+    /**
+     * Create a multipart upload in S3 for the given key.
+     * @param contentType nullable; defaults to application/octet-stream if null/blank
+     * @return future of the uploadId from S3
+     */
+    CompletableFuture<String> start(String key, String contentType);
+
+    /**
+     * Complete the multipart upload with the provided parts (partNumber -> ETag), in any order.
+     */
+    CompletableFuture<Void> complete(String key, String uploadId, List<Map.Entry<Integer, String>> parts);
+
+    /**
+     * Abort a multipart upload.
+     */
+    CompletableFuture<Void> abort(String key, String uploadId);
+
+    /**
+     * HEAD the object.
+     * @return future of the object's size, or empty if it does not exist (yet)
+     */
+    CompletableFuture<Optional<Long>> objectSize(String key);
+
+    /**
+     * List already-uploaded parts, following pagination.
+     * Returns (partNumber, eTag) entries sorted by partNumber.
+     */
+    CompletableFuture<List<Map.Entry<Integer, String>>> listParts(String key, String uploadId);
+}
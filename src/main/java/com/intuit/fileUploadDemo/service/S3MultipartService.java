@@ -1,5 +1,6 @@
 package com.intuit.fileUploadDemo.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +24,23 @@ public interface S3MultipartService {
      */
     String presignPart(String key, String uploadId, int partNumber, long contentLength);
 
+    /**
+     * Generate presigned UploadPart URLs for many parts of the same upload in one go.
+     * @param key S3 object key
+     * @param uploadId S3 multipart uploadId
+     * @param partNumbers 1-based part numbers; iteration order is preserved in the result
+     * @return partNumber -> presigned URL (HTTP PUT)
+     */
+    Map<Integer, String> presignParts(String key, String uploadId, Collection<Integer> partNumbers);
+
+    /**
+     * Generate a presigned PutObject URL for uploading a whole (small) object in one request.
+     * @param key S3 object key
+     * @param contentLength bound into the signature when > 0, so the client must send exactly that many bytes
+     * @return presigned URL (HTTP PUT)
+     */
+    String presignPut(String key, long contentLength);
+
     /**
      * Complete the multipart upload with the provided parts (partNumber -> ETag).
      * @param key S3 object key
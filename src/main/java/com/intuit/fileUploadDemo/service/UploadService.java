@@ -1,19 +1,32 @@
 package com.intuit.fileUploadDemo.service;
 
 
+import com.intuit.fileUploadDemo.dto.request.AcknowledgePartRequest;
+import com.intuit.fileUploadDemo.dto.request.BatchPresignPartUrlRequest;
+import com.intuit.fileUploadDemo.dto.request.BulkRegisterFilesRequest;
 import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
 import com.intuit.fileUploadDemo.dto.request.PresignPartUrlRequest;
 import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
 import com.intuit.fileUploadDemo.dto.request.StartSessionRequest;
 import com.intuit.fileUploadDemo.dto.response.*;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface UploadService {
 
     StartSessionResponse startSession(StartSessionRequest request);
-    RegisterFileResponse registerFile(String sessionId, RegisterFileRequest request);
+    // Many files in one call: S3 starts run in parallel, rows are written in one batch; failures are per file
+    BulkRegisterFilesResponse registerFiles(String sessionId, BulkRegisterFilesRequest request);
     PresignPartUrlResponse presignPartUrl(String fileId, PresignPartUrlRequest request);
-    void completeFile(String fileId, CompleteFileRequest request);
+    BatchPresignPartUrlResponse presignPartUrls(String fileId, BatchPresignPartUrlRequest request);
+    // Runs completeFileAsync's validation only (404 / 400 / 409) without touching S3
+    void checkCompletable(String fileId, CompleteFileRequest request);
+    // Client reports one finished part; updates chunk state and the file's progress counter
+    PartAckResponse acknowledgePart(String fileId, int partNumber, AcknowledgePartRequest request);
     SessionStatusResponse getSessionStatus(String sessionId);
+    // Newest first, archived sessions included; pass the returned cursor back for the next page
+    SessionHistoryResponse getSessionHistory(String userId, SessionStatus status, String cursor, int limit);
 
 
     void pauseSession(String sessionId);
@@ -23,5 +36,14 @@ public interface UploadService {
     void resumeFile(String fileId);
 
     void completeSession(String sessionId);
+    // Served from the chunk state store (acknowledged parts), no S3 call
     FilePartsResponse getFileParts(String fileId);
+
+    // Non-blocking variants: the S3 call runs on the async client, DB work on the upload executor
+    CompletableFuture<RegisterFileResponse> registerFileAsync(String sessionId, RegisterFileRequest request);
+    CompletableFuture<Void> completeFileAsync(String fileId, CompleteFileRequest request);
+    // Completion of a SINGLE_PUT file: checks the object exists with the registered size, then marks it UPLOADED
+    CompletableFuture<Void> completeSingleUploadAsync(String fileId);
+    // Asks S3 ListParts and records any parts that were uploaded but never acknowledged
+    CompletableFuture<FilePartsResponse> reconcileFilePartsAsync(String fileId);
 }
@@ -0,0 +1,204 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.entities.UploadChunk;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadFileChunkState;
+import com.intuit.fileUploadDemo.entities.enums.ChunkStatus;
+import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileChunkStateRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.projection.PendingChunkView;
+import com.intuit.fileUploadDemo.repository.projection.UploadedChunkView;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * One packed {@link UploadFileChunkState} row per file (see {@link PackedChunkState}).
+ * <p>
+ * Rough footprint of a 10,000-part file:
+ * <ul>
+ *   <li>rows: 10,000 upload_chunks tuples (two 40-char ids, status, quoted ETag, timestamp, tuple header)
+ *   plus four index entries each, about 2.5-3 MB; 10,000 inserts at register and 10,000 updates at complete.</li>
+ *   <li>bitmap: one tuple of 1,250 B of bits and 160,000 B of ETags, about 160 KB and one index entry;
+ *   one insert at register and one update at complete.</li>
+ * </ul>
+ * Files registered while the row store was active are converted on their first write, or in bulk by
+ * {@link ChunkStateMigrationRunner}. Reads of a file not converted yet are served from its rows, so a read
+ * never writes. A conversion locks the file's chunk rows first, so concurrent writers of the same file queue
+ * behind it and then find its bitmap instead of converting again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.upload.chunk-store", havingValue = "bitmap")
+public class BitmapChunkStateStore implements ChunkStateStore {
+
+    private final UploadFileChunkStateRepository stateRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final UploadFileRepository uploadFileRepository;
+
+    @Override
+    public void initialize(UploadFile file) {
+        UploadFileChunkState row = UploadFileChunkState.builder().fileId(file.getId()).build();
+        PackedChunkState.empty(file.getTotalChunks()).encodeInto(row);
+        stateRepository.save(row);
+    }
+
+    @Override
+    public Set<Integer> existingChunkIndexes(UploadFile file, Collection<Integer> chunkIndexes) {
+        // Every index below totalChunks is represented by construction: no DB read needed
+        Set<Integer> existing = new HashSet<>();
+        for (Integer i : chunkIndexes) {
+            if (i >= 0 && i < file.getTotalChunks()) existing.add(i);
+        }
+        return existing;
+    }
+
+    @Override
+    public Map<String, List<Integer>> pendingChunkIndexesBySession(String sessionId) {
+        Map<String, List<Integer>> pending = new HashMap<>();
+        Set<String> unconverted = new HashSet<>();
+        for (Object[] r : stateRepository.findFileIdsWithStateBySessionId(sessionId)) {
+            String fileId = (String) r[0];
+            UploadFileChunkState row = (UploadFileChunkState) r[1];
+            if (row != null) {
+                pending.put(fileId, PackedChunkState.decode(row).pendingIndexes());
+            } else {
+                unconverted.add(fileId);
+            }
+        }
+        // Files still on rows: one more statement for all of them, as the row store does
+        if (!unconverted.isEmpty()) {
+            for (PendingChunkView v : uploadChunkRepository.findPendingBySessionId(sessionId, ChunkStatus.UPLOADED)) {
+                if (unconverted.contains(v.getFileId())) {
+                    pending.computeIfAbsent(v.getFileId(), k -> new ArrayList<>()).add(v.getChunkIndex());
+                }
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public void markAllUploaded(UploadFile file, Map<Integer, String> partToEtag) {
+        ChunkStateStore.requireEtagForEveryPart(file.getTotalChunks(), partToEtag);
+
+        Loaded loaded = loadForUpdate(file);
+        partToEtag.forEach((partNo, etag) -> loaded.state().markUploaded(partNo - 1, etag));
+        loaded.state().encodeInto(loaded.row());
+        stateRepository.save(loaded.row());
+    }
+
+    @Override
+    public boolean markUploaded(UploadFile file, int partNumber, String etag) {
+        // Locked read-modify-write: concurrent acks of other parts of the same file must not overwrite each other
+        Loaded loaded = loadForUpdate(file);
+        boolean newlyUploaded = loaded.state().markUploaded(partNumber - 1, etag);
+        loaded.state().encodeInto(loaded.row());
+        stateRepository.save(loaded.row());
+        return newlyUploaded;
+    }
+
+    @Override
+    public SortedMap<Integer, String> uploadedParts(UploadFile file) {
+        SortedMap<Integer, String> parts = new TreeMap<>();
+        Optional<UploadFileChunkState> row = stateRepository.findById(file.getId());
+        if (row.isEmpty()) {
+            for (UploadedChunkView v : uploadChunkRepository.findUploadedByFileId(file.getId(), ChunkStatus.UPLOADED)) {
+                parts.put(v.getChunkIndex() + 1, v.getEtag());
+            }
+            return parts;
+        }
+        return uploadedParts(PackedChunkState.decode(row.get()));
+    }
+
+    @Override
+    public Map<String, SortedMap<Integer, String>> uploadedPartsBySessions(Collection<String> sessionIds) {
+        Map<String, SortedMap<Integer, String>> parts = new HashMap<>();
+        Set<String> unconverted = new HashSet<>();
+        for (Object[] r : stateRepository.findFileIdsWithStateBySessionIds(sessionIds)) {
+            String fileId = (String) r[0];
+            UploadFileChunkState row = (UploadFileChunkState) r[1];
+            if (row != null) {
+                parts.put(fileId, uploadedParts(PackedChunkState.decode(row)));
+            } else {
+                unconverted.add(fileId);
+            }
+        }
+        if (!unconverted.isEmpty()) {
+            for (UploadedChunkView v : uploadChunkRepository.findUploadedBySessionIds(sessionIds, ChunkStatus.UPLOADED)) {
+                if (unconverted.contains(v.getFileId())) {
+                    parts.computeIfAbsent(v.getFileId(), k -> new TreeMap<>()).put(v.getChunkIndex() + 1, v.getEtag());
+                }
+            }
+        }
+        return parts;
+    }
+
+    private static SortedMap<Integer, String> uploadedParts(PackedChunkState state) {
+        SortedMap<Integer, String> parts = new TreeMap<>();
+        for (int chunkIndex : state.uploadedIndexes()) {
+            parts.put(chunkIndex + 1, state.etag(chunkIndex));
+        }
+        return parts;
+    }
+
+    /**
+     * Convert the next batch of files, after {@code afterFileId}, that still have upload_chunks rows.
+     * Rows left next to an existing bitmap row are stale and deleted.
+     * @return files converted and the last file id seen; {@code lastFileId} is null once nothing is left
+     */
+    public MigrationBatch migrateRowsBatch(String afterFileId, int batchSize) {
+        List<String> fileIds = uploadChunkRepository.findFileIdsWithChunksAfter(afterFileId, PageRequest.of(0, batchSize));
+        int converted = 0;
+        for (UploadFile f : uploadFileRepository.findAllById(fileIds)) {
+            if (stateRepository.findForUpdate(f.getId()).isPresent()) {
+                int removed = uploadChunkRepository.deleteByFileId(f.getId());
+                log.info("Deleted {} leftover chunk rows of already converted file {}", removed, f.getId());
+            } else {
+                loadForUpdate(f);
+                converted++;
+            }
+        }
+        return new MigrationBatch(converted, fileIds.isEmpty() ? null : fileIds.get(fileIds.size() - 1));
+    }
+
+    public record MigrationBatch(int converted, String lastFileId) {}
+
+    private record Loaded(UploadFileChunkState row, PackedChunkState state) {}
+
+    // The file's bitmap row, locked; converts the file from rows first if it has none yet
+    private Loaded loadForUpdate(UploadFile file) {
+        Optional<UploadFileChunkState> row = stateRepository.findForUpdate(file.getId());
+        if (row.isPresent()) {
+            return new Loaded(row.get(), PackedChunkState.decode(row.get()));
+        }
+        List<UploadChunk> chunks = uploadChunkRepository.findByFileIdForUpdate(file.getId());
+        // Another writer may have converted the file while we waited for the rows (its delete leaves us none)
+        return stateRepository.findForUpdate(file.getId())
+                .map(converted -> new Loaded(converted, PackedChunkState.decode(converted)))
+                .orElseGet(() -> migrateFromRows(file, chunks));
+    }
+
+    // Caller holds the locks on the file's chunk rows
+    private Loaded migrateFromRows(UploadFile file, List<UploadChunk> chunks) {
+        PackedChunkState state = PackedChunkState.empty(file.getTotalChunks());
+        for (UploadChunk c : chunks) {
+            if (c.getStatus() == ChunkStatus.UPLOADED) {
+                state.markUploaded(c.getChunkIndex(), c.getEtag());
+            }
+        }
+
+        UploadFileChunkState row = UploadFileChunkState.builder().fileId(file.getId()).build();
+        state.encodeInto(row);
+        stateRepository.save(row);
+        int removed = uploadChunkRepository.deleteByFileId(file.getId());
+        log.info("Migrated chunk state of file {} from {} rows to bitmap", file.getId(), removed);
+        return new Loaded(row, state);
+    }
+}
@@ -0,0 +1,42 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk rows -> bitmap conversion at startup, one transaction per batch of files.
+ * Enable with {@code app.upload.chunk-store=bitmap} and {@code app.upload.chunk-store.migrate-on-startup=true}.
+ * Without it, files are still converted lazily on their first write.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${app.upload.chunk-store:rows}' == 'bitmap' and ${app.upload.chunk-store.migrate-on-startup:false}")
+public class ChunkStateMigrationRunner implements ApplicationRunner {
+
+    private final BitmapChunkStateStore bitmapStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.chunk-store.migrate-batch-size:100}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int total = 0;
+        String after = "";
+        while (after != null) {
+            String from = after;
+            BitmapChunkStateStore.MigrationBatch batch =
+                    transactionTemplate.execute(status -> bitmapStore.migrateRowsBatch(from, batchSize));
+            total += batch.converted();
+            after = batch.lastFileId();
+        }
+        log.info("Chunk state migration finished: {} files converted to bitmap", total);
+    }
+}
@@ -0,0 +1,260 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
+import com.intuit.fileUploadDemo.dto.response.CompletionJobResponse;
+import com.intuit.fileUploadDemo.entities.CompletionJob;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.exception.ResourceNotFoundException;
+import com.intuit.fileUploadDemo.exception.ServiceBusyException;
+import com.intuit.fileUploadDemo.repository.CompletionJobRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.service.CompletionJobService;
+import com.intuit.fileUploadDemo.service.UploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs file completions on a bounded worker pool so the HTTP request can return 202 straight away.
+ * <p>
+ * The database is the source of truth: the in-memory queue only carries job ids, and a worker
+ * claims a job with a conditional QUEUED -> RUNNING update, so a job dispatched twice still runs once.
+ * <p>
+ * A claim records the instance as owner, and the owner refreshes the heartbeat of its running jobs every
+ * {@code heartbeat-interval}. Only RUNNING jobs whose heartbeat is older than {@code stale-after} (their
+ * instance died) are requeued, so a restarting node never takes over jobs another live node is completing.
+ * QUEUED jobs are pulled from the table at startup, on every heartbeat tick, and when a worker finishes
+ * while the queue is below {@code refill-below} and a previous scan left jobs behind.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompletionJobServiceImpl implements CompletionJobService {
+
+    private static final Set<CompletionJobStatus> ACTIVE = EnumSet.of(CompletionJobStatus.QUEUED, CompletionJobStatus.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CompletionJobRepository completionJobRepository;
+    private final UploadFileRepository uploadFileRepository;
+    private final UploadService uploadService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor completionJobExecutor;
+    private final ObjectMapper objectMapper;
+    private final SchedulerLeases leases;
+
+    // Must be several heartbeat intervals, or a briefly slow node loses jobs it is still running
+    @Value("${app.upload.completion-jobs.stale-after:2m}")
+    private Duration staleAfter;
+
+    @Value("${app.upload.completion-jobs.refill-below:50}")
+    private int refillBelow;
+
+    // Claimed by this instance and not finished yet; their heartbeat is refreshed
+    private final Set<String> runningHere = ConcurrentHashMap.newKeySet();
+    // QUEUED rows may be waiting in the table; avoids a backlog query after every job when there are none
+    private final AtomicBoolean backlogPending = new AtomicBoolean(true);
+
+    private String nextJobId() {
+        return "J" + java.util.UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Override
+    public CompletionJobResponse submit(String fileId, CompleteFileRequest request) {
+        // 404 / 400 / 409 are reported now, not discovered by a worker later
+        uploadService.checkCompletable(fileId, request);
+
+        String requestJson = toJson(request);
+        Submission submission = transactionTemplate.execute(status -> {
+            // Concurrent submits for the same file queue behind this lock, so only the first inserts a job
+            uploadFileRepository.findByIdForUpdate(fileId);
+            return completionJobRepository.findFirstByFileIdAndStatusInOrderByCreatedAtDesc(fileId, ACTIVE)
+                    // An active job for this file is returned as-is instead of completing twice
+                    .map(existing -> new Submission(existing, false))
+                    .orElseGet(() -> new Submission(completionJobRepository.save(CompletionJob.builder()
+                            .id(nextJobId())
+                            .fileId(fileId)
+                            .requestJson(requestJson)
+                            .build()), true));
+        });
+
+        CompletionJob job = submission.job();
+        if (submission.created()) {
+            dispatchOrFail(job.getId());
+        }
+        return toResponse(job);
+    }
+
+    @Override
+    public CompletionJobResponse getJob(String jobId) {
+        return completionJobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Completion job not found: " + jobId));
+    }
+
+    @Override
+    public CompletionJobResponse retry(String jobId) {
+        int updated = transactionTemplate.execute(status -> completionJobRepository.transition(
+                jobId, CompletionJobStatus.FAILED, CompletionJobStatus.QUEUED, Instant.now()));
+        if (updated == 0) {
+            CompletionJobResponse current = getJob(jobId);
+            throw new IllegalStateException("Only FAILED jobs can be retried, job is " + current.getStatus());
+        }
+        dispatchOrFail(jobId);
+        return getJob(jobId);
+    }
+
+    private record Submission(CompletionJob job, boolean created) {}
+
+    // ───────────────────────────────────────────────────────────────
+    // Workers
+    // ───────────────────────────────────────────────────────────────
+
+    // Jobs whose owner died while RUNNING never finished; queue them again, together with the QUEUED backlog
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        Instant now = Instant.now();
+        int requeued = transactionTemplate.execute(status -> completionJobRepository.requeueStale(now.minus(staleAfter), now));
+        if (requeued > 0) {
+            log.info("Re-queued {} interrupted completion jobs", requeued);
+        }
+        backlogPending.set(true);
+        dispatchBacklog();
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.completion-jobs.heartbeat-interval:15s}",
+            initialDelayString = "${app.upload.completion-jobs.heartbeat-interval:15s}")
+    public void heartbeat() {
+        try {
+            List<String> running = List.copyOf(runningHere);
+            if (!running.isEmpty()) {
+                transactionTemplate.execute(status -> completionJobRepository.heartbeat(running, leases.owner(), Instant.now()));
+            }
+            recover();
+        } catch (RuntimeException e) {
+            log.warn("Completion job heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    // Bounded queue: a rejected job is parked as FAILED so the client can retry it explicitly
+    private void dispatchOrFail(String jobId) {
+        if (!dispatch(jobId)) {
+            int failed = transactionTemplate.execute(tx ->
+                    completionJobRepository.failQueued(jobId, "Completion queue is full", Instant.now()));
+            if (failed == 0) {
+                // Picked up from the backlog (here or on another instance) before it could be parked
+                log.info("Completion job {} was claimed before it could be parked as FAILED", jobId);
+                return;
+            }
+            throw new ServiceBusyException("Completion queue is full, retry job " + jobId + " later");
+        }
+    }
+
+    private boolean dispatch(String jobId) {
+        try {
+            completionJobExecutor.execute(() -> run(jobId));
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    // Top up the in-memory queue with the oldest QUEUED jobs once it is below the low-water mark
+    private void dispatchBacklog() {
+        BlockingQueue<Runnable> queue = completionJobExecutor.getThreadPoolExecutor().getQueue();
+        int room = queue.remainingCapacity();
+        if (queue.size() > refillBelow || room == 0 || !backlogPending.compareAndSet(true, false)) {
+            return;
+        }
+        List<String> backlog = completionJobRepository.findIdsByStatus(CompletionJobStatus.QUEUED, PageRequest.of(0, room));
+        if (backlog.size() == room) {
+            backlogPending.set(true); // a full page: there may be more
+        }
+        for (String jobId : backlog) {
+            if (!dispatch(jobId)) {
+                backlogPending.set(true);
+                return;
+            }
+        }
+    }
+
+    void run(String jobId) {
+        try {
+            Integer claimed = transactionTemplate.execute(status -> completionJobRepository.claim(jobId, leases.owner(), Instant.now()));
+            if (claimed == null || claimed == 0) {
+                return; // already claimed by another dispatch, or no longer QUEUED
+            }
+            runningHere.add(jobId);
+            try {
+                execute(jobId);
+            } finally {
+                runningHere.remove(jobId);
+            }
+        } finally {
+            dispatchBacklog();
+        }
+    }
+
+    private void execute(String jobId) {
+        CompletionJob job = completionJobRepository.findById(jobId).orElseThrow();
+        try {
+            // A previous attempt may have finished the file before the job row was updated
+            boolean alreadyUploaded = uploadFileRepository.findById(job.getFileId())
+                    .map(UploadFile::getStatus)
+                    .filter(s -> s == FileStatus.UPLOADED)
+                    .isPresent();
+            if (!alreadyUploaded) {
+                CompleteFileRequest request = objectMapper.readValue(job.getRequestJson(), CompleteFileRequest.class);
+                uploadService.completeFileAsync(job.getFileId(), request).join();
+            }
+            finish(jobId, CompletionJobStatus.SUCCEEDED, null);
+        } catch (Exception e) {
+            Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+            log.warn("Completion job {} for file {} failed: {}", jobId, job.getFileId(), cause.getMessage());
+            finish(jobId, CompletionJobStatus.FAILED, String.valueOf(cause.getMessage()));
+        }
+    }
+
+    private void finish(String jobId, CompletionJobStatus status, String error) {
+        String trimmed = (error != null && error.length() > MAX_ERROR_LENGTH) ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        int updated = transactionTemplate.execute(tx ->
+                completionJobRepository.finish(jobId, leases.owner(), status, trimmed, Instant.now()));
+        if (updated == 0) {
+            log.warn("Completion job {} was requeued as stale while running here; dropping its {} result", jobId, status);
+        }
+    }
+
+    private String toJson(CompleteFileRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable completion request", e);
+        }
+    }
+
+    private CompletionJobResponse toResponse(CompletionJob job) {
+        return new CompletionJobResponse(job.getId(), job.getFileId(), job.getStatus(), job.getAttempts(),
+                job.getLastError(), job.getCreatedAt(), job.getUpdatedAt());
+    }
+}
@@ -0,0 +1,229 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.fileUploadDemo.cache.IdempotentResponseCache;
+import com.intuit.fileUploadDemo.cache.IdempotentResponseCache.StoredResponse;
+import com.intuit.fileUploadDemo.entities.IdempotencyRecord;
+import com.intuit.fileUploadDemo.entities.enums.IdempotencyStatus;
+import com.intuit.fileUploadDemo.repository.IdempotencyRecordRepository;
+import com.intuit.fileUploadDemo.service.IdempotencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A key is claimed by inserting an IN_PROGRESS row unless one exists; the primary key makes exactly one
+ * of several concurrent requests win. The winner stores its response (COMPLETED) or deletes the row on failure.
+ * Completed responses are also kept in {@link IdempotentResponseCache}, so most retries cost no query.
+ * <p>
+ * Metric {@code upload.idempotency.requests}, tag {@code outcome}: {@code new} (operation ran),
+ * {@code cache_hit} / {@code store_hit} (replayed), {@code in_progress} and {@code mismatch} (rejected).
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotentResponseCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository repository,
+                                  IdempotentResponseCache cache,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${app.idempotency.in-progress-timeout:15m}") Duration inProgressTimeout,
+                                  @Value("${spring.mvc.async.request-timeout:5m}") Duration asyncRequestTimeout) {
+        // Reclaiming the key of a request that is still running would let a retry run the mutation twice
+        if (inProgressTimeout.compareTo(asyncRequestTimeout) <= 0) {
+            throw new IllegalStateException("app.idempotency.in-progress-timeout (" + inProgressTimeout
+                    + ") must be greater than spring.mvc.async.request-timeout (" + asyncRequestTimeout + ")");
+        }
+        this.repository = repository;
+        this.cache = cache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+    }
+
+    @Override
+    public <T> T execute(String key, String scope, Object request, Class<T> responseType, Supplier<T> operation) {
+        if (key == null) {
+            return operation.get();
+        }
+        Claim claim = claim(key, scope, request);
+        if (claim.replay() != null) {
+            return fromJson(claim.replay(), responseType);
+        }
+        T response;
+        try {
+            response = operation.get();
+        } catch (RuntimeException e) {
+            release(claim.id());
+            throw e;
+        }
+        store(claim, response);
+        return response;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(String key, String scope, Object request, Class<T> responseType,
+                                                 Supplier<CompletableFuture<T>> operation) {
+        if (key == null) {
+            return operation.get();
+        }
+        Claim claim = claim(key, scope, request);
+        if (claim.replay() != null) {
+            return CompletableFuture.completedFuture(fromJson(claim.replay(), responseType));
+        }
+        CompletableFuture<T> pending;
+        try {
+            pending = operation.get();
+        } catch (RuntimeException e) {
+            release(claim.id());
+            throw e;
+        }
+        // Stored before the returned future completes, so a retry after the response always replays it
+        return pending.whenComplete((response, error) -> {
+            if (error != null) {
+                release(claim.id());
+            } else {
+                store(claim, response);
+            }
+        });
+    }
+
+    // Expired rows are otherwise only removed when their key is used again
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:1h}", initialDelayString = "${app.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> repository.deleteExpired(Instant.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    // replay is set when a stored response should be returned instead of running the operation
+    private record Claim(String id, String requestHash, Instant expiresAt, String replay) {}
+
+    private Claim claim(String key, String scope, Object request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String id = sha256(scope + "\n" + key);
+        String requestHash = sha256(toJson(request));
+
+        StoredResponse cached = cache.get(id);
+        if (cached != null) {
+            return replay(id, requestHash, cached, "cache_hit");
+        }
+
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        int inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                repository.deleteIfReclaimable(id, now, now.minus(inProgressTimeout));
+                return repository.insertInProgressIfAbsent(id, key, scope, requestHash, now, expiresAt);
+            });
+        } catch (DataIntegrityViolationException e) {
+            inserted = 0; // lost a race with a concurrent claim of the same key
+        }
+        if (inserted == 1) {
+            count("new");
+            return new Claim(id, requestHash, expiresAt, null);
+        }
+        // Someone else holds the key: replay their response or report that it is still running
+        IdempotencyRecord existing = repository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Request with this " + HEADER + " was just released, retry"));
+        if (existing.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+            count("in_progress");
+            throw new IllegalStateException("A request with this " + HEADER + " is still in progress");
+        }
+        StoredResponse stored = new StoredResponse(existing.getRequestHash(), existing.getResponseJson(), existing.getExpiresAt());
+        cache.put(id, stored);
+        return replay(id, requestHash, stored, "store_hit");
+    }
+
+    private Claim replay(String id, String requestHash, StoredResponse stored, String outcome) {
+        if (!stored.requestHash().equals(requestHash)) {
+            count("mismatch");
+            throw new IllegalArgumentException(HEADER + " was already used with a different request");
+        }
+        count(outcome);
+        return new Claim(id, requestHash, stored.expiresAt(), stored.responseJson());
+    }
+
+    // The operation already succeeded: a failed write only costs deduplication for this key, so log it
+    private void store(Claim claim, Object response) {
+        try {
+            String json = toJson(response);
+            transactionTemplate.execute(status -> repository.complete(claim.id(), json));
+            cache.put(claim.id(), new StoredResponse(claim.requestHash(), json, claim.expiresAt()));
+        } catch (RuntimeException e) {
+            log.warn("Could not store idempotent response {}: {}", claim.id(), e.getMessage());
+        }
+    }
+
+    private void release(String id) {
+        try {
+            transactionTemplate.execute(status -> {
+                repository.deleteById(id);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("upload.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable idempotent request or response", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
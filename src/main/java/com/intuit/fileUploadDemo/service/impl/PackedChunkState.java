@@ -0,0 +1,126 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.entities.UploadFileChunkState;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * In-memory view of an {@link UploadFileChunkState} row.
+ * <p>
+ * Uploaded parts are a {@link BitSet}; ETags are packed as 16 raw bytes per part (S3 part
+ * ETags are quoted MD5 hex digests), with anything else kept in a small text overflow.
+ * Stored ETags are returned unquoted.
+ */
+final class PackedChunkState {
+
+    private static final int ETAG_BYTES = 16;
+
+    private final int totalChunks;
+    private final BitSet uploaded;
+    private byte[] etags;
+    private final Map<Integer, String> overflow;
+
+    private PackedChunkState(int totalChunks, BitSet uploaded, byte[] etags, Map<Integer, String> overflow) {
+        this.totalChunks = totalChunks;
+        this.uploaded = uploaded;
+        this.etags = etags;
+        this.overflow = overflow;
+    }
+
+    static PackedChunkState empty(int totalChunks) {
+        return new PackedChunkState(totalChunks, new BitSet(totalChunks), null, new TreeMap<>());
+    }
+
+    static PackedChunkState decode(UploadFileChunkState row) {
+        Map<Integer, String> overflow = new TreeMap<>();
+        if (row.getEtagOverflow() != null && !row.getEtagOverflow().isEmpty()) {
+            for (String line : row.getEtagOverflow().split("\n")) {
+                int eq = line.indexOf('=');
+                overflow.put(Integer.parseInt(line.substring(0, eq)), line.substring(eq + 1));
+            }
+        }
+        return new PackedChunkState(row.getTotalChunks(), BitSet.valueOf(row.getUploadedBits()), row.getEtags(), overflow);
+    }
+
+    void encodeInto(UploadFileChunkState row) {
+        row.setTotalChunks(totalChunks);
+        row.setUploadedBits(uploaded.toByteArray());
+        row.setEtags(etags);
+        if (overflow.isEmpty()) {
+            row.setEtagOverflow(null);
+        } else {
+            StringBuilder sb = new StringBuilder();
+            overflow.forEach((i, e) -> sb.append(i).append('=').append(e).append('\n'));
+            row.setEtagOverflow(sb.toString());
+        }
+        row.setUpdatedAt(Instant.now());
+    }
+
+    int totalChunks() {
+        return totalChunks;
+    }
+
+    int uploadedCount() {
+        return uploaded.cardinality();
+    }
+
+    boolean isUploaded(int chunkIndex) {
+        return uploaded.get(chunkIndex);
+    }
+
+    /**
+     * @return true if the chunk was not uploaded before
+     */
+    boolean markUploaded(int chunkIndex, String etag) {
+        if (chunkIndex < 0 || chunkIndex >= totalChunks) {
+            throw new IllegalArgumentException("Invalid chunkIndex: " + chunkIndex);
+        }
+        boolean wasUploaded = uploaded.get(chunkIndex);
+        uploaded.set(chunkIndex);
+        putEtag(chunkIndex, etag);
+        return !wasUploaded;
+    }
+
+    List<Integer> pendingIndexes() {
+        List<Integer> pending = new ArrayList<>(totalChunks - uploaded.cardinality());
+        for (int i = uploaded.nextClearBit(0); i < totalChunks; i = uploaded.nextClearBit(i + 1)) {
+            pending.add(i);
+        }
+        return pending;
+    }
+
+    List<Integer> uploadedIndexes() {
+        List<Integer> done = new ArrayList<>(uploaded.cardinality());
+        for (int i = uploaded.nextSetBit(0); i >= 0; i = uploaded.nextSetBit(i + 1)) {
+            done.add(i);
+        }
+        return done;
+    }
+
+    String etag(int chunkIndex) {
+        if (!uploaded.get(chunkIndex)) return null;
+        String o = overflow.get(chunkIndex);
+        if (o != null) return o;
+        if (etags == null) return null;
+        return HexFormat.of().formatHex(etags, chunkIndex * ETAG_BYTES, (chunkIndex + 1) * ETAG_BYTES);
+    }
+
+    private void putEtag(int chunkIndex, String etag) {
+        String bare = etag == null ? null : etag.replace("\"", "");
+        if (bare != null && bare.length() == ETAG_BYTES * 2 && isHex(bare)) {
+            if (etags == null) etags = new byte[totalChunks * ETAG_BYTES];
+            System.arraycopy(HexFormat.of().parseHex(bare), 0, etags, chunkIndex * ETAG_BYTES, ETAG_BYTES);
+            overflow.remove(chunkIndex);
+        } else if (bare != null) {
+            overflow.put(chunkIndex, bare);
+        }
+    }
+
+    private static boolean isHex(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.digit(s.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.entities.UploadChunk;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.enums.ChunkStatus;
+import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
+import com.intuit.fileUploadDemo.repository.projection.PendingChunkView;
+import com.intuit.fileUploadDemo.repository.projection.UploadedChunkView;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * One {@link UploadChunk} row per part in upload_chunks.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.upload.chunk-store", havingValue = "rows", matchIfMissing = true)
+public class RowChunkStateStore implements ChunkStateStore {
+
+    private final UploadChunkRepository uploadChunkRepository;
+
+    @Override
+    public void initialize(UploadFile file) {
+        uploadChunkRepository.insertPendingChunks(file.getId(), file.getTotalChunks());
+    }
+
+    // Rows of every file share the same JDBC batches instead of at least one batch per file
+    @Override
+    public void initializeAll(Collection<UploadFile> files) {
+        Map<String, Integer> chunkCounts = new LinkedHashMap<>();
+        files.forEach(f -> chunkCounts.put(f.getId(), f.getTotalChunks()));
+        uploadChunkRepository.insertPendingChunks(chunkCounts);
+    }
+
+    @Override
+    public Set<Integer> existingChunkIndexes(UploadFile file, Collection<Integer> chunkIndexes) {
+        return new HashSet<>(uploadChunkRepository.findExistingChunkIndexes(file.getId(), chunkIndexes));
+    }
+
+    @Override
+    public Map<String, List<Integer>> pendingChunkIndexesBySession(String sessionId) {
+        Map<String, List<Integer>> pending = new HashMap<>();
+        for (PendingChunkView v : uploadChunkRepository.findPendingBySessionId(sessionId, ChunkStatus.UPLOADED)) {
+            pending.computeIfAbsent(v.getFileId(), k -> new ArrayList<>()).add(v.getChunkIndex());
+        }
+        return pending;
+    }
+
+    @Override
+    public void markAllUploaded(UploadFile file, Map<Integer, String> partToEtag) {
+        ChunkStateStore.requireEtagForEveryPart(file.getTotalChunks(), partToEtag);
+
+        // Overwrite in place with batched UPDATEs; the chunk entities are never loaded
+        int updated = uploadChunkRepository.markUploaded(file.getId(), partToEtag, Instant.now());
+        if (updated != file.getTotalChunks()) {
+            throw new IllegalStateException("Expected " + file.getTotalChunks() + " chunk rows for file "
+                    + file.getId() + " but updated " + updated);
+        }
+    }
+
+    @Override
+    public boolean markUploaded(UploadFile file, int partNumber, String etag) {
+        int chunkIndex = partNumber - 1;
+        if (uploadChunkRepository.markChunkUploaded(file.getId(), chunkIndex, etag, Instant.now(), ChunkStatus.UPLOADED) == 1) {
+            return true;
+        }
+        // Already uploaded (retried ack): keep the original uploadedAt, take the latest ETag
+        if (uploadChunkRepository.updateChunkEtag(file.getId(), chunkIndex, etag) == 0) {
+            throw new IllegalStateException("No chunk row for partNumber " + partNumber + " of file " + file.getId());
+        }
+        return false;
+    }
+
+    @Override
+    public SortedMap<Integer, String> uploadedParts(UploadFile file) {
+        SortedMap<Integer, String> parts = new TreeMap<>();
+        for (UploadedChunkView v : uploadChunkRepository.findUploadedByFileId(file.getId(), ChunkStatus.UPLOADED)) {
+            parts.put(v.getChunkIndex() + 1, v.getEtag());
+        }
+        return parts;
+    }
+
+    @Override
+    public Map<String, SortedMap<Integer, String>> uploadedPartsBySessions(Collection<String> sessionIds) {
+        Map<String, SortedMap<Integer, String>> parts = new HashMap<>();
+        for (UploadedChunkView v : uploadChunkRepository.findUploadedBySessionIds(sessionIds, ChunkStatus.UPLOADED)) {
+            parts.computeIfAbsent(v.getFileId(), k -> new TreeMap<>()).put(v.getChunkIndex() + 1, v.getEtag());
+        }
+        return parts;
+    }
+}
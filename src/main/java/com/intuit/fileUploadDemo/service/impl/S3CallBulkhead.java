@@ -0,0 +1,62 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent blocking S3 calls at the size of the sync client's connection pool.
+ * <p>
+ * With virtual threads there is no longer a Tomcat thread pool limiting how many requests reach
+ * S3 at once, so thousands of callers could pile into the HTTP client's connection pool. Waiting
+ * here on a {@link Semaphore} parks the virtual thread and frees its carrier, instead of queueing
+ * inside the pool's lease logic, and a saturated pool surfaces as 503 rather than a long stall.
+ */
+@Component
+public class S3CallBulkhead {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public S3CallBulkhead(@Value("${app.s3.sync.max-connections:50}") int maxConnections,
+                          @Value("${app.s3.sync.acquire-timeout:10s}") Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConnections, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public <T> T call(Supplier<T> s3Call) {
+        acquire();
+        try {
+            return s3Call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable s3Call) {
+        call(() -> {
+            s3Call.run();
+            return null;
+        });
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceBusyException("Too many concurrent S3 calls, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted waiting for an S3 connection");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import com.intuit.fileUploadDemo.metrics.S3CallMetrics;
+import com.intuit.fileUploadDemo.service.S3MultipartAsyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Service
+@RequiredArgsConstructor
+public class S3MultipartAsyncServiceImpl implements S3MultipartAsyncService {
+
+    private final S3AsyncClient s3;
+    private final PresignedUrlCache urlCache;
+    private final S3CallMetrics metrics;
+
+    @Value("${app.s3.bucket}")
+    private String bucket;
+
+    @Override
+    public CompletableFuture<Optional<Long>> objectSize(String key) {
+        return metrics.recordAsync("objectSize", () -> s3.headObject(HeadObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .build()))
+                .handle((resp, err) -> {
+                    if (err == null) {
+                        return Optional.of(resp.contentLength());
+                    }
+                    Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                    if (cause instanceof S3Exception s3e && s3e.statusCode() == 404) {
+                        return Optional.<Long>empty();
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    @Override
+    public CompletableFuture<String> start(String key, String contentType) {
+        return metrics.recordAsync("start", () -> s3.createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType((contentType == null || contentType.isBlank())
+                                ? "application/octet-stream"
+                                : contentType)
+                        .build()
+        )).thenApply(CreateMultipartUploadResponse::uploadId);
+    }
+
+    @Override
+    public CompletableFuture<Void> complete(String key, String uploadId, List<Map.Entry<Integer, String>> parts) {
+        CompletedMultipartUpload completed = CompletedMultipartUpload.builder()
+                .parts(parts.stream()
+                        .sorted(Comparator.comparingInt(Map.Entry::getKey))
+                        .map(e -> CompletedPart.builder()
+                                .partNumber(e.getKey())
+                                .eTag(e.getValue())
+                                .build())
+                        .toList())
+                .build();
+
+        return metrics.recordAsync("complete", () -> s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .multipartUpload(completed)
+                        .build()))
+                .thenRun(() -> urlCache.invalidateUpload(uploadId));
+    }
+
+    @Override
+    public CompletableFuture<Void> abort(String key, String uploadId) {
+        return metrics.recordAsync("abort", () -> s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build()))
+                .thenRun(() -> urlCache.invalidateUpload(uploadId));
+    }
+
+    @Override
+    public CompletableFuture<List<Map.Entry<Integer, String>>> listParts(String key, String uploadId) {
+        // The paginator delivers items one at a time, so a plain list is safe here
+        List<Map.Entry<Integer, String>> parts = new ArrayList<>();
+        return metrics.recordAsync("listParts", () -> s3.listPartsPaginator(ListPartsRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build())
+                .parts()
+                .subscribe(p -> parts.add(Map.entry(p.partNumber(), p.eTag()))))
+                .thenApply(v -> parts.stream()
+                        .sorted(Comparator.comparingInt(Map.Entry::getKey))
+                        .toList());
+    }
+}
@@ -1,5 +1,7 @@
 package com.intuit.fileUploadDemo.service.impl;
 
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import com.intuit.fileUploadDemo.metrics.S3CallMetrics;
 import com.intuit.fileUploadDemo.service.S3MultipartService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,14 +9,11 @@ import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
-import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,13 +22,20 @@ public class S3MultipartServiceImpl implements S3MultipartService {
 
     private final S3Client s3;
     private final S3Presigner presigner;
+    private final PresignedUrlCache urlCache;
+    private final S3CallBulkhead bulkhead;
+    private final S3CallMetrics metrics;
+    private final UploadPartPresigner partPresigner;
 
     @Value("${app.s3.bucket}")
     private String bucket;
 
+    @Value("${app.s3.presign.ttl:10m}")
+    private Duration partUrlTtl;
+
     @Override
     public String start(String key, String contentType) {
-        CreateMultipartUploadResponse resp = s3.createMultipartUpload(
+        CreateMultipartUploadResponse resp = metrics.record("start", () -> bulkhead.call(() -> s3.createMultipartUpload(
                 CreateMultipartUploadRequest.builder()
                         .bucket(bucket)
                         .key(key)
@@ -37,26 +43,54 @@ public class S3MultipartServiceImpl implements S3MultipartService {
                                 ? "application/octet-stream"
                                 : contentType)
                         .build()
-        );
+        )));
         return resp.uploadId();
     }
 
     @Override
     public String presignPart(String key, String uploadId, int partNumber, long contentLength) {
-        UploadPartRequest upr = UploadPartRequest.builder()
-                .bucket(bucket)
-                .key(key)
-                .uploadId(uploadId)
-                .partNumber(partNumber)
-                .contentLength(contentLength > 0 ? contentLength : null)
-                .build();
+        return metrics.record("presignPart", () -> urlCache.get(new PresignedUrlCache.Key(key, uploadId, partNumber, contentLength),
+                k -> partPresigner.presign(key, uploadId, partNumber, contentLength)));
+    }
+
+    @Override
+    public Map<Integer, String> presignParts(String key, String uploadId, Collection<Integer> partNumbers) {
+        return metrics.record("presignParts", () -> signParts(key, uploadId, partNumbers));
+    }
+
+    // Parts missing from the cache are signed as one batch sharing the upload's canonical request
+    private Map<Integer, String> signParts(String key, String uploadId, Collection<Integer> partNumbers) {
+        List<PresignedUrlCache.Key> keys = new ArrayList<>(partNumbers.size());
+        for (Integer partNumber : partNumbers) {
+            keys.add(new PresignedUrlCache.Key(key, uploadId, partNumber, 0L));
+        }
+        Map<PresignedUrlCache.Key, String> cached = urlCache.getAll(keys, missing -> {
+            List<Integer> missingParts = missing.stream().map(PresignedUrlCache.Key::partNumber).toList();
+            Map<PresignedUrlCache.Key, String> signed = new HashMap<>(missingParts.size() * 2);
+            partPresigner.presign(key, uploadId, missingParts).forEach((partNumber, url) ->
+                    signed.put(new PresignedUrlCache.Key(key, uploadId, partNumber, 0L), url));
+            return signed;
+        });
+
+        Map<Integer, String> urls = new LinkedHashMap<>(partNumbers.size() * 2);
+        for (PresignedUrlCache.Key k : keys) {
+            urls.put(k.partNumber(), cached.get(k));
+        }
+        return urls;
+    }
 
-        PresignedUploadPartRequest presigned = presigner.presignUploadPart(
-                UploadPartPresignRequest.builder()
-                        .signatureDuration(Duration.ofMinutes(10))
-                        .uploadPartRequest(upr)
+    @Override
+    public String presignPut(String key, long contentLength) {
+        PresignedPutObjectRequest presigned = metrics.record("presignPut", () -> presigner.presignPutObject(
+                PutObjectPresignRequest.builder()
+                        .signatureDuration(partUrlTtl)
+                        .putObjectRequest(PutObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .contentLength(contentLength > 0 ? contentLength : null)
+                                .build())
                         .build()
-        );
+        ));
 
         return presigned.url().toString();
     }
@@ -73,39 +107,44 @@ public class S3MultipartServiceImpl implements S3MultipartService {
                         .collect(Collectors.toList()))
                 .build();
 
-        s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+        metrics.run("complete", () -> bulkhead.run(() -> s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
                 .bucket(bucket)
                 .key(key)
                 .uploadId(uploadId)
                 .multipartUpload(completed)
-                .build());
+                .build())));
+        urlCache.invalidateUpload(uploadId);
     }
 
     @Override
     public void abort(String key, String uploadId) {
-        s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+        metrics.run("abort", () -> bulkhead.run(() -> s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
                 .bucket(bucket)
                 .key(key)
                 .uploadId(uploadId)
-                .build());
+                .build())));
+        urlCache.invalidateUpload(uploadId);
     }
 
 
     @Override
     public List<Map.Entry<Integer, String>> listParts(String key, String uploadId) {
+        return metrics.record("listParts", () -> listAllParts(key, uploadId));
+    }
+
+    private List<Map.Entry<Integer, String>> listAllParts(String key, String uploadId) {
         List<Map.Entry<Integer, String>> parts = new ArrayList<>();
         Integer partMarker = null;
 
         boolean isTruncated;
         do {
-            ListPartsResponse resp = s3.listParts(
-                    ListPartsRequest.builder()
-                            .bucket(bucket)
-                            .key(key)
-                            .uploadId(uploadId)
-                            .partNumberMarker(partMarker)
-                            .build()
-            );
+            ListPartsRequest req = ListPartsRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .partNumberMarker(partMarker)
+                    .build();
+            ListPartsResponse resp = bulkhead.call(() -> s3.listParts(req));
 
             resp.parts().forEach(p ->
                     parts.add(Map.entry(p.partNumber(), p.eTag()))
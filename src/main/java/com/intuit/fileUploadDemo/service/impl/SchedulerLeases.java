@@ -0,0 +1,71 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Database leases that keep a scheduled job to one instance at a time. A lease lasts for its
+ * duration unless renewed, so a node that dies mid-run only blocks the job until it expires.
+ * Expiry compares instance clocks, so the duration should dwarf any clock skew.
+ */
+@Slf4j
+@Component
+public class SchedulerLeases {
+
+    private final SchedulerLeaseRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    public SchedulerLeases(SchedulerLeaseRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.owner = hostName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /** Takes or renews the lease for {@code duration}; false while another instance holds it. */
+    public boolean tryAcquire(String name, Duration duration) {
+        Instant now = Instant.now();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (repository.acquire(name, owner, now, now.plus(duration)) > 0) {
+                    return true;
+                }
+                // Held by someone else, or the job never ran anywhere yet
+                return !repository.existsById(name) && repository.insert(name, owner, now.plus(duration)) > 0;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the row first
+            return false;
+        }
+    }
+
+    /** Lets another instance take the lease straight away instead of waiting for it to expire. */
+    public void release(String name) {
+        try {
+            transactionTemplate.execute(status -> repository.release(name, owner, Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not release lease {}: {}", name, e.getMessage());
+        }
+    }
+
+    String owner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
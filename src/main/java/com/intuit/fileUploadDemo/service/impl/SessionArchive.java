@@ -0,0 +1,293 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.fileUploadDemo.cache.UploadLookupCache;
+import com.intuit.fileUploadDemo.entities.ArchivedFileRef;
+import com.intuit.fileUploadDemo.entities.ArchivedSession;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.repository.ArchivedFileRefRepository;
+import com.intuit.fileUploadDemo.repository.ArchivedSessionRepository;
+import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileChunkStateRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.repository.projection.SessionHistoryView;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Moves finished sessions out of the hot tables so upload_sessions, upload_files and the chunk state
+ * (and their status indexes) only hold in-flight work.
+ * <p>
+ * A COMPLETED, CANCELLED or FAILED session last changed more than {@code app.upload.archive.min-age} ago,
+ * with no file still PENDING / IN_PROGRESS / PAUSED, becomes one upload_session_archive row: the session's
+ * columns plus its files as JSON. Acknowledged parts are kept only for files that never finished, since an
+ * UPLOADED file's parts are all of them. Chunk rows are dropped. upload_file_archive maps file ids to their
+ * archived session for file reads.
+ * <p>
+ * Each batch copies and deletes in one transaction, under a {@link SchedulerLeases} lease.
+ * Reads go to the hot tables first and fall back to {@link #findSession} / {@link #findFile}.
+ * <p>
+ * Metrics: {@code upload.archive.runs} (tag {@code outcome}: archived, skipped, failed),
+ * {@code upload.archive.sessions} and timer {@code upload.archive.duration}.
+ */
+@Slf4j
+@Service
+public class SessionArchive {
+
+    static final String LEASE = "session-archive";
+
+    private static final Set<SessionStatus> FINISHED = EnumSet.of(SessionStatus.COMPLETED, SessionStatus.CANCELLED, SessionStatus.FAILED);
+    private static final Set<FileStatus> UNSETTLED = EnumSet.of(FileStatus.PENDING, FileStatus.IN_PROGRESS, FileStatus.PAUSED);
+    private static final TypeReference<List<ArchivedFile>> FILE_LIST = new TypeReference<>() {};
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadFileRepository uploadFileRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final UploadFileChunkStateRepository chunkStateRepository;
+    private final ArchivedSessionRepository archivedSessionRepository;
+    private final ArchivedFileRefRepository archivedFileRefRepository;
+    private final ChunkStateStore chunkStateStore;
+    private final UploadLookupCache lookupCache;
+    private final SchedulerLeases leases;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Timer archiveTimer;
+
+    @Value("${app.upload.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.archive.min-age:7d}")
+    private Duration minAge;
+
+    @Value("${app.upload.archive.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.upload.archive.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    // Must outlast one run; it is renewed after every batch
+    @Value("${app.upload.archive.lease:10m}")
+    private Duration leaseDuration;
+
+    public SessionArchive(UploadSessionRepository uploadSessionRepository,
+                          UploadFileRepository uploadFileRepository,
+                          UploadChunkRepository uploadChunkRepository,
+                          UploadFileChunkStateRepository chunkStateRepository,
+                          ArchivedSessionRepository archivedSessionRepository,
+                          ArchivedFileRefRepository archivedFileRefRepository,
+                          ChunkStateStore chunkStateStore,
+                          UploadLookupCache lookupCache,
+                          SchedulerLeases leases,
+                          TransactionTemplate transactionTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadFileRepository = uploadFileRepository;
+        this.uploadChunkRepository = uploadChunkRepository;
+        this.chunkStateRepository = chunkStateRepository;
+        this.archivedSessionRepository = archivedSessionRepository;
+        this.archivedFileRefRepository = archivedFileRefRepository;
+        this.chunkStateStore = chunkStateStore;
+        this.lookupCache = lookupCache;
+        this.leases = leases;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.archiveTimer = Timer.builder("upload.archive.duration")
+                .description("Time spent moving finished sessions to the archive per run")
+                .register(meterRegistry);
+    }
+
+    /** A file as stored in {@link ArchivedSession#getFilesJson()}; {@code parts} only for files that never finished. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ArchivedFile(String id, String fileName, long fileSize, int totalChunks, Long partSize,
+                               int uploadedChunks, FileStatus status, UploadMode uploadMode, String s3Key,
+                               String uploadId, Instant createdAt, SortedMap<Integer, String> parts) {
+
+        static ArchivedFile of(UploadFile f, SortedMap<Integer, String> parts) {
+            return new ArchivedFile(f.getId(), f.getFileName(), f.getFileSize(), f.getTotalChunks(), f.getPartSize(),
+                    f.getUploadedChunks(), f.getStatus(), f.getUploadMode(), f.getS3Key(), f.getUploadId(),
+                    f.getCreatedAt(), parts);
+        }
+
+        /** Detached, read-only copy of the original row (without its session), for building responses. */
+        public UploadFile toUploadFile() {
+            return UploadFile.builder()
+                    .id(id).fileName(fileName).fileSize(fileSize).totalChunks(totalChunks).partSize(partSize)
+                    .uploadedChunks(uploadedChunks).status(status).uploadMode(uploadMode)
+                    .s3Key(s3Key).uploadId(uploadId).createdAt(createdAt)
+                    .build();
+        }
+    }
+
+    public record Archived(ArchivedSession session, List<ArchivedFile> files) {}
+
+    // ───────────────────────────────────────────────────────────────
+    // Reads
+    // ───────────────────────────────────────────────────────────────
+    public Optional<Archived> findSession(String sessionId) {
+        return archivedSessionRepository.findById(sessionId).map(s -> new Archived(s, files(s)));
+    }
+
+    public Optional<ArchivedFile> findFile(String fileId) {
+        return archivedFileRefRepository.findById(fileId)
+                .flatMap(ref -> archivedSessionRepository.findById(ref.getSessionId()))
+                .flatMap(s -> files(s).stream().filter(f -> f.id().equals(fileId)).findFirst());
+    }
+
+    /** Archived part of a user's session history; see {@link ArchivedSessionRepository#findHistoryPage}. */
+    public List<SessionHistoryView> historyPage(String userId, Collection<SessionStatus> statuses,
+                                                Instant createdAt, String id, int limit) {
+        return archivedSessionRepository.findHistoryPage(userId, statuses, createdAt, id, PageRequest.of(0, limit));
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Archiving
+    // ───────────────────────────────────────────────────────────────
+    @Scheduled(fixedDelayString = "${app.upload.archive.interval:10m}", initialDelayString = "${app.upload.archive.interval:10m}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive().ifPresent(n -> {
+                if (n > 0) {
+                    log.info("Archived {} finished sessions", n);
+                }
+            });
+        } catch (RuntimeException e) {
+            meterRegistry.counter("upload.archive.runs", "outcome", "failed").increment();
+            log.warn("Session archive run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one archive pass now.
+     * @return number of sessions archived, or empty when another instance holds the lease
+     */
+    public Optional<Integer> archive() {
+        if (!leases.tryAcquire(LEASE, leaseDuration)) {
+            meterRegistry.counter("upload.archive.runs", "outcome", "skipped").increment();
+            return Optional.empty();
+        }
+        try {
+            int archived = archiveTimer.record(() -> archiveOlderThan(Instant.now().minus(minAge)));
+            meterRegistry.counter("upload.archive.runs", "outcome", "archived").increment();
+            meterRegistry.counter("upload.archive.sessions").increment(archived);
+            return Optional.of(archived);
+        } finally {
+            leases.release(LEASE);
+        }
+    }
+
+    private int archiveOlderThan(Instant cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += archived;
+            if (archived < batchSize || !leases.tryAcquire(LEASE, leaseDuration)) break;
+        }
+        return total;
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<UploadSession> sessions = uploadSessionRepository.findArchivableForUpdate(
+                FINISHED, UNSETTLED, cutoff, PageRequest.of(0, batchSize));
+        if (sessions.isEmpty()) {
+            return 0;
+        }
+        List<String> sessionIds = sessions.stream().map(UploadSession::getId).toList();
+        Map<String, List<UploadFile>> filesBySession = new LinkedHashMap<>();
+        boolean anyUnfinished = false;
+        for (UploadFile f : uploadFileRepository.findBySessionIds(sessionIds)) {
+            filesBySession.computeIfAbsent(f.getSession().getId(), k -> new ArrayList<>()).add(f);
+            anyUnfinished |= keepsParts(f);
+        }
+        // One set query for the whole batch, not one per unfinished file while the session rows are locked
+        Map<String, SortedMap<Integer, String>> partsByFile = anyUnfinished
+                ? chunkStateStore.uploadedPartsBySessions(sessionIds)
+                : Map.of();
+
+        Instant now = Instant.now();
+        List<ArchivedSession> rows = new ArrayList<>(sessions.size());
+        List<ArchivedFileRef> refs = new ArrayList<>();
+        for (UploadSession s : sessions) {
+            List<UploadFile> files = filesBySession.getOrDefault(s.getId(), List.of());
+            List<ArchivedFile> archived = new ArrayList<>(files.size());
+            for (UploadFile f : files) {
+                archived.add(ArchivedFile.of(f, keepsParts(f) ? partsByFile.getOrDefault(f.getId(), new TreeMap<>()) : null));
+                refs.add(new ArchivedFileRef(f.getId(), s.getId()));
+            }
+            rows.add(ArchivedSession.builder()
+                    .id(s.getId())
+                    .userId(s.getUserId())
+                    .status(s.getStatus())
+                    .createdAt(s.getCreatedAt())
+                    .updatedAt(s.getUpdatedAt())
+                    .archivedAt(now)
+                    .fileCount(files.size())
+                    .totalBytes(files.stream().mapToLong(UploadFile::getFileSize).sum())
+                    .filesJson(toJson(archived))
+                    .build());
+        }
+
+        archivedSessionRepository.insertAll(rows, refs);
+        // Both chunk stores: a file may still have rows from before a switch to the bitmap store
+        uploadChunkRepository.deleteBySessionIds(sessionIds);
+        chunkStateRepository.deleteBySessionIds(sessionIds);
+        uploadFileRepository.deleteBySessionIds(sessionIds);
+        uploadSessionRepository.deleteByIds(sessionIds);
+        lookupCache.invalidateSessions(sessionIds);
+        return sessions.size();
+    }
+
+    // Every part of an UPLOADED file was uploaded, and single-PUT files have no parts
+    private static boolean keepsParts(UploadFile f) {
+        return f.getStatus() != FileStatus.UPLOADED && f.getUploadMode() != UploadMode.SINGLE_PUT;
+    }
+
+    private List<ArchivedFile> files(ArchivedSession s) {
+        try {
+            return objectMapper.readValue(s.getFilesJson(), FILE_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Archived session " + s.getId() + " is unreadable", e);
+        }
+    }
+
+    private String toJson(List<ArchivedFile> files) {
+        try {
+            return objectMapper.writeValueAsString(files);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize archived files", e);
+        }
+    }
+}
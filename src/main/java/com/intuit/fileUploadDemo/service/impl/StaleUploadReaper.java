@@ -0,0 +1,240 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.cache.UploadLookupCache;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.S3MultipartAsyncService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Expires uploads abandoned for longer than {@code app.upload.reaper.idle-ttl}:
+ * idle PENDING / IN_PROGRESS / PAUSED files become FAILED and their multipart uploads are aborted,
+ * then IN_PROGRESS / PAUSED sessions with no activity since the cutoff become CANCELLED.
+ * <p>
+ * Work happens in pages of {@code batch-size}: one short transaction locks a page of the oldest idle rows
+ * and flips their status, then the page's aborts run outside it, at most {@code abort-concurrency} at once.
+ * A {@link SchedulerLeases} lease keeps the sweep to one instance at a time. A failed abort is logged and
+ * counted but not retried; an S3 lifecycle rule for incomplete multipart uploads is the backstop for those.
+ * <p>
+ * Metrics: {@code upload.reaper.runs} (tag {@code outcome}: swept, skipped, failed), {@code upload.reaper.expired}
+ * (tag {@code kind}: file, session), {@code upload.reaper.aborts} (tag {@code outcome}: aborted, missing, error)
+ * and timer {@code upload.reaper.duration}.
+ */
+@Slf4j
+@Service
+public class StaleUploadReaper {
+
+    static final String LEASE = "upload-reaper";
+
+    private static final Set<FileStatus> IDLE_FILE = EnumSet.of(FileStatus.PENDING, FileStatus.IN_PROGRESS, FileStatus.PAUSED);
+    private static final Set<SessionStatus> IDLE_SESSION = EnumSet.of(SessionStatus.IN_PROGRESS, SessionStatus.PAUSED);
+
+    private final UploadFileRepository uploadFileRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final S3MultipartAsyncService asyncMultipartSvc;
+    private final UploadLookupCache lookupCache;
+    private final SchedulerLeases leases;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer sweepTimer;
+
+    @Value("${app.upload.reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.reaper.idle-ttl:24h}")
+    private Duration idleTtl;
+
+    @Value("${app.upload.reaper.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.upload.reaper.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.upload.reaper.abort-concurrency:16}")
+    private int abortConcurrency;
+
+    // Must outlast one run; it is renewed after every batch
+    @Value("${app.upload.reaper.lease:10m}")
+    private Duration leaseDuration;
+
+    public StaleUploadReaper(UploadFileRepository uploadFileRepository,
+                             UploadSessionRepository uploadSessionRepository,
+                             S3MultipartAsyncService asyncMultipartSvc,
+                             UploadLookupCache lookupCache,
+                             SchedulerLeases leases,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry) {
+        this.uploadFileRepository = uploadFileRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.asyncMultipartSvc = asyncMultipartSvc;
+        this.lookupCache = lookupCache;
+        this.leases = leases;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.sweepTimer = Timer.builder("upload.reaper.duration")
+                .description("Time spent expiring idle uploads per run")
+                .register(meterRegistry);
+    }
+
+    /** What one sweep expired; abort outcomes only cover files that had a multipart upload. */
+    public record Result(int expiredFiles, int expiredSessions, int abortedUploads, int failedAborts) {}
+
+    @Scheduled(fixedDelayString = "${app.upload.reaper.interval:5m}", initialDelayString = "${app.upload.reaper.interval:5m}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep().ifPresent(r -> {
+                if (r.expiredFiles() + r.expiredSessions() > 0) {
+                    log.info("Expired {} idle files and {} idle sessions; aborted {} multipart uploads, {} aborts failed",
+                            r.expiredFiles(), r.expiredSessions(), r.abortedUploads(), r.failedAborts());
+                }
+            });
+        } catch (RuntimeException e) {
+            meterRegistry.counter("upload.reaper.runs", "outcome", "failed").increment();
+            log.warn("Upload reaper run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one sweep now.
+     * @return empty when another instance holds the lease
+     */
+    public Optional<Result> sweep() {
+        if (!leases.tryAcquire(LEASE, leaseDuration)) {
+            meterRegistry.counter("upload.reaper.runs", "outcome", "skipped").increment();
+            return Optional.empty();
+        }
+        try {
+            Result result = sweepTimer.record(() -> expireIdle(Instant.now().minus(idleTtl)));
+            meterRegistry.counter("upload.reaper.runs", "outcome", "swept").increment();
+            return Optional.of(result);
+        } finally {
+            leases.release(LEASE);
+        }
+    }
+
+    // Files first: a session only counts as idle once none of its files changed after the cutoff
+    private Result expireIdle(Instant cutoff) {
+        AtomicInteger aborted = new AtomicInteger();
+        AtomicInteger failedAborts = new AtomicInteger();
+        int files = 0;
+        int sessions = 0;
+        boolean leaseHeld = true;
+
+        for (int batch = 0; batch < maxBatchesPerRun && leaseHeld; batch++) {
+            List<UploadFile> expired = transactionTemplate.execute(status -> expireFileBatch(cutoff));
+            files += expired.size();
+            abortAll(expired, aborted, failedAborts);
+            if (expired.size() < batchSize) break;
+            leaseHeld = leases.tryAcquire(LEASE, leaseDuration);
+        }
+        for (int batch = 0; batch < maxBatchesPerRun && leaseHeld; batch++) {
+            int expired = transactionTemplate.execute(status -> expireSessionBatch(cutoff));
+            sessions += expired;
+            if (expired < batchSize) break;
+            leaseHeld = leases.tryAcquire(LEASE, leaseDuration);
+        }
+
+        meterRegistry.counter("upload.reaper.expired", "kind", "file").increment(files);
+        meterRegistry.counter("upload.reaper.expired", "kind", "session").increment(sessions);
+        return new Result(files, sessions, aborted.get(), failedAborts.get());
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Batches (each in its own transaction)
+    // ───────────────────────────────────────────────────────────────
+    private List<UploadFile> expireFileBatch(Instant cutoff) {
+        List<UploadFile> idle = uploadFileRepository.findIdleForUpdate(IDLE_FILE, cutoff, PageRequest.of(0, batchSize));
+        if (idle.isEmpty()) {
+            return idle;
+        }
+        List<String> ids = idle.stream().map(UploadFile::getId).toList();
+        uploadFileRepository.updateStatusByIds(ids, IDLE_FILE, FileStatus.FAILED, Instant.now());
+        ids.forEach(lookupCache::invalidateFile);
+        return idle;
+    }
+
+    private int expireSessionBatch(Instant cutoff) {
+        List<UploadSession> idle = uploadSessionRepository.findIdleForUpdate(IDLE_SESSION, cutoff, PageRequest.of(0, batchSize));
+        if (idle.isEmpty()) {
+            return 0;
+        }
+        List<String> ids = idle.stream().map(UploadSession::getId).toList();
+        uploadSessionRepository.updateStatusByIds(ids, IDLE_SESSION, SessionStatus.CANCELLED, Instant.now());
+        lookupCache.invalidateSessions(ids);
+        return idle.size();
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // S3 aborts
+    // ───────────────────────────────────────────────────────────────
+
+    // Single-PUT files have nothing to abort: a PutObject that never happened leaves nothing in S3
+    private void abortAll(List<UploadFile> files, AtomicInteger aborted, AtomicInteger failed) {
+        Semaphore inFlight = new Semaphore(abortConcurrency);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (UploadFile f : files) {
+            if (f.getUploadMode() == UploadMode.SINGLE_PUT || f.getUploadId() == null) {
+                continue;
+            }
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<Void> abort;
+            try {
+                abort = asyncMultipartSvc.abort(f.getS3Key(), f.getUploadId());
+            } catch (RuntimeException e) {
+                abort = CompletableFuture.failedFuture(e);
+            }
+            pending.add(abort.handle((ok, error) -> {
+                inFlight.release();
+                countAbort(f, error, aborted, failed);
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+    }
+
+    // NoSuchUpload: already completed, aborted, or removed by a lifecycle rule; nothing is left either way
+    private void countAbort(UploadFile f, Throwable error, AtomicInteger aborted, AtomicInteger failed) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String outcome;
+        if (cause == null) {
+            outcome = "aborted";
+            aborted.incrementAndGet();
+        } else if (cause instanceof NoSuchUploadException) {
+            outcome = "missing";
+            aborted.incrementAndGet();
+        } else {
+            outcome = "error";
+            failed.incrementAndGet();
+            log.warn("Could not abort multipart upload {} of file {}: {}", f.getUploadId(), f.getId(), cause.getMessage());
+        }
+        meterRegistry.counter("upload.reaper.aborts", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,223 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+import software.amazon.awssdk.utils.http.SdkHttpUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Presigns UploadPart URLs with SigV4 query signing directly, producing the same URL as
+ * {@link S3Presigner#presignUploadPart} byte for byte (verified in UploadPartPresignerTest).
+ * <p>
+ * The SDK builds request, presign-request and signer objects for every URL and derives the signing key
+ * (four HMACs) each time. Here the derived key is kept until the date or the credentials change, and a
+ * batch for one upload shares everything but the part number: the canonical request is
+ * {@code head + partNumber + tail}, so each part costs one SHA-256 and two HMACs.
+ * <p>
+ * Only URLs without a signed Content-Length are handled here. Those with one, and any setup the SDK
+ * resolves differently (endpoint probing failed, {@code app.s3.presign.fast-signer.enabled=false}),
+ * go through the SDK presigner.
+ */
+@Component
+public class UploadPartPresigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String HMAC = "HmacSHA256";
+    private static final String PROBE_KEY = "probe";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final S3Presigner sdkPresigner;
+    private final AwsCredentialsProvider credentialsProvider;
+    private final String region;
+    private final String bucket;
+    private final Duration ttl;
+    private final boolean enabled;
+
+    // Learned from one SDK presign, so endpoint rules (virtual-hosted vs path-style, regional hosts) match the SDK's
+    private final String urlPrefix;
+    private final String canonicalPathPrefix;
+    private final String host;
+
+    private volatile SigningKey signingKey;
+
+    private record SigningKey(String accessKeyId, String secretAccessKey, String date, byte[] key, Mac mac) {}
+
+    public UploadPartPresigner(S3Presigner sdkPresigner,
+                               AwsCredentialsProvider credentialsProvider,
+                               @Value("${AWS_REGION}") String region,
+                               @Value("${app.s3.bucket}") String bucket,
+                               @Value("${app.s3.presign.ttl:10m}") Duration ttl,
+                               @Value("${app.s3.presign.fast-signer.enabled:true}") boolean enabled) {
+        this.sdkPresigner = sdkPresigner;
+        this.credentialsProvider = credentialsProvider;
+        this.region = region;
+        this.bucket = bucket;
+        this.ttl = ttl;
+
+        PresignedUploadPartRequest probe = sdkSign(PROBE_KEY, "u", 1, 0L);
+        String url = probe.url().toString();
+        int keyAt = url.indexOf("/" + PROBE_KEY + "?");
+        String path = probe.httpRequest().encodedPath();
+        List<String> hostHeader = probe.signedHeaders().get("host");
+        boolean understood = keyAt > 0 && path.endsWith("/" + PROBE_KEY)
+                && hostHeader != null && hostHeader.size() == 1 && probe.signedHeaders().size() == 1;
+        this.urlPrefix = understood ? url.substring(0, keyAt + 1) : null;
+        this.canonicalPathPrefix = understood ? path.substring(0, path.length() - PROBE_KEY.length()) : null;
+        this.host = understood ? hostHeader.get(0) : null;
+        this.enabled = enabled && understood;
+    }
+
+    /**
+     * @param contentLength bound into the signature when > 0 (SDK path)
+     */
+    public String presign(String key, String uploadId, int partNumber, long contentLength) {
+        if (contentLength > 0) {
+            return sdkSign(key, uploadId, partNumber, contentLength).url().toString();
+        }
+        return presign(key, uploadId, List.of(partNumber), Instant.now()).get(partNumber);
+    }
+
+    /** Signs every part with the same timestamp; result in iteration order of {@code partNumbers}. */
+    public Map<Integer, String> presign(String key, String uploadId, Collection<Integer> partNumbers) {
+        return presign(key, uploadId, partNumbers, Instant.now());
+    }
+
+    Map<Integer, String> presign(String key, String uploadId, Collection<Integer> partNumbers, Instant signingTime) {
+        Map<Integer, String> urls = new LinkedHashMap<>(partNumbers.size() * 2);
+        AwsCredentials credentials = enabled ? credentialsProvider.resolveCredentials() : null;
+        if (credentials == null) {
+            for (Integer partNumber : partNumbers) {
+                urls.put(partNumber, sdkSign(key, uploadId, partNumber, 0L).url().toString());
+            }
+            return urls;
+        }
+
+        String amzDate = AMZ_DATE.format(signingTime);
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String credential = SdkHttpUtils.urlEncode(credentials.accessKeyId() + "/" + scope);
+        String expires = Long.toString(ttl.toSeconds());
+        String token = credentials instanceof AwsSessionCredentials session
+                ? SdkHttpUtils.urlEncode(session.sessionToken()) : null;
+        String encodedKey = SdkHttpUtils.urlEncodeIgnoreSlashes(key);
+        String encodedUploadId = SdkHttpUtils.urlEncode(uploadId);
+
+        // Canonical request = head + partNumber + tail; query parameters sorted by name
+        String head = "PUT\n" + canonicalPathPrefix + encodedKey + "\n"
+                + "X-Amz-Algorithm=" + ALGORITHM
+                + "&X-Amz-Credential=" + credential
+                + "&X-Amz-Date=" + amzDate
+                + "&X-Amz-Expires=" + expires
+                + (token == null ? "" : "&X-Amz-Security-Token=" + token)
+                + "&X-Amz-SignedHeaders=host"
+                + "&partNumber=";
+        String tail = "&uploadId=" + encodedUploadId + "\n"
+                + "host:" + host + "\n\n"
+                + "host\n"
+                + "UNSIGNED-PAYLOAD";
+        String stringToSignPrefix = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n";
+
+        // URL parameters in the SDK's order, which is not the canonical one
+        String urlHead = urlPrefix + encodedKey + "?partNumber=";
+        String urlTail = "&uploadId=" + encodedUploadId
+                + (token == null ? "" : "&X-Amz-Security-Token=" + token)
+                + "&X-Amz-Algorithm=" + ALGORITHM
+                + "&X-Amz-Date=" + amzDate
+                + "&X-Amz-SignedHeaders=host"
+                + "&X-Amz-Credential=" + credential
+                + "&X-Amz-Expires=" + expires
+                + "&X-Amz-Signature=";
+
+        Mac mac = signingMac(credentials, date);
+        MessageDigest sha256 = sha256();
+        StringBuilder url = new StringBuilder(urlHead.length() + urlTail.length() + 70);
+        for (Integer partNumber : partNumbers) {
+            String canonicalRequest = head + partNumber + tail;
+            String hashedRequest = HEX.formatHex(sha256.digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+            byte[] signature = mac.doFinal((stringToSignPrefix + hashedRequest).getBytes(StandardCharsets.UTF_8));
+
+            url.setLength(0);
+            url.append(urlHead).append(partNumber).append(urlTail).append(HEX.formatHex(signature));
+            urls.put(partNumber, url.toString());
+        }
+        return urls;
+    }
+
+    // A copy of the cached Mac initialized with the day's signing key; Mac instances are not thread-safe
+    private Mac signingMac(AwsCredentials credentials, String date) {
+        SigningKey current = signingKey;
+        if (current == null || !current.date().equals(date)
+                || !current.accessKeyId().equals(credentials.accessKeyId())
+                || !current.secretAccessKey().equals(credentials.secretAccessKey())) {
+            current = deriveSigningKey(credentials, date);
+            signingKey = current;
+        }
+        try {
+            return (Mac) current.mac().clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac(current.key());
+        }
+    }
+
+    private SigningKey deriveSigningKey(AwsCredentials credentials, String date) {
+        byte[] key = ("AWS4" + credentials.secretAccessKey()).getBytes(StandardCharsets.UTF_8);
+        for (String part : new String[]{date, region, "s3", "aws4_request"}) {
+            key = newMac(key).doFinal(part.getBytes(StandardCharsets.UTF_8));
+        }
+        return new SigningKey(credentials.accessKeyId(), credentials.secretAccessKey(), date, key, newMac(key));
+    }
+
+    private static Mac newMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(key, HMAC));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private PresignedUploadPartRequest sdkSign(String key, String uploadId, int partNumber, long contentLength) {
+        return sdkPresigner.presignUploadPart(UploadPartPresignRequest.builder()
+                .signatureDuration(ttl)
+                .uploadPartRequest(UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength(contentLength > 0 ? contentLength : null)
+                        .build())
+                .build());
+    }
+}
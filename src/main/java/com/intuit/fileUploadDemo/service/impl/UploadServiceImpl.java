@@ -1,38 +1,82 @@
 package com.intuit.fileUploadDemo.service.impl;
 
+import com.intuit.fileUploadDemo.cache.UploadLookupCache;
+import com.intuit.fileUploadDemo.cache.UploadLookupCache.FileLookup;
+import com.intuit.fileUploadDemo.cache.UploadLookupCache.SessionLookup;
+import com.intuit.fileUploadDemo.dto.request.AcknowledgePartRequest;
+import com.intuit.fileUploadDemo.dto.request.BatchPresignPartUrlRequest;
+import com.intuit.fileUploadDemo.dto.request.BulkRegisterFilesRequest;
 import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
 import com.intuit.fileUploadDemo.dto.request.PresignPartUrlRequest;
 import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
 import com.intuit.fileUploadDemo.dto.request.StartSessionRequest;
 import com.intuit.fileUploadDemo.dto.response.*;
-import com.intuit.fileUploadDemo.entities.UploadChunk;
 import com.intuit.fileUploadDemo.entities.UploadFile;
 import com.intuit.fileUploadDemo.entities.UploadSession;
-import com.intuit.fileUploadDemo.entities.enums.ChunkStatus;
 import com.intuit.fileUploadDemo.entities.enums.FileStatus;
 import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
 import com.intuit.fileUploadDemo.exception.ResourceNotFoundException;
-import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
 import com.intuit.fileUploadDemo.repository.UploadFileRepository;
 import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.repository.projection.FileStatusView;
+import com.intuit.fileUploadDemo.repository.projection.SessionHistoryView;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import com.intuit.fileUploadDemo.service.PartSizePlanner;
+import com.intuit.fileUploadDemo.service.S3MultipartAsyncService;
 import com.intuit.fileUploadDemo.service.S3MultipartService;
 import com.intuit.fileUploadDemo.service.UploadService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UploadServiceImpl implements UploadService {
 
     private final UploadSessionRepository uploadSessionRepository;
     private final UploadFileRepository uploadFileRepository;
-    private final UploadChunkRepository uploadChunkRepository;
+    private final ChunkStateStore chunkStateStore;
     private final S3MultipartService multipartSvc;
+    private final S3MultipartAsyncService asyncMultipartSvc;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor uploadTaskExecutor;
+    private final PartSizePlanner partSizePlanner;
+    private final Executor bulkRegisterExecutor;
+    private final UploadLookupCache lookupCache;
+    private final SessionArchive sessionArchive;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.upload.presign.max-batch-size:500}")
+    private int maxPresignBatchSize;
+
+    @Value("${app.upload.single-put.max-size:16MB}")
+    private DataSize singlePutMaxSize;
+
+    @Value("${app.upload.bulk-register.max-files:1000}")
+    private int maxBulkRegisterFiles;
+
+    @Value("${app.upload.history.max-page-size:100}")
+    private int maxHistoryPageSize;
+
+    // Keyset of the first history page: later than any real session
+    private static final Instant HISTORY_START = Instant.parse("9999-12-31T23:59:59Z");
 
     private String nextSessionId() {
         return "S" + java.util.UUID.randomUUID().toString().replace("-", "");
@@ -42,14 +86,14 @@ public class UploadServiceImpl implements UploadService {
         return "F" + java.util.UUID.randomUUID().toString().replace("-", "");
     }
 
-    private String nextChunkId() {
-        return "C" + java.util.UUID.randomUUID().toString().replace("-", "");
+    private void ensureSessionMutable(UploadSession s) {
+        ensureSessionMutable(s.getStatus());
     }
 
-    private void ensureSessionMutable(UploadSession s) {
-        if (s.getStatus() == SessionStatus.COMPLETED
-                || s.getStatus() == SessionStatus.CANCELLED
-                || s.getStatus() == SessionStatus.FAILED) {
+    private void ensureSessionMutable(SessionStatus status) {
+        if (status == SessionStatus.COMPLETED
+                || status == SessionStatus.CANCELLED
+                || status == SessionStatus.FAILED) {
             throw new IllegalStateException("Session is not mutable");
         }
     }
@@ -60,6 +104,69 @@ public class UploadServiceImpl implements UploadService {
         }
     }
 
+    private void ensureMultipart(UploadFile f) {
+        if (f.getUploadMode() == UploadMode.SINGLE_PUT) {
+            throw new IllegalStateException("File " + f.getId() + " is uploaded with a single PUT and has no parts");
+        }
+    }
+
+    // Read-through lookups for checks only; anything that writes the row reads it itself
+    private FileLookup lookupFile(String fileId) {
+        return lookupCache.file(fileId, id -> uploadFileRepository.findById(id).map(FileLookup::of))
+                .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+    }
+
+    private SessionLookup lookupSession(String sessionId) {
+        return lookupCache.session(sessionId, id -> uploadSessionRepository.findById(id).map(SessionLookup::of))
+                .orElseThrow(() -> new ResourceNotFoundException("Session not found  " + sessionId));
+    }
+
+    // The presign checks on a cached file: mutable, multipart, not paused
+    private void ensurePresignable(FileLookup f) {
+        if (f.status() == FileStatus.UPLOADED || f.status() == FileStatus.FAILED) {
+            throw new IllegalStateException("File is not mutable");
+        }
+        if (f.uploadMode() == UploadMode.SINGLE_PUT) {
+            throw new IllegalStateException("File " + f.id() + " is uploaded with a single PUT and has no parts");
+        }
+        if (f.status() == FileStatus.PAUSED) {
+            throw new IllegalStateException("File is paused. Resume before presigning parts.");
+        }
+    }
+
+    // Chunk state stores only need the file's id and part count
+    private static UploadFile chunkStateRef(FileLookup f) {
+        return UploadFile.builder().id(f.id()).totalChunks(f.totalChunks()).build();
+    }
+
+    // Rollback of a registration that wrote no row: nothing else (the reaper included) will ever find this
+    // upload, so a failed abort is logged with its key for cleanup and counted in upload.register.rollback-aborts
+    private void abortOrphan(String s3Key, String uploadId) {
+        CompletableFuture<Void> abort;
+        try {
+            abort = asyncMultipartSvc.abort(s3Key, uploadId);
+        } catch (RuntimeException e) {
+            abort = CompletableFuture.failedFuture(e);
+        }
+        abort.whenComplete((ok, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            String outcome;
+            if (cause == null) {
+                outcome = "aborted";
+            } else if (cause instanceof NoSuchUploadException) {
+                outcome = "missing";
+            } else {
+                outcome = "error";
+                log.warn("Could not abort orphan multipart upload {} of key {}: {}", uploadId, s3Key, cause.getMessage());
+            }
+            meterRegistry.counter("upload.register.rollback-aborts", "outcome", outcome).increment();
+        });
+    }
+
+    private boolean isSinglePut(RegisterFileRequest request) {
+        return request.getFileSize() <= singlePutMaxSize.toBytes();
+    }
+
     // ───────────────────────────────────────────────────────────────
     // Start Session (idempotent per user)
     // ───────────────────────────────────────────────────────────────
@@ -91,74 +198,214 @@ public class UploadServiceImpl implements UploadService {
     }
 
     @Override
-    @Transactional
-    public RegisterFileResponse registerFile(String sessionId, RegisterFileRequest request) {
-        UploadSession session = uploadSessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found  " + sessionId));
+    public CompletableFuture<RegisterFileResponse> registerFileAsync(String sessionId, RegisterFileRequest request) {
+        // Small files never touch S3 here: one short transaction and a locally signed URL
+        if (isSinglePut(request)) {
+            return CompletableFuture.completedFuture(transactionTemplate.execute(status -> {
+                UploadSession session = uploadSessionRepository.findById(sessionId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Session not found  " + sessionId));
+                ensureSessionMutable(session);
+                String fileId = nextFileId();
+                return persistSinglePutFile(session, fileId, sessionId + "/" + fileId + "/" + request.getFileName(), request);
+            }));
+        }
 
-        ensureSessionMutable(session);
+        // Fail fast on the request thread, before anything is created in S3; the insert re-checks the row
+        ensureSessionMutable(lookupSession(sessionId).status());
+        PartSizePlanner.PartPlan plan = partSizePlanner.plan(request);
 
         String fileId = nextFileId();
         String s3Key = sessionId + "/" + fileId + "/" + request.getFileName();
 
-        String uploadId = multipartSvc.start(
-                s3Key,
-                "application/octet-stream"
-        );
+        return asyncMultipartSvc.start(s3Key, "application/octet-stream")
+                .thenApplyAsync(uploadId -> {
+                    try {
+                        return transactionTemplate.execute(status -> {
+                            UploadSession session = uploadSessionRepository.findById(sessionId)
+                                    .orElseThrow(() -> new ResourceNotFoundException("Session not found  " + sessionId));
+                            ensureSessionMutable(session);
+                            return persistRegisteredFile(session, fileId, s3Key, uploadId, request, plan);
+                        });
+                    } catch (RuntimeException e) {
+                        // Don't leave an orphan multipart upload behind
+                        abortOrphan(s3Key, uploadId);
+                        throw e;
+                    }
+                }, uploadTaskExecutor);
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Bulk register: parallel CreateMultipartUpload, one batched insert
+    // ───────────────────────────────────────────────────────────────
+    @Override
+    public BulkRegisterFilesResponse registerFiles(String sessionId, BulkRegisterFilesRequest request) {
+        List<RegisterFileRequest> entries = request.getFiles();
+        if (entries.size() > maxBulkRegisterFiles) {
+            throw new IllegalArgumentException("Too many files (max " + maxBulkRegisterFiles + ")");
+        }
+        // Session problems fail the whole call before anything is created in S3; the insert re-checks the row
+        ensureSessionMutable(lookupSession(sessionId).status());
+
+        BulkRegisterFilesResponse.FileResult[] results = new BulkRegisterFilesResponse.FileResult[entries.size()];
+        List<PendingRegistration> pending = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            RegisterFileRequest entry = entries.get(i);
+            String fileId = nextFileId();
+            String s3Key = sessionId + "/" + fileId + "/" + entry.getFileName();
+            if (isSinglePut(entry)) {
+                pending.add(new PendingRegistration(i, fileId, s3Key, entry, null, CompletableFuture.completedFuture(null)));
+                continue;
+            }
+            PartSizePlanner.PartPlan plan;
+            try {
+                plan = partSizePlanner.plan(entry);
+            } catch (IllegalArgumentException e) {
+                results[i] = new BulkRegisterFilesResponse.FileResult(i, entry.getFileName(), null, e.getMessage());
+                continue;
+            }
+            CompletableFuture<String> uploadId = CompletableFuture.supplyAsync(
+                    () -> multipartSvc.start(s3Key, "application/octet-stream"), bulkRegisterExecutor);
+            pending.add(new PendingRegistration(i, fileId, s3Key, entry, plan, uploadId));
+        }
+
+        // A failed start only fails its own entry
+        List<PendingRegistration> started = new ArrayList<>(pending.size());
+        for (PendingRegistration p : pending) {
+            try {
+                p.uploadId().join();
+                started.add(p);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                results[p.index()] = new BulkRegisterFilesResponse.FileResult(p.index(), p.request().getFileName(),
+                        null, "Could not start upload: " + cause.getMessage());
+            }
+        }
+
+        List<UploadFile> files;
+        try {
+            files = transactionTemplate.execute(status -> {
+                UploadSession session = uploadSessionRepository.findById(sessionId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Session not found  " + sessionId));
+                ensureSessionMutable(session);
+                List<UploadFile> rows = started.stream().map(p -> p.toFile(session)).toList();
+                uploadFileRepository.insertAll(rows);
+                chunkStateStore.initializeAll(rows.stream()
+                        .filter(f -> f.getUploadMode() == UploadMode.MULTIPART)
+                        .toList());
+                return rows;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was written: don't leave the created multipart uploads behind
+            for (PendingRegistration p : started) {
+                if (p.plan() != null) {
+                    abortOrphan(p.s3Key(), p.uploadId().join());
+                }
+            }
+            throw e;
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            PendingRegistration p = started.get(i);
+            UploadFile f = files.get(i);
+            RegisterFileResponse file = f.getUploadMode() == UploadMode.SINGLE_PUT
+                    ? new RegisterFileResponse(f.getId(), f.getS3Key(), null, f.getFileSize(), 1, UploadMode.SINGLE_PUT,
+                            multipartSvc.presignPut(f.getS3Key(), f.getFileSize()))
+                    : new RegisterFileResponse(f.getId(), f.getS3Key(), f.getUploadId(), f.getPartSize(),
+                            f.getTotalChunks(), UploadMode.MULTIPART, null);
+            results[p.index()] = new BulkRegisterFilesResponse.FileResult(p.index(), f.getFileName(), file, null);
+        }
+        return new BulkRegisterFilesResponse(sessionId, files.size(), entries.size() - files.size(), Arrays.asList(results));
+    }
+
+    // One bulk entry between planning and the batched insert; plan is null for single-PUT entries
+    private record PendingRegistration(int index, String fileId, String s3Key, RegisterFileRequest request,
+                                       PartSizePlanner.PartPlan plan, CompletableFuture<String> uploadId) {
 
-        UploadFile file = UploadFile.builder()
+        UploadFile toFile(UploadSession session) {
+            return plan == null
+                    ? newSinglePutFile(session, fileId, s3Key, request)
+                    : newMultipartFile(session, fileId, s3Key, uploadId.join(), request, plan);
+        }
+    }
+
+    private static UploadFile newMultipartFile(UploadSession session, String fileId, String s3Key, String uploadId,
+                                               RegisterFileRequest request, PartSizePlanner.PartPlan plan) {
+        return UploadFile.builder()
                 .id(fileId)
                 .session(session)
                 .fileName(request.getFileName())
                 .fileSize(request.getFileSize())
-                .totalChunks(request.getChunkCount())
+                .totalChunks(plan.partCount())
+                .partSize(plan.partSize())
                 .s3Key(s3Key)
                 .uploadId(uploadId)
                 .status(FileStatus.IN_PROGRESS)
                 .createdAt(Instant.now())
                 .updatedAt(Instant.now())
                 .build();
+    }
 
-        uploadFileRepository.save(file);
+    private static UploadFile newSinglePutFile(UploadSession session, String fileId, String s3Key,
+                                               RegisterFileRequest request) {
+        return UploadFile.builder()
+                .id(fileId)
+                .session(session)
+                .fileName(request.getFileName())
+                .fileSize(request.getFileSize())
+                .totalChunks(1)
+                .partSize(request.getFileSize())
+                .uploadMode(UploadMode.SINGLE_PUT)
+                .s3Key(s3Key)
+                .status(FileStatus.IN_PROGRESS)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
 
-        for (int i = 0; i < request.getChunkCount(); i++) {
-            String chunkId = nextChunkId();
-            UploadChunk chunk = UploadChunk.builder()
-                    .id(chunkId)
-                    .file(file)
-                    .chunkIndex(i)
-                    .status(ChunkStatus.PENDING)
-                    .build();
-            uploadChunkRepository.save(chunk);
-        }
+    // DB half of registerFileAsync, once S3 has created the multipart upload
+    private RegisterFileResponse persistRegisteredFile(UploadSession session, String fileId, String s3Key,
+                                                       String uploadId, RegisterFileRequest request,
+                                                       PartSizePlanner.PartPlan plan) {
+        UploadFile file = newMultipartFile(session, fileId, s3Key, uploadId, request, plan);
 
-        return new RegisterFileResponse(fileId, s3Key, uploadId);
+        // Flush first: chunk state may be written through JDBC and references the file row
+        uploadFileRepository.saveAndFlush(file);
+        chunkStateStore.initialize(file);
+
+        return new RegisterFileResponse(fileId, s3Key, uploadId, plan.partSize(), plan.partCount(),
+                UploadMode.MULTIPART, null);
     }
 
-    @Override
-    @Transactional
-    public PresignPartUrlResponse presignPartUrl(String fileId, PresignPartUrlRequest request) {
-        UploadFile file = uploadFileRepository.findById(fileId)
-                .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+    // Small file: one presigned PutObject instead of a multipart upload, and no chunk state
+    private RegisterFileResponse persistSinglePutFile(UploadSession session, String fileId, String s3Key,
+                                                      RegisterFileRequest request) {
+        UploadFile file = newSinglePutFile(session, fileId, s3Key, request);
+        uploadFileRepository.save(file);
 
-        ensureFileMutable(file);
+        String uploadUrl = multipartSvc.presignPut(s3Key, request.getFileSize());
+        return new RegisterFileResponse(fileId, s3Key, null, request.getFileSize(), 1,
+                UploadMode.SINGLE_PUT, uploadUrl);
+    }
 
-        if (file.getStatus() == FileStatus.PAUSED) {
-            throw new IllegalStateException("File is paused. Resume before presigning parts.");
-        }
+    // No surrounding transaction: with a cached file and the bitmap store this never touches the pool
+    @Override
+    public PresignPartUrlResponse presignPartUrl(String fileId, PresignPartUrlRequest request) {
+        FileLookup file = lookupFile(fileId);
+        ensurePresignable(file);
 
         int partNumber = request.getPartNumber();
-        if (partNumber < 1 || partNumber > file.getTotalChunks()) {
+        if (partNumber < 1 || partNumber > file.totalChunks()) {
             throw new IllegalArgumentException("Invalid partNumber: " + partNumber);
         }
 
         int chunkIndex = partNumber - 1;
-        uploadChunkRepository.findByFileIdAndChunkIndex(fileId, chunkIndex)
-                .orElseThrow(() -> new ResourceNotFoundException("Chunk not found for part " + partNumber));
+        if (chunkStateStore.existingChunkIndexes(chunkStateRef(file), List.of(chunkIndex)).isEmpty()) {
+            throw new ResourceNotFoundException("Chunk not found for part " + partNumber);
+        }
 
         String presigned = multipartSvc.presignPart(
-                file.getS3Key(),
-                file.getUploadId(),
+                file.s3Key(),
+                file.uploadId(),
                 partNumber,
                 0L
         );
@@ -167,15 +414,95 @@ public class UploadServiceImpl implements UploadService {
     }
 
     @Override
-    @Transactional
-    public void completeFile(String fileId, CompleteFileRequest request) {
+    public BatchPresignPartUrlResponse presignPartUrls(String fileId, BatchPresignPartUrlRequest request) {
+        FileLookup file = lookupFile(fileId);
+        ensurePresignable(file);
+
+        SortedSet<Integer> partNumbers = resolvePartNumbers(request, file.totalChunks());
+
+        // One query validates every requested chunk row
+        List<Integer> chunkIndexes = partNumbers.stream().map(p -> p - 1).toList();
+        Set<Integer> existing = chunkStateStore.existingChunkIndexes(chunkStateRef(file), chunkIndexes);
+        for (Integer partNumber : partNumbers) {
+            if (!existing.contains(partNumber - 1)) {
+                throw new ResourceNotFoundException("Chunk not found for part " + partNumber);
+            }
+        }
+
+        Map<Integer, String> urls = multipartSvc.presignParts(file.s3Key(), file.uploadId(), partNumbers);
+
+        List<BatchPresignPartUrlResponse.PartUrl> items = new ArrayList<>(urls.size());
+        for (Integer partNumber : partNumbers) {
+            items.add(new BatchPresignPartUrlResponse.PartUrl(partNumber, urls.get(partNumber)));
+        }
+        return new BatchPresignPartUrlResponse(fileId, items);
+    }
+
+    private SortedSet<Integer> resolvePartNumbers(BatchPresignPartUrlRequest request, int totalChunks) {
+        SortedSet<Integer> partNumbers = new TreeSet<>();
+
+        if (request.getFromPart() != null || request.getToPart() != null) {
+            if (request.getFromPart() == null || request.getToPart() == null
+                    || request.getFromPart() > request.getToPart()) {
+                throw new IllegalArgumentException("Invalid part range: " + request.getFromPart() + ".." + request.getToPart());
+            }
+            // Check the span before materializing it so a huge range can't blow up the set
+            if (request.getToPart() - request.getFromPart() + 1 > maxPresignBatchSize) {
+                throw new IllegalArgumentException("Too many parts requested (max " + maxPresignBatchSize + ")");
+            }
+            for (int p = request.getFromPart(); p <= request.getToPart(); p++) partNumbers.add(p);
+        }
+        if (request.getPartNumbers() != null) {
+            partNumbers.addAll(request.getPartNumbers());
+        }
+
+        if (partNumbers.isEmpty()) {
+            throw new IllegalArgumentException("No part numbers requested");
+        }
+        if (partNumbers.size() > maxPresignBatchSize) {
+            throw new IllegalArgumentException("Too many parts requested (max " + maxPresignBatchSize + ")");
+        }
+        if (partNumbers.first() < 1 || partNumbers.last() > totalChunks) {
+            int bad = partNumbers.first() < 1 ? partNumbers.first() : partNumbers.last();
+            throw new IllegalArgumentException("Invalid partNumber: " + bad);
+        }
+        return partNumbers;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkCompletable(String fileId, CompleteFileRequest request) {
         UploadFile file = uploadFileRepository.findById(fileId)
                 .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+        validateCompletion(file, request);
+    }
 
+    @Override
+    public CompletableFuture<Void> completeFileAsync(String fileId, CompleteFileRequest request) {
+        CompletionPlan plan = transactionTemplate.execute(status -> {
+            UploadFile file = uploadFileRepository.findById(fileId)
+                    .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+            return new CompletionPlan(file.getS3Key(), file.getUploadId(), validateCompletion(file, request));
+        });
+
+        return asyncMultipartSvc.complete(plan.s3Key(), plan.uploadId(), plan.partToEtag().entrySet().stream().toList())
+                .thenRunAsync(() -> transactionTemplate.execute(status -> {
+                    UploadFile file = uploadFileRepository.findById(fileId)
+                            .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+                    finalizeCompletion(file, plan.partToEtag());
+                    return null;
+                }), uploadTaskExecutor);
+    }
+
+    private record CompletionPlan(String s3Key, String uploadId, Map<Integer, String> partToEtag) {}
+
+    // Checks shared by checkCompletable and completeFileAsync; returns partNumber -> eTag
+    private Map<Integer, String> validateCompletion(UploadFile file, CompleteFileRequest request) {
         ensureFileMutable(file);
+        ensureMultipart(file);
 
         if (!Objects.equals(file.getUploadId(), request.getUploadId())) {
-            throw new IllegalArgumentException("uploadId mismatch for file " + fileId);
+            throw new IllegalArgumentException("uploadId mismatch for file " + file.getId());
         }
 
         Map<Integer, String> partToEtag = request.getParts().stream()
@@ -186,31 +513,21 @@ public class UploadServiceImpl implements UploadService {
                 })
                 .collect(Collectors.toMap(CompleteFileRequest.PartETag::getPartNumber, CompleteFileRequest.PartETag::getETag));
 
-        List<Map.Entry<Integer, String>> partEntries = partToEtag.entrySet().stream().toList();
-        multipartSvc.complete(
-                file.getS3Key(),
-                file.getUploadId(),
-                partEntries
-        );
+        // Reject before S3 completes the upload: afterwards the missing part can no longer be fixed
+        ChunkStateStore.requireEtagForEveryPart(file.getTotalChunks(), partToEtag);
+        return partToEtag;
+    }
 
+    // DB half of completeFileAsync, once S3 has completed the multipart upload
+    private void finalizeCompletion(UploadFile file, Map<Integer, String> partToEtag) {
         // Mark chunks uploaded with ETags
-        List<UploadChunk> chunks = uploadChunkRepository.findByFileIdOrderByChunkIndexAsc(fileId);
-        for (UploadChunk c : chunks) {
-            int partNo = c.getChunkIndex() + 1;
-            String etag = partToEtag.get(partNo);
-            if (etag == null || etag.isBlank()) {
-                throw new IllegalStateException("Missing ETag for partNumber " + partNo);
-            }
-            c.setEtag(etag);
-            c.setStatus(ChunkStatus.UPLOADED);
-            c.setUploadedAt(Instant.now());
-            uploadChunkRepository.save(c);
-        }
+        chunkStateStore.markAllUploaded(file, partToEtag);
 
         file.setUploadedChunks(file.getTotalChunks());
         file.setStatus(FileStatus.UPLOADED);
         file.setUpdatedAt(Instant.now());
         uploadFileRepository.save(file);
+        lookupCache.invalidateFile(file.getId());
 
         // IMPORTANT: Do NOT auto-complete session here.
         UploadSession s = file.getSession();
@@ -219,34 +536,163 @@ public class UploadServiceImpl implements UploadService {
     }
 
     @Override
-    @Transactional
-    public SessionStatusResponse getSessionStatus(String sessionId) {
-        UploadSession session = uploadSessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+    public CompletableFuture<Void> completeSingleUploadAsync(String fileId) {
+        UploadFile file = transactionTemplate.execute(status -> {
+            UploadFile f = uploadFileRepository.findById(fileId)
+                    .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+            ensureFileMutable(f);
+            if (f.getUploadMode() != UploadMode.SINGLE_PUT) {
+                throw new IllegalStateException("File " + fileId + " is a multipart upload; complete it with its parts");
+            }
+            return f;
+        });
+
+        // One HEAD instead of CompleteMultipartUpload: confirms the PUT landed with the registered size
+        return asyncMultipartSvc.objectSize(file.getS3Key())
+                .thenAcceptAsync(size -> {
+                    if (size.isEmpty()) {
+                        throw new IllegalStateException("Object for file " + fileId + " has not been uploaded yet");
+                    }
+                    if (size.get() != file.getFileSize()) {
+                        throw new IllegalStateException("Uploaded object is " + size.get() + " bytes, expected " + file.getFileSize());
+                    }
+                    transactionTemplate.execute(status -> {
+                        UploadFile f = uploadFileRepository.findById(fileId)
+                                .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+                        ensureFileMutable(f);
+                        f.setUploadedChunks(1);
+                        f.setStatus(FileStatus.UPLOADED);
+                        f.setUpdatedAt(Instant.now());
+                        uploadFileRepository.save(f);
+                        lookupCache.invalidateFile(fileId);
+
+                        UploadSession s = f.getSession();
+                        s.setUpdatedAt(Instant.now());
+                        uploadSessionRepository.save(s);
+                        return null;
+                    });
+                }, uploadTaskExecutor);
+    }
 
-        List<UploadFile> files = uploadFileRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+    @Override
+    @Transactional(readOnly = true)
+    public SessionStatusResponse getSessionStatus(String sessionId) {
+        Optional<UploadSession> hot = uploadSessionRepository.findById(sessionId);
+        if (hot.isEmpty()) {
+            return sessionArchive.findSession(sessionId)
+                    .map(UploadServiceImpl::archivedStatus)
+                    .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+        }
+        UploadSession session = hot.get();
 
-        List<SessionStatusResponse.FileStatusItem> items = new ArrayList<>();
-        for (UploadFile f : files) {
-            List<UploadChunk> chunks = uploadChunkRepository.findByFileIdOrderByChunkIndexAsc(f.getId());
-            List<Integer> pending = chunks.stream()
-                    .filter(c -> c.getStatus() != ChunkStatus.UPLOADED)
-                    .map(UploadChunk::getChunkIndex)
-                    .toList();
+        // Constant number of statements: session, file columns, pending chunk indexes
+        List<FileStatusView> files = uploadFileRepository.findStatusViewsBySessionId(sessionId);
+        Map<String, List<Integer>> pendingByFile = chunkStateStore.pendingChunkIndexesBySession(sessionId);
 
+        List<SessionStatusResponse.FileStatusItem> items = new ArrayList<>(files.size());
+        for (FileStatusView f : files) {
             items.add(new SessionStatusResponse.FileStatusItem(
-                    f.getId(),
+                    f.getFileId(),
                     f.getFileName(),
                     f.getTotalChunks(),
                     f.getUploadedChunks(),
                     f.getStatus(),
-                    pending
+                    pendingChunkIndexes(f, pendingByFile)
             ));
         }
 
         return new SessionStatusResponse(session.getId(), session.getStatus(), items);
     }
 
+    // Single-PUT files have no chunk state: their one chunk is pending until the file is UPLOADED
+    private static List<Integer> pendingChunkIndexes(FileStatusView f, Map<String, List<Integer>> pendingByFile) {
+        if (f.getUploadMode() == UploadMode.SINGLE_PUT) {
+            return f.getStatus() == FileStatus.UPLOADED ? List.of() : List.of(0);
+        }
+        return pendingByFile.getOrDefault(f.getFileId(), List.of());
+    }
+
+    private static SessionStatusResponse archivedStatus(SessionArchive.Archived archived) {
+        List<SessionStatusResponse.FileStatusItem> items = new ArrayList<>(archived.files().size());
+        for (SessionArchive.ArchivedFile f : archived.files()) {
+            items.add(new SessionStatusResponse.FileStatusItem(
+                    f.id(), f.fileName(), f.totalChunks(), f.uploadedChunks(), f.status(), archivedPendingChunkIndexes(f)));
+        }
+        return new SessionStatusResponse(archived.session().getId(), archived.session().getStatus(), items);
+    }
+
+    // Same rules as pendingChunkIndexes, from the parts kept in the archive
+    private static List<Integer> archivedPendingChunkIndexes(SessionArchive.ArchivedFile f) {
+        if (f.status() == FileStatus.UPLOADED) {
+            return List.of();
+        }
+        if (f.uploadMode() == UploadMode.SINGLE_PUT) {
+            return List.of(0);
+        }
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < f.totalChunks(); i++) {
+            if (f.parts() == null || !f.parts().containsKey(i + 1)) pending.add(i);
+        }
+        return pending;
+    }
+
+    // ───────────────────────────────────────────────────────────────
+    // Session history (keyset pagination on createdAt, id)
+    // ───────────────────────────────────────────────────────────────
+    @Override
+    @Transactional(readOnly = true)
+    public SessionHistoryResponse getSessionHistory(String userId, SessionStatus status, String cursor, int limit) {
+        if (limit < 1 || limit > maxHistoryPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxHistoryPageSize);
+        }
+        Set<SessionStatus> statuses = status == null ? EnumSet.allOf(SessionStatus.class) : EnumSet.of(status);
+        Instant afterCreatedAt = HISTORY_START;
+        String afterId = "";
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keyset = decodeHistoryCursor(cursor);
+            afterCreatedAt = Instant.parse(keyset[0]);
+            afterId = keyset[1];
+        }
+
+        // One extra row from each table tells whether there is a next page; each query is an index range scan
+        List<SessionHistoryView> rows = new ArrayList<>(uploadSessionRepository.findHistoryPage(
+                userId, statuses, afterCreatedAt, afterId, limit + 1));
+        rows.addAll(sessionArchive.historyPage(userId, statuses, afterCreatedAt, afterId, limit + 1));
+        // A session archived between the two reads can show up in both
+        Map<String, SessionHistoryView> merged = new LinkedHashMap<>();
+        rows.stream()
+                .sorted(Comparator.comparing(SessionHistoryView::getCreatedAt)
+                        .thenComparing(SessionHistoryView::getSessionId).reversed())
+                .forEach(r -> merged.putIfAbsent(r.getSessionId(), r));
+
+        List<SessionHistoryResponse.SessionSummary> page = merged.values().stream()
+                .limit(limit)
+                .map(r -> new SessionHistoryResponse.SessionSummary(r.getSessionId(), r.getStatus(), r.getCreatedAt(),
+                        r.getUpdatedAt(), r.getFileCount(), r.getTotalBytes()))
+                .toList();
+        String nextCursor = merged.size() > limit ? encodeHistoryCursor(page.get(page.size() - 1)) : null;
+        return new SessionHistoryResponse(page, nextCursor);
+    }
+
+    // Opaque to clients: base64url of "createdAt|sessionId" of the last row returned
+    private static String encodeHistoryCursor(SessionHistoryResponse.SessionSummary last) {
+        String keyset = last.getCreatedAt() + "|" + last.getSessionId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeHistoryCursor(String cursor) {
+        try {
+            String[] keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            if (keyset.length != 2 || keyset[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant.parse(keyset[0]);
+            return keyset;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     @Override
     @Transactional
     public void pauseSession(String sessionId) {
@@ -265,14 +711,8 @@ public class UploadServiceImpl implements UploadService {
         s.setUpdatedAt(Instant.now());
         uploadSessionRepository.save(s);
 
-        List<UploadFile> files = uploadFileRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
-        for (UploadFile f : files) {
-            if (f.getStatus() == FileStatus.IN_PROGRESS) {
-                f.setStatus(FileStatus.PAUSED);
-                f.setUpdatedAt(Instant.now());
-                uploadFileRepository.save(f);
-            }
-        }
+        uploadFileRepository.updateStatusBySessionId(sessionId, FileStatus.IN_PROGRESS, FileStatus.PAUSED, Instant.now());
+        lookupCache.invalidateSession(sessionId);
     }
 
     @Override
@@ -292,14 +732,8 @@ public class UploadServiceImpl implements UploadService {
         s.setUpdatedAt(Instant.now());
         uploadSessionRepository.save(s);
 
-        List<UploadFile> files = uploadFileRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
-        for (UploadFile f : files) {
-            if (f.getStatus() == FileStatus.PAUSED) {
-                f.setStatus(FileStatus.IN_PROGRESS);
-                f.setUpdatedAt(Instant.now());
-                uploadFileRepository.save(f);
-            }
-        }
+        uploadFileRepository.updateStatusBySessionId(sessionId, FileStatus.PAUSED, FileStatus.IN_PROGRESS, Instant.now());
+        lookupCache.invalidateSession(sessionId);
     }
 
     @Override
@@ -315,6 +749,7 @@ public class UploadServiceImpl implements UploadService {
         f.setStatus(FileStatus.PAUSED);
         f.setUpdatedAt(Instant.now());
         uploadFileRepository.save(f);
+        lookupCache.invalidateFile(fileId);
     }
 
     @Override
@@ -330,6 +765,7 @@ public class UploadServiceImpl implements UploadService {
         f.setStatus(FileStatus.IN_PROGRESS);
         f.setUpdatedAt(Instant.now());
         uploadFileRepository.save(f);
+        lookupCache.invalidateFile(fileId);
     }
 
     // ───────────────────────────────────────────────────────────────
@@ -356,46 +792,160 @@ public class UploadServiceImpl implements UploadService {
         s.setStatus(SessionStatus.COMPLETED);
         s.setUpdatedAt(Instant.now());
         uploadSessionRepository.save(s);
+        lookupCache.invalidateSession(sessionId);
     }
 
 
     @Override
-    @Transactional(readOnly = true)
-    public FilePartsResponse getFileParts(String fileId) {
-        // 1) Validate file exists
+    @Transactional
+    public PartAckResponse acknowledgePart(String fileId, int partNumber, AcknowledgePartRequest request) {
         UploadFile file = uploadFileRepository.findById(fileId)
                 .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
 
+        ensureFileMutable(file);
+        ensureMultipart(file);
+
+        if (partNumber < 1 || partNumber > file.getTotalChunks()) {
+            throw new IllegalArgumentException("Invalid partNumber: " + partNumber);
+        }
+
+        // Only the first ack of a part moves the counter; retried acks just refresh the ETag
+        boolean newlyUploaded = chunkStateStore.markUploaded(file, partNumber, request.getETag());
+        if (newlyUploaded) {
+            uploadFileRepository.incrementUploadedChunks(fileId, 1, Instant.now());
+        }
+
+        return new PartAckResponse(fileId, partNumber, newlyUploaded,
+                uploadFileRepository.findUploadedChunksById(fileId), file.getTotalChunks());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FilePartsResponse getFileParts(String fileId) {
+        // 1) Validate file exists, in the hot table or the archive
+        Optional<UploadFile> hot = uploadFileRepository.findById(fileId);
+        if (hot.isEmpty()) {
+            return archivedParts(fileId);
+        }
+        UploadFile file = hot.get();
+
         // 2) Validate totalChunks
         Integer totalChunks = file.getTotalChunks();
         if (totalChunks == null || totalChunks <= 0) {
             throw new IllegalStateException("File totalChunks is not initialized or invalid for file " + fileId);
         }
 
-        // 3) If already completed, ListParts is not applicable (upload is closed)
+        // 3) If already completed, every part is uploaded
         if (file.getStatus() == FileStatus.UPLOADED) {
-            List<Integer> uploadedNums = new ArrayList<>(totalChunks);
-            for (int i = 1; i <= totalChunks; i++) uploadedNums.add(i);
+            return completedPartsResponse(file);
+        }
 
-            return new FilePartsResponse(
-                    file.getId(),
-                    file.getS3Key(),
-                    file.getUploadId(),      // may be null after completion; included for completeness
-                    totalChunks,
-                    uploadedNums,
-                    List.of(),               // pending
-                    List.of()                // uploadedParts with ETags (not available after completion)
-            );
+        if (file.getUploadMode() == UploadMode.SINGLE_PUT) {
+            return singlePutPendingResponse(file);
         }
 
         // 4) For in-flight uploads, we must have an active uploadId
+        String uploadId = requireActiveUploadId(file);
+
+        // 5) Acknowledged parts from our own store; S3 is only asked on reconcile
+        List<Map.Entry<Integer, String>> ackedParts = List.copyOf(chunkStateStore.uploadedParts(file).entrySet());
+
+        return partsResponse(file, uploadId, ackedParts);
+    }
+
+    @Override
+    public CompletableFuture<FilePartsResponse> reconcileFilePartsAsync(String fileId) {
+        UploadFile file = transactionTemplate.execute(status -> {
+            UploadFile f = uploadFileRepository.findById(fileId).orElse(null);
+            if (f == null) {
+                return null;
+            }
+            if (f.getTotalChunks() <= 0) {
+                throw new IllegalStateException("File totalChunks is not initialized or invalid for file " + fileId);
+            }
+            return f;
+        });
+        // Archived uploads are finished or aborted: nothing left in S3 to reconcile with
+        if (file == null) {
+            return CompletableFuture.completedFuture(archivedParts(fileId));
+        }
+
+        if (file.getStatus() == FileStatus.UPLOADED) {
+            return CompletableFuture.completedFuture(completedPartsResponse(file));
+        }
+        if (file.getUploadMode() == UploadMode.SINGLE_PUT) {
+            return CompletableFuture.completedFuture(singlePutPendingResponse(file));
+        }
+
+        String uploadId = requireActiveUploadId(file);
+        return asyncMultipartSvc.listParts(file.getS3Key(), uploadId)
+                .thenApplyAsync(s3Parts -> transactionTemplate.execute(status -> {
+                    recordUnacknowledgedParts(file, s3Parts);
+                    return partsResponse(file, uploadId, s3Parts);
+                }), uploadTaskExecutor);
+    }
+
+    // S3 is authoritative on reconcile: parts it has that were never acknowledged are recorded now
+    private void recordUnacknowledgedParts(UploadFile file, List<Map.Entry<Integer, String>> s3Parts) {
+        int newlyUploaded = 0;
+        for (Map.Entry<Integer, String> part : s3Parts) {
+            if (part.getKey() < 1 || part.getKey() > file.getTotalChunks()) {
+                continue; // uploaded outside the registered part range; completeFileAsync will reject it
+            }
+            String etag = part.getValue() == null ? null : part.getValue().replace("\"", "");
+            if (chunkStateStore.markUploaded(file, part.getKey(), etag)) {
+                newlyUploaded++;
+            }
+        }
+        if (newlyUploaded > 0) {
+            uploadFileRepository.incrementUploadedChunks(file.getId(), newlyUploaded, Instant.now());
+        }
+    }
+
+    private FilePartsResponse completedPartsResponse(UploadFile file) {
+        int totalChunks = file.getTotalChunks();
+        List<Integer> uploadedNums = new ArrayList<>(totalChunks);
+        for (int i = 1; i <= totalChunks; i++) uploadedNums.add(i);
+
+        return new FilePartsResponse(
+                file.getId(),
+                file.getS3Key(),
+                file.getUploadId(),      // may be null after completion; included for completeness
+                totalChunks,
+                uploadedNums,
+                List.of(),               // pending
+                List.of()                // uploadedParts with ETags (not available after completion)
+        );
+    }
+
+    private FilePartsResponse archivedParts(String fileId) {
+        SessionArchive.ArchivedFile archived = sessionArchive.findFile(fileId)
+                .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileId));
+        UploadFile file = archived.toUploadFile();
+        if (file.getStatus() == FileStatus.UPLOADED) {
+            return completedPartsResponse(file);
+        }
+        if (file.getUploadMode() == UploadMode.SINGLE_PUT) {
+            return singlePutPendingResponse(file);
+        }
+        List<Map.Entry<Integer, String>> parts = archived.parts() == null ? List.of() : List.copyOf(archived.parts().entrySet());
+        return partsResponse(file, file.getUploadId(), parts);
+    }
+
+    private FilePartsResponse singlePutPendingResponse(UploadFile file) {
+        return new FilePartsResponse(file.getId(), file.getS3Key(), null, 1, List.of(), List.of(1), List.of());
+    }
+
+    private String requireActiveUploadId(UploadFile file) {
         String uploadId = file.getUploadId();
         if (uploadId == null || uploadId.isBlank()) {
-            throw new IllegalStateException("No active multipart uploadId for file " + fileId);
+            throw new IllegalStateException("No active multipart uploadId for file " + file.getId());
         }
+        return uploadId;
+    }
 
-        // 5) Ask S3 which parts are present (authoritative)
-        List<Map.Entry<Integer, String>> s3Parts = multipartSvc.listParts(file.getS3Key(), uploadId);
+    private FilePartsResponse partsResponse(UploadFile file, String uploadId, List<Map.Entry<Integer, String>> s3Parts) {
+        int totalChunks = file.getTotalChunks();
 
         // Normalize: strip quotes from ETags if any, sort by partNumber
         List<FilePartsResponse.UploadedPart> uploadedParts = s3Parts.stream()
@@ -410,14 +960,13 @@ public class UploadServiceImpl implements UploadService {
                 .map(FilePartsResponse.UploadedPart::getPartNumber)
                 .toList();
 
-        // 6) Compute pending = 1..totalChunks minus uploaded
+        // Compute pending = 1..totalChunks minus uploaded
         Set<Integer> uploadedSet = new HashSet<>(uploadedPartNumbers);
         List<Integer> pendingPartNumbers = new ArrayList<>();
         for (int i = 1; i <= totalChunks; i++) {
             if (!uploadedSet.contains(i)) pendingPartNumbers.add(i);
         }
 
-        // 7) Build response
         return new FilePartsResponse(
                 file.getId(),
                 file.getS3Key(),
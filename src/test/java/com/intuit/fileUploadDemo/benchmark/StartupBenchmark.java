@@ -0,0 +1,126 @@
+package com.intuit.fileUploadDemo.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Manual tool, not a tracked benchmark (those are JMH, in src/jmh): process start to readiness, and
+ * latency of the first real request, for each startup variant. It launches packaged jars in child JVMs,
+ * which JMH can't measure. Each variant runs in a fresh JVM against an H2 file database whose schema the
+ * baseline run creates, so the faststart variants skip the schema diff (DDL_AUTO=none).
+ * Readiness is /actuator/health/readiness = 200; the first request is a session status lookup
+ * (404: the session does not exist). Needs the fast-startup build first:
+ * <pre>mvn -Pfaststart package -DskipTests && mvn test -Dtest=StartupBenchmark -Dbenchmark=true</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmark {
+
+    private static final Path APP_DIR = Path.of("target", "app");
+    private static final String JAR = "fileUploadDemo-0.0.1-SNAPSHOT.jar";
+    private static final int RUNS = 3;
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private record Variant(String name, List<String> jvmArgs) {}
+
+    private record Sample(long readyMillis, long firstRequestMillis) {}
+
+    @Test
+    void startupToFirstRequest() throws Exception {
+        assertTrue(Files.exists(APP_DIR.resolve(JAR)), "run mvn -Pfaststart package -DskipTests first");
+        Path db = Path.of("target", "startup-bench", "db").toAbsolutePath();
+
+        List<Variant> variants = List.of(
+                new Variant("baseline (default profile)", List.of()),
+                new Variant("faststart profile", List.of("-Dspring.profiles.active=faststart", "-DDDL_AUTO=none")),
+                new Variant("faststart + AOT", List.of("-Dspring.profiles.active=faststart", "-DDDL_AUTO=none",
+                        "-Dspring.aot.enabled=true")),
+                new Variant("faststart + AOT + AppCDS", List.of("-Dspring.profiles.active=faststart", "-DDDL_AUTO=none",
+                        "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=app.jsa", "-Xlog:cds=off")),
+                // Same without warm-up: readiness comes earlier, the first request pays for it instead
+                new Variant("  ... without warm-up", List.of("-Dspring.profiles.active=faststart", "-DDDL_AUTO=none",
+                        "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=app.jsa", "-Xlog:cds=off",
+                        "-Dapp.warmup.enabled=false")));
+
+        System.out.printf("%n%-28s %14s %18s %20s%n", "variant", "ready ms", "first request ms", "start->first resp ms");
+        for (Variant v : variants) {
+            List<Sample> samples = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                samples.add(measure(v, db));
+            }
+            long[] ready = samples.stream().mapToLong(Sample::readyMillis).sorted().toArray();
+            long[] first = samples.stream().mapToLong(Sample::firstRequestMillis).sorted().toArray();
+            long[] total = samples.stream().mapToLong(s -> s.readyMillis() + s.firstRequestMillis()).sorted().toArray();
+            System.out.printf("%-28s %14d %18d %20d%n", v.name(), median(ready), median(first), median(total));
+        }
+    }
+
+    private Sample measure(Variant variant, Path db) throws Exception {
+        int port;
+        try (ServerSocket s = new ServerSocket(0)) {
+            port = s.getLocalPort();
+        }
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.addAll(variant.jvmArgs());
+        cmd.addAll(Arrays.asList("-jar", JAR,
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:file:" + db + ";AUTO_SERVER=FALSE",
+                "--management.endpoint.health.probes.enabled=true"));
+
+        File log = APP_DIR.resolve("startup-bench-" + port + ".log").toFile();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(cmd)
+                .directory(APP_DIR.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + START_TIMEOUT.toNanos();
+            while (status(port, "/actuator/health/readiness") != 200) {
+                assertTrue(process.isAlive(), "application exited, see " + log);
+                assertTrue(System.nanoTime() < deadline, "not ready within " + START_TIMEOUT + ", see " + log);
+                Thread.sleep(10);
+            }
+            long ready = System.nanoTime();
+            assertEquals(404, status(port, "/api/v1/upload/S-bench/status"), "see " + log);
+            long firstResponse = System.nanoTime();
+            return new Sample(TimeUnit.NANOSECONDS.toMillis(ready - start), TimeUnit.NANOSECONDS.toMillis(firstResponse - ready));
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+            log.delete();
+        }
+    }
+
+    private int status(int port, String path) throws InterruptedException {
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30)).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1; // not listening yet
+        }
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,33 @@
+package com.intuit.fileUploadDemo.cache;
+
+import com.intuit.fileUploadDemo.cache.IdempotentResponseCache.StoredResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentResponseCacheTest {
+
+    @Test
+    void entry_lives_until_its_record_expires() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(100, new SimpleMeterRegistry());
+        StoredResponse live = new StoredResponse("h", "{}", Instant.now().plus(Duration.ofHours(1)));
+
+        cache.put("live", live);
+
+        assertEquals(live, cache.get("live"));
+    }
+
+    @Test
+    void entry_of_an_expired_record_is_never_served() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(100, new SimpleMeterRegistry());
+
+        // e.g. replayed from the table moments before the record's expires_at
+        cache.put("expired", new StoredResponse("h", "{}", Instant.now().minusSeconds(1)));
+
+        assertNull(cache.get("expired"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.intuit.fileUploadDemo.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresignedUrlCacheTest {
+
+    private final AtomicInteger signed = new AtomicInteger();
+
+    private String sign(PresignedUrlCache.Key k) {
+        return "https://s3/" + k.uploadId() + "/" + k.partNumber() + "?n=" + signed.incrementAndGet();
+    }
+
+    @Test
+    void retried_part_is_served_from_cache() {
+        PresignedUrlCache cache = new PresignedUrlCache(Duration.ofMinutes(10), Duration.ofMinutes(2), 100, new SimpleMeterRegistry());
+        PresignedUrlCache.Key key = new PresignedUrlCache.Key("k", "upl-1", 1, 0L);
+
+        String first = cache.get(key, this::sign);
+        String second = cache.get(key, this::sign);
+
+        assertEquals(first, second);
+        assertEquals(1, signed.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void invalidateUpload_drops_only_that_upload() {
+        PresignedUrlCache cache = new PresignedUrlCache(Duration.ofMinutes(10), Duration.ofMinutes(2), 100, new SimpleMeterRegistry());
+        cache.get(new PresignedUrlCache.Key("k", "upl-1", 1, 0L), this::sign);
+        cache.get(new PresignedUrlCache.Key("k2", "upl-2", 1, 0L), this::sign);
+
+        cache.invalidateUpload("upl-1");
+        assertEquals(1, cache.indexedUploads());
+        cache.get(new PresignedUrlCache.Key("k", "upl-1", 1, 0L), this::sign);
+        cache.get(new PresignedUrlCache.Key("k2", "upl-2", 1, 0L), this::sign);
+
+        assertEquals(3, signed.get());
+    }
+
+    @Test
+    void margin_not_below_ttl_disables_reuse() {
+        PresignedUrlCache cache = new PresignedUrlCache(Duration.ofMinutes(1), Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+        PresignedUrlCache.Key key = new PresignedUrlCache.Key("k", "upl-1", 1, 0L);
+
+        String first = cache.get(key, this::sign);
+        String second = cache.get(key, this::sign);
+
+        assertNotEquals(first, second);
+    }
+}
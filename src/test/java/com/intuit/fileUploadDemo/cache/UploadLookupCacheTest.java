@@ -0,0 +1,53 @@
+package com.intuit.fileUploadDemo.cache;
+
+import com.intuit.fileUploadDemo.cache.UploadLookupCache.FileLookup;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadLookupCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UploadLookupCache cache = new UploadLookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    private FileLookup load(String fileId, String sessionId) {
+        return cache.file(fileId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(new FileLookup(id, sessionId, "key", "upl", 1, FileStatus.IN_PROGRESS, UploadMode.MULTIPART));
+        }).orElseThrow();
+    }
+
+    @Test
+    void invalidating_a_session_drops_only_its_files() {
+        load("F1", "S1");
+        load("F2", "S1");
+        load("F3", "S2");
+
+        cache.invalidateSessions(List.of("S1"));
+        load("F1", "S1");
+        load("F2", "S1");
+        load("F3", "S2");
+
+        assertEquals(5, loads.get());
+        assertEquals(2, cache.indexedSessions());
+    }
+
+    @Test
+    void invalidating_a_file_removes_it_from_the_session_index() {
+        load("F1", "S1");
+
+        cache.invalidateFile("F1");
+
+        assertEquals(0, cache.indexedSessions());
+        load("F1", "S1");
+        assertEquals(2, loads.get());
+    }
+}
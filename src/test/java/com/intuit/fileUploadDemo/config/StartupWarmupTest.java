@@ -0,0 +1,26 @@
+package com.intuit.fileUploadDemo.config;
+
+import com.intuit.fileUploadDemo.cache.PresignedUrlCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=3",
+        "management.endpoint.health.probes.enabled=true"
+})
+class StartupWarmupTest {
+
+    @Autowired PresignedUrlCache urlCache;
+
+    @Test
+    void warmup_runs_at_startup_and_leaves_no_presigned_urls_behind() {
+        // Context startup ran the warm-up; its URLs were signed and then dropped from the cache
+        assertTrue(urlCache.stats().missCount() >= 3 * 10);
+        String url = urlCache.get(new PresignedUrlCache.Key("warmup/warmup.bin", StartupWarmup.WARMUP_UPLOAD_ID, 1, 0L), k -> "fresh");
+        assertEquals("fresh", url);
+    }
+}
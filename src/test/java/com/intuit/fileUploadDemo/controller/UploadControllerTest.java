@@ -1,44 +1,90 @@
 package com.intuit.fileUploadDemo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.fileUploadDemo.dto.request.AcknowledgePartRequest;
+import com.intuit.fileUploadDemo.dto.request.BatchPresignPartUrlRequest;
+import com.intuit.fileUploadDemo.dto.request.BulkRegisterFilesRequest;
 import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
 import com.intuit.fileUploadDemo.dto.request.PresignPartUrlRequest;
 import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
 import com.intuit.fileUploadDemo.dto.request.StartSessionRequest;
 import com.intuit.fileUploadDemo.dto.response.*;
 import com.intuit.fileUploadDemo.exception.GlobalExceptionHandler;
+import com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.exception.ResourceNotFoundException;
+import com.intuit.fileUploadDemo.metrics.ApiMetricsInterceptor;
+import com.intuit.fileUploadDemo.metrics.ServerTimingFilter;
+import com.intuit.fileUploadDemo.service.CompletionJobService;
+import com.intuit.fileUploadDemo.service.IdempotencyService;
 import com.intuit.fileUploadDemo.service.UploadService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = UploadController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, UploadControllerTest.Metrics.class})
 class UploadControllerTest {
 
+    // The web slice has no metrics auto-configuration; WebConfig's interceptor needs a registry
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private MockMvc mvc;
 
     @MockitoBean
     private UploadService uploadService;
 
+    @MockitoBean
+    private CompletionJobService completionJobService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private final ObjectMapper om = new ObjectMapper();
 
+    // Idempotency is covered in IdempotencyServiceImplTest; here it just runs the operation
     @BeforeEach
-    void setup() {}
+    void setup() {
+        Mockito.when(idempotencyService.execute(any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(4).get());
+        Mockito.when(idempotencyService.executeAsync(any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(4).get());
+    }
 
     @Test
     void startSession_ok() throws Exception {
@@ -74,23 +120,101 @@ class UploadControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void sessionHistory_ok() throws Exception {
+        Mockito.when(uploadService.getSessionHistory("u1", SessionStatus.COMPLETED, "c1", 2))
+                .thenReturn(new SessionHistoryResponse(List.of(new SessionHistoryResponse.SessionSummary(
+                        "S1", SessionStatus.COMPLETED, Instant.EPOCH, Instant.EPOCH, 3, 300)), "c2"));
+
+        mvc.perform(get("/api/v1/upload/users/{userId}/sessions", "u1")
+                        .param("status", "COMPLETED").param("cursor", "c1").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions[0].sessionId").value("S1"))
+                .andExpect(jsonPath("$.sessions[0].fileCount").value(3))
+                .andExpect(jsonPath("$.sessions[0].totalBytes").value(300))
+                .andExpect(jsonPath("$.nextCursor").value("c2"));
+    }
+
+    @Test
+    void sessionHistory_400_on_unknown_status() throws Exception {
+        mvc.perform(get("/api/v1/upload/users/{userId}/sessions", "u1").param("status", "DONE"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void registerFile_ok() throws Exception {
-        Mockito.when(uploadService.registerFile(eq("S123"), any(RegisterFileRequest.class)))
-                .thenReturn(new RegisterFileResponse("F1", "S123/F1/report.pdf", "upl-1"));
+        Mockito.when(uploadService.registerFileAsync(eq("S123"), any(RegisterFileRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(new RegisterFileResponse("F1", "S123/F1/report.pdf", "upl-1", 5L * 1024 * 1024, 1, UploadMode.MULTIPART, null)));
 
         RegisterFileRequest req = new RegisterFileRequest();
         req.setFileName("report.pdf");
         req.setFileSize(12345L);
         req.setChunkCount(3);
 
-        mvc.perform(post("/api/v1/upload/{sessionId}/files", "S123")
+        MvcResult async = mvc.perform(post("/api/v1/upload/{sessionId}/files", "S123")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(om.writeValueAsString(req)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.fileId").value("F1"))
                 .andExpect(jsonPath("$.s3Key").value("S123/F1/report.pdf"))
-                .andExpect(jsonPath("$.uploadId").value("upl-1"));
+                .andExpect(jsonPath("$.uploadId").value("upl-1"))
+                .andExpect(jsonPath("$.partSize").value(5L * 1024 * 1024))
+                .andExpect(jsonPath("$.partCount").value(1));
+    }
+
+    @Test
+    void registerFiles_bulk_ok_with_per_file_results() throws Exception {
+        Mockito.when(uploadService.registerFiles(eq("S123"), any(BulkRegisterFilesRequest.class)))
+                .thenReturn(new BulkRegisterFilesResponse("S123", 1, 1, List.of(
+                        new BulkRegisterFilesResponse.FileResult(0, "a.bin",
+                                new RegisterFileResponse("F1", "S123/F1/a.bin", "upl-1", 16L * 1024 * 1024, 7, UploadMode.MULTIPART, null), null),
+                        new BulkRegisterFilesResponse.FileResult(1, "b.bin", null, "Could not start upload: S3 down"))));
+
+        BulkRegisterFilesRequest req = new BulkRegisterFilesRequest(List.of(
+                new RegisterFileRequest("a.bin", 100L * 1024 * 1024, null),
+                new RegisterFileRequest("b.bin", 100L * 1024 * 1024, null)));
+
+        mvc.perform(post("/api/v1/upload/{sessionId}/files/bulk", "S123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registered").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.files[0].file.uploadId").value("upl-1"))
+                .andExpect(jsonPath("$.files[1].error").value("Could not start upload: S3 down"));
+    }
+
+    @Test
+    void registerFiles_bulk_badRequest_when_an_entry_is_invalid() throws Exception {
+        BulkRegisterFilesRequest req = new BulkRegisterFilesRequest(List.of(
+                new RegisterFileRequest("a.bin", 100L, null),
+                new RegisterFileRequest("", 100L, null)));
+
+        mvc.perform(post("/api/v1/upload/{sessionId}/files/bulk", "S123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void registerFile_passes_idempotency_key_scoped_to_session() throws Exception {
+        Mockito.when(uploadService.registerFileAsync(eq("S123"), any(RegisterFileRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(new RegisterFileResponse("F1", "S123/F1/report.pdf", "upl-1", 5L * 1024 * 1024, 1, UploadMode.MULTIPART, null)));
+
+        MvcResult async = mvc.perform(post("/api/v1/upload/{sessionId}/files", "S123")
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new RegisterFileRequest("report.pdf", 12345L, null))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async)).andExpect(status().isOk());
+        Mockito.verify(idempotencyService).executeAsync(eq("key-1"), eq("registerFile:S123"), any(RegisterFileRequest.class),
+                eq(RegisterFileResponse.class), any());
     }
 
     // 400: registerFile invalid chunkCount (<=0)
@@ -139,9 +263,44 @@ class UploadControllerTest {
                 .andExpect(jsonPath("$.url").exists());
     }
 
+    @Test
+    void presignParts_batch_ok() throws Exception {
+        Mockito.when(uploadService.presignPartUrls(eq("F1"), any(BatchPresignPartUrlRequest.class)))
+                .thenReturn(new BatchPresignPartUrlResponse("F1", List.of(
+                        new BatchPresignPartUrlResponse.PartUrl(1, "https://s3/p1"),
+                        new BatchPresignPartUrlResponse.PartUrl(2, "https://s3/p2"))));
+
+        BatchPresignPartUrlRequest req = new BatchPresignPartUrlRequest(null, 1, 2);
+
+        mvc.perform(post("/api/v1/upload/files/{fileId}/parts/urls","F1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls[1].partNumber").value(2))
+                .andExpect(jsonPath("$.urls[1].url").value("https://s3/p2"));
+    }
+
+    // 400: batch presign with a non-positive part number
+    @Test
+    void presignParts_badRequest_when_partNumber_invalid() throws Exception {
+        mvc.perform(post("/api/v1/upload/files/{fileId}/parts/urls","F1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"partNumbers\":[0,1]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void presignParts_badRequest_when_partNumber_null() throws Exception {
+        mvc.perform(post("/api/v1/upload/files/{fileId}/parts/urls","F1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"partNumbers\":[1,null]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void completeFile_ok() throws Exception {
-        Mockito.doNothing().when(uploadService).completeFile(eq("F1"), any(CompleteFileRequest.class));
+        Mockito.when(uploadService.completeFileAsync(eq("F1"), any(CompleteFileRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         CompleteFileRequest req = new CompleteFileRequest();
         req.setUploadId("upl-1");
@@ -150,12 +309,81 @@ class UploadControllerTest {
         p1.setETag("etag-1");
         req.setParts(List.of(p1));
 
-        mvc.perform(patch("/api/v1/upload/files/{fileId}/complete","F1")
+        MvcResult async = mvc.perform(patch("/api/v1/upload/files/{fileId}/complete","F1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(om.writeValueAsString(req)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
                 .andExpect(status().isNoContent());
     }
 
+    // 404 surfaces through the async path too (future completed exceptionally)
+    @Test
+    void completeFile_404_when_async_lookup_fails() throws Exception {
+        Mockito.when(uploadService.completeFileAsync(eq("NO"), any(CompleteFileRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new com.intuit.fileUploadDemo.exception.ResourceNotFoundException("File not found")));
+
+        CompleteFileRequest req = new CompleteFileRequest("upl-1", List.of(new CompleteFileRequest.PartETag(1, "etag-1")));
+
+        MvcResult async = mvc.perform(patch("/api/v1/upload/files/{fileId}/complete","NO")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void completeSingleUpload_ok() throws Exception {
+        Mockito.when(uploadService.completeSingleUploadAsync("F1")).thenReturn(CompletableFuture.completedFuture(null));
+
+        MvcResult async = mvc.perform(patch("/api/v1/upload/files/{fileId}/complete/single", "F1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void submitCompletionJob_returns_202_with_location() throws Exception {
+        Instant now = Instant.now();
+        Mockito.when(completionJobService.submit(eq("F1"), any(CompleteFileRequest.class)))
+                .thenReturn(new CompletionJobResponse("J1", "F1", CompletionJobStatus.QUEUED, 0, null, now, now));
+
+        CompleteFileRequest req = new CompleteFileRequest("upl-1", List.of(new CompleteFileRequest.PartETag(1, "etag-1")));
+
+        mvc.perform(post("/api/v1/upload/files/{fileId}/complete/jobs", "F1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/upload/jobs/J1"))
+                .andExpect(jsonPath("$.jobId").value("J1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void getCompletionJob_ok_and_404() throws Exception {
+        Instant now = Instant.now();
+        Mockito.when(completionJobService.getJob("J1"))
+                .thenReturn(new CompletionJobResponse("J1", "F1", CompletionJobStatus.FAILED, 1, "s3 down", now, now));
+        Mockito.when(completionJobService.getJob("NO"))
+                .thenThrow(new ResourceNotFoundException("Completion job not found: NO"));
+
+        mvc.perform(get("/api/v1/upload/jobs/{jobId}", "J1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.lastError").value("s3 down"));
+
+        mvc.perform(get("/api/v1/upload/jobs/{jobId}", "NO"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void pause_resume_complete_session_ok() throws Exception {
         Mockito.doNothing().when(uploadService).pauseSession("S123");
@@ -196,10 +424,52 @@ class UploadControllerTest {
 
         Mockito.when(uploadService.getFileParts("F1")).thenReturn(resp);
 
-        mvc.perform(get("/api/v1/upload/files/{fileId}/parts","F1"))
+        MvcResult async = mvc.perform(get("/api/v1/upload/files/{fileId}/parts","F1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.fileId").value("F1"))
                 .andExpect(jsonPath("$.uploadedParts[0].partNumber").value(1));
+
+        Mockito.verify(uploadService, Mockito.never()).reconcileFilePartsAsync(any());
+    }
+
+    @Test
+    void getFileParts_reconcile_goes_to_s3() throws Exception {
+        FilePartsResponse resp = new FilePartsResponse();
+        resp.setFileId("F1");
+        Mockito.when(uploadService.reconcileFilePartsAsync("F1")).thenReturn(CompletableFuture.completedFuture(resp));
+
+        MvcResult async = mvc.perform(get("/api/v1/upload/files/{fileId}/parts","F1").param("reconcile", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fileId").value("F1"));
+
+        Mockito.verify(uploadService, Mockito.never()).getFileParts(any());
+    }
+
+    @Test
+    void acknowledgePart_ok_and_400_without_etag() throws Exception {
+        Mockito.when(uploadService.acknowledgePart(eq("F1"), eq(2), any(AcknowledgePartRequest.class)))
+                .thenReturn(new PartAckResponse("F1", 2, true, 1, 3));
+
+        mvc.perform(put("/api/v1/upload/files/{fileId}/parts/{partNumber}", "F1", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"eTag\":\"etag-2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.newlyUploaded").value(true))
+                .andExpect(jsonPath("$.uploadedChunks").value(1))
+                .andExpect(jsonPath("$.totalChunks").value(3));
+
+        mvc.perform(put("/api/v1/upload/files/{fileId}/parts/{partNumber}", "F1", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
     }
 
     // 404: file parts for unknown file
@@ -212,4 +482,66 @@ class UploadControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    // Counted once per request, on the async dispatch that wrote the error, tagged with the handled exception
+    @Test
+    void api_requests_counted_per_operation_with_outcome_and_exception() throws Exception {
+        Mockito.when(uploadService.completeFileAsync(eq("NO"), any(CompleteFileRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException("File not found")));
+        Mockito.when(uploadService.presignPartUrl(eq("F1"), any(PresignPartUrlRequest.class)))
+                .thenReturn(new PresignPartUrlResponse("https://s3/presigned"));
+        double completeNotFoundBefore = apiRequests("completeFile", "CLIENT_ERROR", "ResourceNotFoundException");
+        double presignOkBefore = apiRequests("presignPartUrl", "SUCCESS", "none");
+
+        CompleteFileRequest req = new CompleteFileRequest("upl-1", List.of(new CompleteFileRequest.PartETag(1, "etag-1")));
+        MvcResult async = mvc.perform(patch("/api/v1/upload/files/{fileId}/complete", "NO")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isNotFound());
+
+        mvc.perform(post("/api/v1/upload/files/{fileId}/parts/url", "F1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new PresignPartUrlRequest(1))))
+                .andExpect(status().isOk());
+
+        org.junit.jupiter.api.Assertions.assertEquals(completeNotFoundBefore + 1,
+                apiRequests("completeFile", "CLIENT_ERROR", "ResourceNotFoundException"));
+        org.junit.jupiter.api.Assertions.assertEquals(presignOkBefore + 1,
+                apiRequests("presignPartUrl", "SUCCESS", "none"));
+    }
+
+    private double apiRequests(String operation, String outcome, String exception) {
+        Counter counter = meterRegistry.find(ApiMetricsInterceptor.METRIC)
+                .tags("operation", operation, "outcome", outcome, "exception", exception)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void server_timing_header_breaks_down_sync_and_async_requests() throws Exception {
+        Mockito.when(uploadService.presignPartUrl(eq("F1"), any(PresignPartUrlRequest.class)))
+                .thenReturn(new PresignPartUrlResponse("https://s3/presigned"));
+        Mockito.when(uploadService.completeFileAsync(eq("F1"), any(CompleteFileRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        mvc.perform(post("/api/v1/upload/files/{fileId}/parts/url", "F1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new PresignPartUrlRequest(1))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.HEADER, matchesPattern(
+                        "validation;dur=[\\d.]+;desc=\"1 call\", serialization;dur=[\\d.]+;desc=\"2 calls\", total;dur=[\\d.]+")))
+                .andExpect(jsonPath("$.url").value("https://s3/presigned"));
+
+        CompleteFileRequest req = new CompleteFileRequest("upl-1", List.of(new CompleteFileRequest.PartETag(1, "etag-1")));
+        MvcResult async = mvc.perform(patch("/api/v1/upload/files/{fileId}/complete", "F1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("total;dur=")));
+    }
 }
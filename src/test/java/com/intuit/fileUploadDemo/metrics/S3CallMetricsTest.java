@@ -0,0 +1,78 @@
+package com.intuit.fileUploadDemo.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3CallMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final S3CallMetrics metrics = new S3CallMetrics(registry);
+
+    @Test
+    void sync_calls_are_timed_by_operation_and_outcome() {
+        assertEquals("upload-1", metrics.record("start", () -> "upload-1"));
+        metrics.record("start", () -> "upload-2");
+        assertThrows(IllegalStateException.class, () -> metrics.run("complete", () -> {
+            throw new IllegalStateException("s3 down");
+        }));
+
+        assertEquals(2, timer("sync", "start", "success", "none").count());
+        assertEquals(1, timer("sync", "complete", "error", "IllegalStateException").count());
+    }
+
+    @Test
+    void async_calls_are_timed_when_the_future_completes_with_the_unwrapped_cause() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> timed = metrics.recordAsync("abort", () -> pending);
+        assertNull(registry.find(S3CallMetrics.METRIC).timer());
+
+        pending.completeExceptionally(new CompletionException(NoSuchUploadException.builder().message("gone").build()));
+
+        CompletionException thrown = assertThrows(CompletionException.class, timed::join);
+        assertInstanceOf(NoSuchUploadException.class, thrown.getCause());
+        assertEquals(1, timer("async", "abort", "error", "NoSuchUploadException").count());
+    }
+
+    // The continuation runs on the thread that completes the S3 future, which has no request of its own
+    @Test
+    void async_continuations_record_into_the_calling_requests_timing() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        RequestTiming timing = new RequestTiming();
+
+        CompletableFuture<String> continuation;
+        RequestTiming previous = RequestTiming.bind(timing);
+        try {
+            continuation = metrics.recordAsync("start", () -> pending)
+                    .thenApply(uploadId -> {
+                        RequestTiming.record(RequestTiming.Category.DB, 2_000_000);
+                        return uploadId;
+                    });
+        } finally {
+            RequestTiming.bind(previous);
+        }
+        try (var sdkThread = Executors.newSingleThreadExecutor()) {
+            sdkThread.submit(() -> pending.complete("upload-1")).get();
+        }
+
+        assertEquals("upload-1", continuation.join());
+        String header = timing.toServerTiming();
+        assertTrue(header.startsWith("db;dur=2.0;desc=\"1 call\", s3;dur="), header);
+        assertNull(RequestTiming.current());
+    }
+
+    private Timer timer(String client, String operation, String outcome, String exception) {
+        Timer timer = registry.find(S3CallMetrics.METRIC)
+                .tags("client", client, "operation", operation, "outcome", outcome, "exception", exception)
+                .timer();
+        assertNotNull(timer, operation + " " + outcome);
+        return timer;
+    }
+}
@@ -0,0 +1,75 @@
+package com.intuit.fileUploadDemo.service;
+
+import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartSizePlannerTest {
+
+    private static final long MiB = 1024 * 1024;
+    private static final long GiB = 1024 * MiB;
+
+    private final PartSizePlanner planner = new PartSizePlanner(
+            DataSize.ofMegabytes(16), DataSize.ofMegabytes(5), 10_000, Duration.ofSeconds(10));
+
+    private static RegisterFileRequest req(long size, Integer chunkCount, Long bandwidth, Integer concurrency) {
+        return new RegisterFileRequest("f.bin", size, chunkCount, bandwidth, concurrency);
+    }
+
+    @Test
+    void no_hints_uses_target_size() {
+        PartSizePlanner.PartPlan plan = planner.plan(req(1 * GiB, null, null, null));
+
+        assertEquals(16 * MiB, plan.partSize());
+        assertEquals(64, plan.partCount());
+    }
+
+    @Test
+    void small_file_is_one_part() {
+        PartSizePlanner.PartPlan plan = planner.plan(req(1000, null, null, null));
+
+        assertEquals(1, plan.partCount());
+    }
+
+    @Test
+    void client_chunk_count_is_raised_to_s3_minimum_part() {
+        PartSizePlanner.PartPlan plan = planner.plan(req(100 * MiB, 1000, null, null));
+
+        assertEquals(5 * MiB, plan.partSize());
+        assertEquals(20, plan.partCount());
+    }
+
+    @Test
+    void huge_file_never_exceeds_10000_parts() {
+        PartSizePlanner.PartPlan plan = planner.plan(req(1024 * GiB, null, null, null));
+
+        assertTrue(plan.partCount() <= 10_000);
+        assertTrue(plan.partSize() * plan.partCount() >= 1024 * GiB);
+    }
+
+    @Test
+    void bandwidth_hint_sizes_parts_for_target_duration_per_connection() {
+        // 40 MB/s over 4 connections -> 10 MB/s each -> ~100 MB parts for 10 s
+        PartSizePlanner.PartPlan plan = planner.plan(req(10 * GiB, null, 40_000_000L, 4));
+
+        assertEquals(96 * MiB, plan.partSize()); // 100,000,000 B rounded up to a whole MiB
+    }
+
+    @Test
+    void concurrency_hint_keeps_every_connection_busy() {
+        PartSizePlanner.PartPlan plan = planner.plan(req(64 * MiB, null, null, 8));
+
+        assertEquals(8, plan.partCount());
+        assertEquals(8 * MiB, plan.partSize());
+    }
+
+    @Test
+    void rejects_file_larger_than_s3_object_limit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.plan(req(PartSizePlanner.MAX_OBJECT_SIZE + 1, null, null, null)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileChunkStateRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.upload.chunk-store=bitmap")
+@Transactional
+class BitmapChunkStateStoreTest {
+
+    @Autowired ChunkStateStore store;
+    @Autowired UploadSessionRepository sessionRepo;
+    @Autowired UploadFileRepository fileRepo;
+    @Autowired UploadChunkRepository chunkRepo;
+    @Autowired UploadFileChunkStateRepository stateRepo;
+
+    private UploadFile newFile(int chunks) {
+        UploadSession s = sessionRepo.save(UploadSession.builder().id("S" + UUID.randomUUID().toString().substring(0, 8)).userId("u1").build());
+        return fileRepo.saveAndFlush(UploadFile.builder()
+                .id("F" + UUID.randomUUID().toString().substring(0, 8))
+                .session(s)
+                .fileName("a.bin")
+                .fileSize(chunks * 10L)
+                .totalChunks(chunks)
+                .status(FileStatus.IN_PROGRESS)
+                .build());
+    }
+
+    @Test
+    void bitmap_store_is_selected() {
+        assertInstanceOf(BitmapChunkStateStore.class, store);
+    }
+
+    @Test
+    void initialize_then_complete_uses_one_row_and_no_chunk_rows() {
+        UploadFile f = newFile(3);
+        store.initialize(f);
+
+        assertEquals(List.of(0, 1, 2), store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+
+        store.markAllUploaded(f, Map.of(1, "e1", 2, "e2", 3, "e3"));
+
+        assertEquals(List.of(), store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+        assertTrue(stateRepo.existsById(f.getId()));
+        assertTrue(chunkRepo.findByFileIdOrderByChunkIndexAsc(f.getId()).isEmpty());
+    }
+
+    @Test
+    void markAllUploaded_requires_every_etag() {
+        UploadFile f = newFile(2);
+        store.initialize(f);
+
+        assertThrows(IllegalStateException.class, () -> store.markAllUploaded(f, Map.of(1, "e1")));
+    }
+
+    @Test
+    void markUploaded_sets_one_bit_and_reports_first_ack() {
+        UploadFile f = newFile(3);
+        store.initialize(f);
+
+        assertTrue(store.markUploaded(f, 3, "d41d8cd98f00b204e9800998ecf8427e"));
+        assertFalse(store.markUploaded(f, 3, "d41d8cd98f00b204e9800998ecf8427e"));
+
+        assertEquals(Map.of(3, "d41d8cd98f00b204e9800998ecf8427e"), store.uploadedParts(f));
+        assertEquals(List.of(0, 1), store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+    }
+
+    @Test
+    void files_with_legacy_rows_are_read_from_rows_and_migrated_on_first_write() {
+        UploadFile f = newFile(4);
+        chunkRepo.insertPendingChunks(f.getId(), 4);
+
+        assertEquals(List.of(0, 1, 2, 3), store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+        assertEquals(Map.of(), store.uploadedParts(f));
+        assertFalse(stateRepo.existsById(f.getId()));
+
+        assertTrue(store.markUploaded(f, 2, "e2"));
+
+        assertTrue(stateRepo.existsById(f.getId()));
+        assertTrue(chunkRepo.findByFileIdOrderByChunkIndexAsc(f.getId()).isEmpty());
+        assertEquals(List.of(0, 2, 3), store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+        assertEquals(Map.of(2, "e2"), store.uploadedParts(f));
+    }
+
+    @Test
+    void migration_batches_make_progress_past_files_that_are_already_converted() {
+        UploadFile converted = newFile(2);
+        store.initialize(converted);
+        chunkRepo.insertPendingChunks(converted.getId(), 2); // stale rows next to the bitmap row
+        UploadFile legacy = newFile(2);
+        chunkRepo.insertPendingChunks(legacy.getId(), 2);
+        BitmapChunkStateStore bitmap = (BitmapChunkStateStore) store;
+
+        String after = "";
+        int batches = 0;
+        while (after != null) {
+            assertTrue(++batches < 100, "migration never finished");
+            after = bitmap.migrateRowsBatch(after, 1).lastFileId();
+        }
+
+        assertTrue(chunkRepo.findByFileIdOrderByChunkIndexAsc(converted.getId()).isEmpty());
+        assertTrue(chunkRepo.findByFileIdOrderByChunkIndexAsc(legacy.getId()).isEmpty());
+        assertTrue(stateRepo.existsById(legacy.getId()));
+    }
+}
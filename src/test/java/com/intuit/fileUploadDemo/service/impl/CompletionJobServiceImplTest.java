@@ -0,0 +1,181 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
+import com.intuit.fileUploadDemo.dto.response.CompletionJobResponse;
+import com.intuit.fileUploadDemo.entities.CompletionJob;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.CompletionJobStatus;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.repository.CompletionJobRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.CompletionJobService;
+import com.intuit.fileUploadDemo.service.UploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class CompletionJobServiceImplTest {
+
+    @Autowired CompletionJobService jobs;
+    @Autowired CompletionJobServiceImpl jobsImpl;
+    @Autowired CompletionJobRepository jobRepo;
+    @Autowired UploadSessionRepository sessionRepo;
+    @Autowired UploadFileRepository fileRepo;
+
+    @MockitoBean UploadService uploadService;
+
+    private static CompleteFileRequest request() {
+        return new CompleteFileRequest("upl-1", List.of(new CompleteFileRequest.PartETag(1, "e1")));
+    }
+
+    private CompletionJobResponse awaitStatus(String jobId, CompletionJobStatus expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        CompletionJobResponse job = jobs.getJob(jobId);
+        while (job.getStatus() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = jobs.getJob(jobId);
+        }
+        assertEquals(expected, job.getStatus());
+        return job;
+    }
+
+    @Test
+    void submitted_job_runs_to_success() throws Exception {
+        when(uploadService.completeFileAsync(eq("F-ok"), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletionJobResponse submitted = jobs.submit("F-ok", request());
+
+        CompletionJobResponse done = awaitStatus(submitted.getJobId(), CompletionJobStatus.SUCCEEDED);
+        assertEquals(1, done.getAttempts());
+        verify(uploadService).checkCompletable(eq("F-ok"), any());
+    }
+
+    @Test
+    void failed_job_keeps_error_and_can_be_retried() throws Exception {
+        when(uploadService.completeFileAsync(eq("F-retry"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("s3 down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        String jobId = jobs.submit("F-retry", request()).getJobId();
+        CompletionJobResponse failed = awaitStatus(jobId, CompletionJobStatus.FAILED);
+        assertEquals("s3 down", failed.getLastError());
+
+        jobs.retry(jobId);
+
+        CompletionJobResponse done = awaitStatus(jobId, CompletionJobStatus.SUCCEEDED);
+        assertEquals(2, done.getAttempts());
+        assertThrows(IllegalStateException.class, () -> jobs.retry(jobId));
+    }
+
+    @Test
+    void second_submit_for_active_file_returns_same_job() throws Exception {
+        CompletableFuture<Void> s3 = new CompletableFuture<>();
+        when(uploadService.completeFileAsync(eq("F-dup"), any())).thenReturn(s3);
+
+        String first = jobs.submit("F-dup", request()).getJobId();
+        String second = jobs.submit("F-dup", request()).getJobId();
+
+        assertEquals(first, second);
+        s3.complete(null);
+        awaitStatus(first, CompletionJobStatus.SUCCEEDED);
+        verify(uploadService, times(1)).completeFileAsync(eq("F-dup"), any());
+    }
+
+    @Test
+    void concurrent_submits_for_one_file_create_one_job() throws Exception {
+        UploadSession session = sessionRepo.save(
+                UploadFixtures.session("race-user", SessionStatus.IN_PROGRESS, Instant.now()).build());
+        String fileId = fileRepo.save(
+                UploadFixtures.file(session, UploadMode.MULTIPART, FileStatus.IN_PROGRESS, 1, Instant.now()).build()).getId();
+        CompletableFuture<Void> s3 = new CompletableFuture<>();
+        when(uploadService.completeFileAsync(eq(fileId), any())).thenReturn(s3);
+
+        int submitters = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(submitters);
+        Set<String> jobIds = ConcurrentHashMap.newKeySet();
+        try {
+            List<Future<?>> submits = new ArrayList<>();
+            for (int i = 0; i < submitters; i++) {
+                submits.add(pool.submit(() -> {
+                    start.await();
+                    return jobIds.add(jobs.submit(fileId, request()).getJobId());
+                }));
+            }
+            start.countDown();
+            for (Future<?> submit : submits) {
+                submit.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, jobIds.size());
+        s3.complete(null);
+        awaitStatus(jobIds.iterator().next(), CompletionJobStatus.SUCCEEDED);
+        verify(uploadService, times(1)).completeFileAsync(eq(fileId), any());
+    }
+
+    @Test
+    void interrupted_job_is_requeued_on_startup() throws Exception {
+        when(uploadService.completeFileAsync(eq("F-crash"), any())).thenReturn(CompletableFuture.completedFuture(null));
+        jobRepo.save(CompletionJob.builder()
+                .id("J-crash")
+                .fileId("F-crash")
+                .status(CompletionJobStatus.RUNNING)
+                .attempts(1)
+                .owner("dead-node")
+                .heartbeatAt(Instant.now().minus(Duration.ofMinutes(10)))
+                .requestJson("{\"uploadId\":\"upl-1\",\"parts\":[{\"partNumber\":1,\"eTag\":\"e1\"}]}")
+                .build());
+
+        jobsImpl.recover();
+
+        CompletionJobResponse done = awaitStatus("J-crash", CompletionJobStatus.SUCCEEDED);
+        assertEquals(2, done.getAttempts());
+    }
+
+    @Test
+    void job_running_on_a_live_instance_is_not_requeued() {
+        jobRepo.save(CompletionJob.builder()
+                .id("J-live")
+                .fileId("F-live")
+                .status(CompletionJobStatus.RUNNING)
+                .attempts(1)
+                .owner("other-node")
+                .heartbeatAt(Instant.now())
+                .requestJson("{\"uploadId\":\"upl-1\",\"parts\":[{\"partNumber\":1,\"eTag\":\"e1\"}]}")
+                .build());
+
+        jobsImpl.recover();
+
+        CompletionJob job = jobRepo.findById("J-live").orElseThrow();
+        assertEquals(CompletionJobStatus.RUNNING, job.getStatus());
+        assertEquals("other-node", job.getOwner());
+        verify(uploadService, never()).completeFileAsync(eq("F-live"), any());
+        jobRepo.deleteById("J-live");
+    }
+}
@@ -0,0 +1,134 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.fileUploadDemo.cache.IdempotentResponseCache;
+import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
+import com.intuit.fileUploadDemo.dto.response.RegisterFileResponse;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class IdempotencyServiceImplTest {
+
+    @Autowired IdempotencyServiceImpl idempotency;
+    @Autowired IdempotencyRecordRepository repository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired MeterRegistry meterRegistry;
+
+    private static RegisterFileRequest request(String name) {
+        return new RegisterFileRequest(name, 100L * 1024 * 1024, null);
+    }
+
+    private static RegisterFileResponse response(String fileId) {
+        return new RegisterFileResponse(fileId, "S1/" + fileId + "/a.bin", "upl-" + fileId, 16L * 1024 * 1024, 7,
+                UploadMode.MULTIPART, null);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("upload.idempotency.requests", "outcome", outcome).count();
+    }
+
+    @Test
+    void retry_with_same_key_replays_response_without_running_again() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        double hitsBefore = count("cache_hit");
+
+        RegisterFileResponse first = idempotency.execute(key, "registerFile:S1", request("a.bin"), RegisterFileResponse.class,
+                () -> response("F" + runs.incrementAndGet()));
+        RegisterFileResponse retried = idempotency.execute(key, "registerFile:S1", request("a.bin"), RegisterFileResponse.class,
+                () -> response("F" + runs.incrementAndGet()));
+
+        assertEquals(1, runs.get());
+        assertEquals(first.getFileId(), retried.getFileId());
+        assertEquals(first.getUploadId(), retried.getUploadId());
+        assertEquals(UploadMode.MULTIPART, retried.getUploadMode());
+        assertEquals(hitsBefore + 1, count("cache_hit"));
+    }
+
+    @Test
+    void response_is_replayed_from_the_table_after_cache_loss() {
+        String key = UUID.randomUUID().toString();
+        idempotency.execute(key, "registerFile:S1", request("a.bin"), RegisterFileResponse.class, () -> response("F1"));
+
+        // Another instance (or this one after eviction) only has the table
+        IdempotencyServiceImpl coldInstance = new IdempotencyServiceImpl(repository,
+                new IdempotentResponseCache(100, new SimpleMeterRegistry()),
+                transactionTemplate, objectMapper, meterRegistry, Duration.ofHours(24), Duration.ofMinutes(15), Duration.ofMinutes(5));
+        double storeHitsBefore = count("store_hit");
+
+        RegisterFileResponse replayed = coldInstance.execute(key, "registerFile:S1", request("a.bin"), RegisterFileResponse.class,
+                () -> fail("must not run again"));
+
+        assertEquals("F1", replayed.getFileId());
+        assertEquals(storeHitsBefore + 1, count("store_hit"));
+    }
+
+    @Test
+    void in_progress_timeout_must_outlast_async_requests() {
+        assertThrows(IllegalStateException.class, () -> new IdempotencyServiceImpl(repository,
+                new IdempotentResponseCache(100, new SimpleMeterRegistry()),
+                transactionTemplate, objectMapper, meterRegistry, Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void same_key_with_different_request_is_rejected() {
+        String key = UUID.randomUUID().toString();
+        idempotency.execute(key, "registerFile:S1", request("a.bin"), RegisterFileResponse.class, () -> response("F1"));
+
+        assertThrows(IllegalArgumentException.class, () -> idempotency.execute(key, "registerFile:S1", request("b.bin"),
+                RegisterFileResponse.class, () -> response("F2")));
+        // Keys are scoped: the same key on another session is a new request
+        assertEquals("F3", idempotency.execute(key, "registerFile:S2", request("b.bin"), RegisterFileResponse.class,
+                () -> response("F3")).getFileId());
+    }
+
+    @Test
+    void failed_operation_releases_the_key() {
+        String key = UUID.randomUUID().toString();
+
+        assertThrows(IllegalStateException.class, () -> idempotency.execute(key, "startSession", "req", String.class,
+                () -> { throw new IllegalStateException("boom"); }));
+
+        assertEquals("ok", idempotency.execute(key, "startSession", "req", String.class, () -> "ok"));
+    }
+
+    @Test
+    void async_result_is_stored_and_a_concurrent_duplicate_gets_409() {
+        String key = UUID.randomUUID().toString();
+        CompletableFuture<RegisterFileResponse> pending = new CompletableFuture<>();
+
+        CompletableFuture<RegisterFileResponse> first = idempotency.executeAsync(key, "registerFile:S1", request("a.bin"),
+                RegisterFileResponse.class, () -> pending);
+        assertThrows(IllegalStateException.class, () -> idempotency.executeAsync(key, "registerFile:S1", request("a.bin"),
+                RegisterFileResponse.class, () -> CompletableFuture.completedFuture(response("F2"))));
+
+        pending.complete(response("F1"));
+        assertEquals("F1", first.join().getFileId());
+        assertEquals("F1", idempotency.executeAsync(key, "registerFile:S1", request("a.bin"), RegisterFileResponse.class,
+                () -> CompletableFuture.failedFuture(new CompletionException(new IllegalStateException("ran twice")))).join().getFileId());
+    }
+
+    @Test
+    void null_key_always_runs() {
+        AtomicInteger runs = new AtomicInteger();
+        idempotency.execute(null, "startSession", "req", Integer.class, runs::incrementAndGet);
+        idempotency.execute(null, "startSession", "req", Integer.class, runs::incrementAndGet);
+        assertEquals(2, runs.get());
+    }
+}
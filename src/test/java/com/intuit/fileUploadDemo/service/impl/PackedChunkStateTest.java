@@ -0,0 +1,51 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.entities.UploadFileChunkState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedChunkStateTest {
+
+    @Test
+    void roundtrip_keeps_bits_and_etags() {
+        PackedChunkState state = PackedChunkState.empty(5);
+        assertTrue(state.markUploaded(1, "\"0123456789abcdef0123456789abcdef\""));
+        assertTrue(state.markUploaded(3, "not-an-md5"));
+        assertFalse(state.markUploaded(1, "0123456789abcdef0123456789abcdef"));
+
+        UploadFileChunkState row = new UploadFileChunkState();
+        state.encodeInto(row);
+        PackedChunkState decoded = PackedChunkState.decode(row);
+
+        assertEquals(2, decoded.uploadedCount());
+        assertEquals(List.of(0, 2, 4), decoded.pendingIndexes());
+        assertEquals("0123456789abcdef0123456789abcdef", decoded.etag(1));
+        assertEquals("not-an-md5", decoded.etag(3));
+        assertNull(decoded.etag(0));
+    }
+
+    @Test
+    void fully_uploaded_10k_part_file_fits_in_about_160kb() {
+        PackedChunkState state = PackedChunkState.empty(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            state.markUploaded(i, String.format("%032x", i));
+        }
+
+        UploadFileChunkState row = new UploadFileChunkState();
+        state.encodeInto(row);
+
+        assertEquals(1_250, row.getUploadedBits().length);
+        assertEquals(160_000, row.getEtags().length);
+        assertNull(row.getEtagOverflow());
+        assertTrue(PackedChunkState.decode(row).pendingIndexes().isEmpty());
+    }
+
+    @Test
+    void rejects_index_out_of_range() {
+        PackedChunkState state = PackedChunkState.empty(2);
+        assertThrows(IllegalArgumentException.class, () -> state.markUploaded(2, "e"));
+    }
+}
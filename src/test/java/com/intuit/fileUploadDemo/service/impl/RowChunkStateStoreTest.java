@@ -0,0 +1,131 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.dto.request.AcknowledgePartRequest;
+import com.intuit.fileUploadDemo.entities.UploadChunk;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.ChunkStatus;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import com.intuit.fileUploadDemo.service.UploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class RowChunkStateStoreTest {
+
+    @Autowired ChunkStateStore store;
+    @Autowired UploadService uploadService;
+    @Autowired UploadSessionRepository sessionRepo;
+    @Autowired UploadFileRepository fileRepo;
+    @Autowired UploadChunkRepository chunkRepo;
+
+    private UploadFile newFile(int chunks) {
+        UploadSession s = sessionRepo.save(UploadSession.builder().id("S" + UUID.randomUUID().toString().substring(0, 8)).userId("u1").build());
+        return fileRepo.saveAndFlush(UploadFile.builder()
+                .id("F" + UUID.randomUUID().toString().substring(0, 8))
+                .session(s)
+                .fileName("a.bin")
+                .fileSize(chunks * 10L)
+                .totalChunks(chunks)
+                .status(FileStatus.IN_PROGRESS)
+                .build());
+    }
+
+    @Test
+    void row_store_is_the_default() {
+        assertInstanceOf(RowChunkStateStore.class, store);
+    }
+
+    @Test
+    void markAllUploaded_updates_rows_in_place() {
+        UploadFile f = newFile(3);
+        store.initialize(f);
+
+        assertEquals(List.of(0, 1, 2), store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+
+        store.markAllUploaded(f, Map.of(1, "e1", 2, "e2", 3, "e3"));
+
+        assertNull(store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+        List<UploadChunk> chunks = chunkRepo.findByFileIdOrderByChunkIndexAsc(f.getId());
+        assertEquals(List.of("e1", "e2", "e3"), chunks.stream().map(UploadChunk::getEtag).toList());
+        assertTrue(chunks.stream().allMatch(c -> c.getStatus() == ChunkStatus.UPLOADED && c.getUploadedAt() != null));
+    }
+
+    @Test
+    void bulk_insert_writes_file_rows_and_chunks_for_every_file() {
+        UploadSession s = sessionRepo.saveAndFlush(UploadSession.builder().id("S" + UUID.randomUUID().toString().substring(0, 8)).userId("u1").build());
+        List<UploadFile> files = List.of(
+                UploadFile.builder().id("FA" + UUID.randomUUID().toString().substring(0, 8)).session(s)
+                        .fileName("a.bin").fileSize(30).totalChunks(3).partSize(10L).uploadId("u-a").status(FileStatus.IN_PROGRESS).build(),
+                UploadFile.builder().id("FB" + UUID.randomUUID().toString().substring(0, 8)).session(s)
+                        .fileName("b.bin").fileSize(20).totalChunks(2).partSize(10L).uploadId("u-b").status(FileStatus.IN_PROGRESS).build());
+
+        fileRepo.insertAll(files);
+        store.initializeAll(files);
+
+        assertEquals(List.of("a.bin", "b.bin"), fileRepo.findBySessionIdOrderByCreatedAtAsc(s.getId()).stream()
+                .map(UploadFile::getFileName).sorted().toList());
+        Map<String, List<Integer>> pending = store.pendingChunkIndexesBySession(s.getId());
+        assertEquals(List.of(0, 1, 2), pending.get(files.get(0).getId()));
+        assertEquals(List.of(0, 1), pending.get(files.get(1).getId()));
+    }
+
+    @Test
+    void markAllUploaded_requires_every_etag() {
+        UploadFile f = newFile(2);
+        store.initialize(f);
+
+        assertThrows(IllegalStateException.class, () -> store.markAllUploaded(f, Map.of(1, "e1")));
+    }
+
+    @Test
+    void markUploaded_is_true_only_for_first_ack() {
+        UploadFile f = newFile(3);
+        store.initialize(f);
+
+        assertTrue(store.markUploaded(f, 2, "e2"));
+        assertFalse(store.markUploaded(f, 2, "e2-retry"));
+
+        assertEquals(Map.of(2, "e2-retry"), store.uploadedParts(f));
+        assertEquals(List.of(0, 2), store.pendingChunkIndexesBySession(f.getSession().getId()).get(f.getId()));
+    }
+
+    // Committed data and real threads: every part acked twice, concurrently, still counts once
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrent_acks_keep_progress_counter_exact() throws Exception {
+        UploadFile f = newFile(10);
+        store.initialize(f);
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> acks = new ArrayList<>();
+            for (int round = 0; round < 2; round++) {
+                for (int part = 1; part <= 10; part++) {
+                    int p = part;
+                    acks.add(executor.submit(() -> uploadService.acknowledgePart(f.getId(), p, new AcknowledgePartRequest("e" + p))));
+                }
+            }
+            for (Future<?> a : acks) a.get();
+        }
+
+        assertEquals(10, fileRepo.findUploadedChunksById(f.getId()));
+        assertEquals(10, store.uploadedParts(f).size());
+    }
+}
@@ -0,0 +1,53 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3CallBulkheadTest {
+
+    @Test
+    void saturated_bulkhead_rejects_with_service_busy() throws Exception {
+        S3CallBulkhead bulkhead = new S3CallBulkhead(1, Duration.ofMillis(50));
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> bulkhead.run(() -> {
+                inCall.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ServiceBusyException.class, () -> bulkhead.call(() -> "never"));
+
+            release.countDown();
+        }
+        assertEquals(1, bulkhead.availablePermits());
+    }
+
+    @Test
+    void permit_is_returned_when_s3_call_fails() {
+        S3CallBulkhead bulkhead = new S3CallBulkhead(2, Duration.ofMillis(50));
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.run(() -> {
+            throw new IllegalStateException("s3 down");
+        }));
+
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.dto.response.FilePartsResponse;
+import com.intuit.fileUploadDemo.dto.response.SessionStatusResponse;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.exception.ResourceNotFoundException;
+import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import com.intuit.fileUploadDemo.service.UploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SessionArchiveTest {
+
+    private static final Instant MONTH_AGO = Instant.now().minus(Duration.ofDays(30));
+
+    @Autowired SessionArchive archive;
+    @Autowired UploadService uploadService;
+    @Autowired UploadSessionRepository sessionRepo;
+    @Autowired UploadFileRepository fileRepo;
+    @Autowired UploadChunkRepository chunkRepo;
+    @Autowired ChunkStateStore chunkStore;
+    @Autowired TransactionTemplate tx;
+
+    private UploadSession session(SessionStatus status, Instant updatedAt) {
+        return sessionRepo.save(UploadFixtures.session("archive", status, updatedAt).build());
+    }
+
+    private UploadFile file(UploadSession s, UploadMode mode, FileStatus status, int chunks, Instant updatedAt) {
+        return tx.execute(st -> {
+            UploadFile f = fileRepo.saveAndFlush(UploadFixtures.file(s, mode, status, chunks, updatedAt).build());
+            if (mode == UploadMode.MULTIPART) {
+                chunkStore.initialize(f);
+            }
+            return f;
+        });
+    }
+
+    @Test
+    void finished_sessions_move_to_the_archive_and_stay_readable() {
+        UploadSession completed = session(SessionStatus.COMPLETED, MONTH_AGO);
+        UploadFile uploaded = file(completed, UploadMode.MULTIPART, FileStatus.UPLOADED, 3, MONTH_AGO);
+        tx.executeWithoutResult(st -> chunkStore.markAllUploaded(uploaded, Map.of(1, "e1", 2, "e2", 3, "e3")));
+        file(completed, UploadMode.SINGLE_PUT, FileStatus.UPLOADED, 0, MONTH_AGO);
+
+        UploadSession cancelled = session(SessionStatus.CANCELLED, MONTH_AGO);
+        UploadFile failed = file(cancelled, UploadMode.MULTIPART, FileStatus.FAILED, 2, MONTH_AGO);
+        tx.executeWithoutResult(st -> chunkStore.markUploaded(failed, 1, "e1"));
+
+        assertTrue(archive.archive().orElseThrow() >= 2);
+
+        // Gone from the hot tables, chunk rows included
+        assertTrue(sessionRepo.findById(completed.getId()).isEmpty());
+        assertTrue(fileRepo.findById(uploaded.getId()).isEmpty());
+        assertTrue(chunkRepo.findByFileIdOrderByChunkIndexAsc(uploaded.getId()).isEmpty());
+        assertTrue(chunkRepo.findByFileIdOrderByChunkIndexAsc(failed.getId()).isEmpty());
+
+        SessionStatusResponse completedStatus = uploadService.getSessionStatus(completed.getId());
+        assertEquals(SessionStatus.COMPLETED, completedStatus.getStatus());
+        assertEquals(2, completedStatus.getFiles().size());
+        assertTrue(completedStatus.getFiles().stream().allMatch(f -> f.getPendingChunkIndexes().isEmpty()));
+
+        SessionStatusResponse cancelledStatus = uploadService.getSessionStatus(cancelled.getId());
+        assertEquals(FileStatus.FAILED, cancelledStatus.getFiles().get(0).getStatus());
+        assertEquals(List.of(1), cancelledStatus.getFiles().get(0).getPendingChunkIndexes());
+
+        FilePartsResponse uploadedParts = uploadService.getFileParts(uploaded.getId());
+        assertEquals(List.of(1, 2, 3), uploadedParts.getUploadedPartNumbers());
+        FilePartsResponse failedParts = uploadService.getFileParts(failed.getId());
+        assertEquals(List.of(1), failedParts.getUploadedPartNumbers());
+        assertEquals(List.of(2), failedParts.getPendingPartNumbers());
+        assertEquals(failed.getUploadId(), failedParts.getUploadId());
+    }
+
+    @Test
+    void recent_or_unsettled_sessions_stay_hot() {
+        UploadSession recent = session(SessionStatus.COMPLETED, Instant.now());
+        UploadSession unsettled = session(SessionStatus.CANCELLED, MONTH_AGO);
+        file(unsettled, UploadMode.MULTIPART, FileStatus.PAUSED, 1, Instant.now());
+
+        archive.archive();
+
+        assertTrue(sessionRepo.findById(recent.getId()).isPresent());
+        assertTrue(sessionRepo.findById(unsettled.getId()).isPresent());
+        assertThrows(ResourceNotFoundException.class, () -> uploadService.getSessionStatus("S-never-existed"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.dto.response.SessionHistoryResponse;
+import com.intuit.fileUploadDemo.dto.response.SessionHistoryResponse.SessionSummary;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.UploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SessionHistoryTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Autowired UploadService uploadService;
+    @Autowired SessionArchive archive;
+    @Autowired UploadSessionRepository sessionRepo;
+    @Autowired UploadFileRepository fileRepo;
+
+    private UploadSession session(String userId, SessionStatus status, Instant createdAt) {
+        return sessionRepo.save(UploadFixtures.session(userId, status, createdAt).createdAt(createdAt).build());
+    }
+
+    private void file(UploadSession s, long size) {
+        fileRepo.save(UploadFixtures.file(s, UploadMode.SINGLE_PUT, FileStatus.UPLOADED, 0, s.getUpdatedAt())
+                .fileSize(size)
+                .build());
+    }
+
+    @Test
+    void pages_walk_hot_and_archived_sessions_newest_first() {
+        String user = "history-" + UUID.randomUUID();
+        // Two sessions share a createdAt: the id breaks the tie, so neither is skipped or repeated across pages
+        UploadSession archived = session(user, SessionStatus.COMPLETED, BASE);
+        file(archived, 100);
+        file(archived, 20);
+        UploadSession tieA = session(user, SessionStatus.CANCELLED, BASE.plus(Duration.ofHours(1)));
+        UploadSession tieB = session(user, SessionStatus.IN_PROGRESS, BASE.plus(Duration.ofHours(1)));
+        file(tieB, 7);
+        UploadSession newest = session(user, SessionStatus.IN_PROGRESS, BASE.plus(Duration.ofHours(2)));
+        session("someone-else", SessionStatus.IN_PROGRESS, BASE.plus(Duration.ofHours(3)));
+        archive.archive();
+
+        List<SessionSummary> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SessionHistoryResponse page = uploadService.getSessionHistory(user, null, cursor, 2);
+            seen.addAll(page.getSessions());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(2, pages);
+        String tieFirst = tieA.getId().compareTo(tieB.getId()) > 0 ? tieA.getId() : tieB.getId();
+        String tieSecond = tieFirst.equals(tieA.getId()) ? tieB.getId() : tieA.getId();
+        assertEquals(List.of(newest.getId(), tieFirst, tieSecond, archived.getId()),
+                seen.stream().map(SessionSummary::getSessionId).toList());
+
+        SessionSummary oldest = seen.get(3);
+        assertTrue(sessionRepo.findById(archived.getId()).isEmpty());
+        assertEquals(2, oldest.getFileCount());
+        assertEquals(120, oldest.getTotalBytes());
+        SessionSummary withOneFile = seen.stream().filter(s -> s.getSessionId().equals(tieB.getId())).findFirst().orElseThrow();
+        assertEquals(1, withOneFile.getFileCount());
+        assertEquals(7, withOneFile.getTotalBytes());
+        assertEquals(0, seen.get(0).getFileCount());
+
+        SessionHistoryResponse inProgress = uploadService.getSessionHistory(user, SessionStatus.IN_PROGRESS, null, 10);
+        assertEquals(List.of(newest.getId(), tieB.getId()),
+                inProgress.getSessions().stream().map(SessionSummary::getSessionId).toList());
+        assertNull(inProgress.getNextCursor());
+    }
+
+    @Test
+    void bad_cursor_or_limit_is_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> uploadService.getSessionHistory("u", null, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> uploadService.getSessionHistory("u", null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> uploadService.getSessionHistory("u", null, null, 1000));
+    }
+}
@@ -0,0 +1,113 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.entities.SchedulerLease;
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+import com.intuit.fileUploadDemo.repository.SchedulerLeaseRepository;
+import com.intuit.fileUploadDemo.repository.UploadFileRepository;
+import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.service.S3MultipartAsyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class StaleUploadReaperTest {
+
+    private static final Instant TWO_DAYS_AGO = Instant.now().minus(Duration.ofDays(2));
+
+    @Autowired StaleUploadReaper reaper;
+    @Autowired UploadSessionRepository sessionRepo;
+    @Autowired UploadFileRepository fileRepo;
+    @Autowired SchedulerLeaseRepository leaseRepo;
+
+    @MockitoBean S3MultipartAsyncService asyncS3;
+
+    private UploadSession session(SessionStatus status, Instant updatedAt) {
+        return sessionRepo.save(UploadFixtures.session("reaper", status, updatedAt).build());
+    }
+
+    private UploadFile file(UploadSession s, UploadMode mode, FileStatus status, Instant updatedAt) {
+        int chunks = mode == UploadMode.SINGLE_PUT ? 0 : 1;
+        return fileRepo.save(UploadFixtures.file(s, mode, status, chunks, updatedAt).build());
+    }
+
+    private FileStatus fileStatus(UploadFile f) {
+        return fileRepo.findById(f.getId()).orElseThrow().getStatus();
+    }
+
+    private SessionStatus sessionStatus(UploadSession s) {
+        return sessionRepo.findById(s.getId()).orElseThrow().getStatus();
+    }
+
+    @Test
+    void idle_uploads_are_expired_and_aborted() {
+        when(asyncS3.abort(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        UploadSession idle = session(SessionStatus.IN_PROGRESS, TWO_DAYS_AGO);
+        UploadFile multipart = file(idle, UploadMode.MULTIPART, FileStatus.IN_PROGRESS, TWO_DAYS_AGO);
+        UploadFile singlePut = file(idle, UploadMode.SINGLE_PUT, FileStatus.PENDING, TWO_DAYS_AGO);
+        UploadSession busy = session(SessionStatus.PAUSED, TWO_DAYS_AGO);
+        UploadFile recent = file(busy, UploadMode.MULTIPART, FileStatus.IN_PROGRESS, Instant.now());
+        UploadSession completed = session(SessionStatus.COMPLETED, TWO_DAYS_AGO);
+
+        assertTrue(reaper.sweep().isPresent());
+
+        assertEquals(FileStatus.FAILED, fileStatus(multipart));
+        assertEquals(FileStatus.FAILED, fileStatus(singlePut));
+        assertEquals(SessionStatus.CANCELLED, sessionStatus(idle));
+        verify(asyncS3).abort(multipart.getS3Key(), multipart.getUploadId());
+        verify(asyncS3, never()).abort(eq(singlePut.getS3Key()), any());
+
+        // A file uploaded to recently keeps its session alive, however old the session row is
+        assertEquals(FileStatus.IN_PROGRESS, fileStatus(recent));
+        assertEquals(SessionStatus.PAUSED, sessionStatus(busy));
+        assertEquals(SessionStatus.COMPLETED, sessionStatus(completed));
+    }
+
+    @Test
+    void failed_abort_still_expires_the_file() {
+        UploadSession s = session(SessionStatus.IN_PROGRESS, Instant.now());
+        UploadFile gone = file(s, UploadMode.MULTIPART, FileStatus.PAUSED, TWO_DAYS_AGO);
+        UploadFile broken = file(s, UploadMode.MULTIPART, FileStatus.PENDING, TWO_DAYS_AGO);
+        when(asyncS3.abort(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(asyncS3.abort(gone.getS3Key(), gone.getUploadId()))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchUploadException.builder().message("gone").build()));
+        when(asyncS3.abort(broken.getS3Key(), broken.getUploadId()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("s3 down")));
+
+        StaleUploadReaper.Result result = reaper.sweep().orElseThrow();
+
+        assertEquals(FileStatus.FAILED, fileStatus(gone));
+        assertEquals(FileStatus.FAILED, fileStatus(broken));
+        assertTrue(result.abortedUploads() >= 1);
+        assertEquals(1, result.failedAborts());
+    }
+
+    @Test
+    void sweep_is_skipped_while_another_instance_holds_the_lease() {
+        UploadSession s = session(SessionStatus.IN_PROGRESS, TWO_DAYS_AGO);
+        leaseRepo.save(new SchedulerLease(StaleUploadReaper.LEASE, "other-node", Instant.now().plus(Duration.ofHours(1))));
+        try {
+            assertEquals(Optional.empty(), reaper.sweep());
+            assertEquals(SessionStatus.IN_PROGRESS, sessionStatus(s));
+        } finally {
+            leaseRepo.deleteById(StaleUploadReaper.LEASE);
+        }
+        verifyNoInteractions(asyncS3);
+    }
+}
@@ -0,0 +1,47 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import com.intuit.fileUploadDemo.entities.UploadFile;
+import com.intuit.fileUploadDemo.entities.UploadSession;
+import com.intuit.fileUploadDemo.entities.enums.FileStatus;
+import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Session and file rows for the database-backed tests, with unique ids and valid defaults.
+ * Callers adjust the returned builder and save the result.
+ */
+final class UploadFixtures {
+
+    private UploadFixtures() {}
+
+    static UploadSession.UploadSessionBuilder session(String userId, SessionStatus status, Instant updatedAt) {
+        return UploadSession.builder()
+                .id("S" + shortId())
+                .userId(userId)
+                .status(status)
+                .updatedAt(updatedAt);
+    }
+
+    // Multipart files get an uploadId, single-PUT files don't; 10 bytes per chunk
+    static UploadFile.UploadFileBuilder file(UploadSession s, UploadMode mode, FileStatus status, int chunks, Instant updatedAt) {
+        String id = "F" + shortId();
+        return UploadFile.builder()
+                .id(id)
+                .session(s)
+                .fileName(id + ".bin")
+                .fileSize(chunks * 10L)
+                .totalChunks(chunks)
+                .uploadMode(mode)
+                .status(status)
+                .s3Key("key-" + id)
+                .uploadId(mode == UploadMode.SINGLE_PUT ? null : "upl-" + id)
+                .updatedAt(updatedAt);
+    }
+
+    private static String shortId() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
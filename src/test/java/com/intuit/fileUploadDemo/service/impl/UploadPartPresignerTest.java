@@ -0,0 +1,169 @@
+package com.intuit.fileUploadDemo.service.impl;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.auth.signer.AwsS3V4Signer;
+import software.amazon.awssdk.auth.signer.params.Aws4PresignerParams;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadPartPresignerTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Pattern AMZ_DATE = Pattern.compile("X-Amz-Date=(\\d{8}T\\d{6}Z)");
+    private static final DateTimeFormatter AMZ_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssX").withZone(ZoneOffset.UTC);
+
+    private static final AwsCredentialsProvider BASIC = StaticCredentialsProvider.create(
+            AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+
+    @Test
+    void matches_sdk_for_virtual_hosted_and_path_style_buckets_across_regions() {
+        for (String region : List.of("us-east-1", "eu-west-1")) {
+            for (String bucket : List.of("my-bucket", "my.dotted.bucket", "b")) {
+                assertMatchesSdk(BASIC, region, bucket, "uploads/S1/F1/report.pdf", "upl-1", 1);
+            }
+        }
+    }
+
+    @Test
+    void matches_sdk_for_keys_and_upload_ids_that_need_encoding() {
+        for (String key : List.of("uploads/S 1/f+ü~*.bin", "a//b/./c/../d", "/leading/slash", "100% (final) [v2]&x=y.txt")) {
+            assertMatchesSdk(BASIC, "us-east-1", "my-bucket", key, "VXBsb2FkIElE/+=.~_-", 10_000);
+        }
+    }
+
+    @Test
+    void matches_sdk_with_session_credentials() {
+        AwsCredentialsProvider session = StaticCredentialsProvider.create(
+                AwsSessionCredentials.create("ASIAEXAMPLE", "secret/key+", "FwoGZXIvYXdzE/token+=="));
+        assertMatchesSdk(session, "us-east-1", "my-bucket", "k", "u", 7);
+    }
+
+    @Test
+    void batch_signs_every_part_like_the_sdk_and_keeps_order() {
+        S3Presigner sdk = sdk(BASIC, "us-east-1");
+        UploadPartPresigner presigner = new UploadPartPresigner(sdk, BASIC, "us-east-1", "my-bucket", TTL, true);
+        List<Integer> parts = List.of(42, 1, 7, 10_000);
+
+        String first = sdkUrl(sdk, "my-bucket", "k", "u", 42, 0L);
+        Map<Integer, String> urls = presigner.presign("k", "u", parts, signingTime(first));
+
+        assertEquals(parts, List.copyOf(urls.keySet()));
+        assertEquals(first, urls.get(42));
+        for (int partNumber : parts) {
+            String expected = sdkUrl(sdk, "my-bucket", "k", "u", partNumber, 0L);
+            // The SDK signs with the current second; re-sign ours only if the clock ticked in between
+            String actual = expected.equals(urls.get(partNumber)) ? urls.get(partNumber)
+                    : presigner.presign("k", "u", List.of(partNumber), signingTime(expected)).get(partNumber);
+            assertEquals(expected, actual);
+        }
+    }
+
+    // The cached signing key is re-derived when the date changes; the reference is the SDK signer on a fixed clock
+    @Test
+    void signing_key_follows_the_date() {
+        UploadPartPresigner presigner = new UploadPartPresigner(sdk(BASIC, "us-east-1"), BASIC, "us-east-1", "my-bucket", TTL, true);
+        Instant lastSecond = Instant.parse("2026-10-17T23:59:59Z");
+        Instant midnight = lastSecond.plusSeconds(1);
+
+        String before = presigner.presign("k", "u", List.of(1), lastSecond).get(1);
+        String after = presigner.presign("k", "u", List.of(1), midnight).get(1);
+
+        assertEquals(sdkSignature(before, lastSecond), signature(before));
+        assertEquals(sdkSignature(after, midnight), signature(after));
+        assertTrue(after.contains("%2F20261018%2Fus-east-1%2Fs3%2Faws4_request"), after);
+    }
+
+    @Test
+    void content_length_and_disabled_signer_go_through_the_sdk() {
+        S3Presigner sdk = sdk(BASIC, "us-east-1");
+        UploadPartPresigner disabled = new UploadPartPresigner(sdk, BASIC, "us-east-1", "my-bucket", TTL, false);
+        UploadPartPresigner enabled = new UploadPartPresigner(sdk, BASIC, "us-east-1", "my-bucket", TTL, true);
+
+        assertTrue(disabled.presign("k", "u", 1, 0L).contains("X-Amz-Signature="));
+        String withLength = enabled.presign("k", "u", 1, 5 * 1024 * 1024);
+        assertTrue(withLength.contains("X-Amz-SignedHeaders=content-length%3Bhost"), withLength);
+    }
+
+    private static void assertMatchesSdk(AwsCredentialsProvider credentials, String region, String bucket,
+                                         String key, String uploadId, int partNumber) {
+        S3Presigner sdk = sdk(credentials, region);
+        UploadPartPresigner presigner = new UploadPartPresigner(sdk, credentials, region, bucket, TTL, true);
+        String expected = sdkUrl(sdk, bucket, key, uploadId, partNumber, 0L);
+
+        String actual = presigner.presign(key, uploadId, List.of(partNumber), signingTime(expected)).get(partNumber);
+
+        assertEquals(expected, actual, region + " " + bucket + " " + key);
+    }
+
+    private static S3Presigner sdk(AwsCredentialsProvider credentials, String region) {
+        return S3Presigner.builder().region(Region.of(region)).credentialsProvider(credentials).build();
+    }
+
+    private static String sdkUrl(S3Presigner sdk, String bucket, String key, String uploadId, int partNumber, long contentLength) {
+        return sdk.presignUploadPart(UploadPartPresignRequest.builder()
+                        .signatureDuration(TTL)
+                        .uploadPartRequest(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength(contentLength > 0 ? contentLength : null)
+                                .build())
+                        .build())
+                .url().toString();
+    }
+
+    private static Instant signingTime(String url) {
+        Matcher m = AMZ_DATE.matcher(url);
+        assertTrue(m.find(), url);
+        return Instant.from(AMZ_DATE_FORMAT.parse(m.group(1)));
+    }
+
+    private static String signature(String url) {
+        return url.substring(url.indexOf("X-Amz-Signature=") + "X-Amz-Signature=".length());
+    }
+
+    // Signs the URL's request again with the SDK's S3 signer, its clock fixed at signingTime
+    @SuppressWarnings("deprecation")
+    private static String sdkSignature(String url, Instant signingTime) {
+        URI uri = URI.create(url);
+        SdkHttpFullRequest request = SdkHttpFullRequest.builder()
+                .method(SdkHttpMethod.PUT)
+                .protocol(uri.getScheme())
+                .host(uri.getHost())
+                .encodedPath(uri.getRawPath())
+                .putRawQueryParameter("partNumber", "1")
+                .putRawQueryParameter("uploadId", "u")
+                .build();
+        SdkHttpFullRequest signed = AwsS3V4Signer.create().presign(request, Aws4PresignerParams.builder()
+                .awsCredentials(BASIC.resolveCredentials())
+                .signingName("s3")
+                .signingRegion(Region.US_EAST_1)
+                .expirationTime(signingTime.plus(TTL))
+                .signingClockOverride(Clock.fixed(signingTime, ZoneOffset.UTC))
+                .build());
+        return signed.firstMatchingRawQueryParameter("X-Amz-Signature").orElseThrow();
+    }
+}
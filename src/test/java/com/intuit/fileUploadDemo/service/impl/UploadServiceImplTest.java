@@ -1,31 +1,56 @@
 package com.intuit.fileUploadDemo.service.impl;
 
+import com.intuit.fileUploadDemo.cache.UploadLookupCache;
+import com.intuit.fileUploadDemo.dto.request.AcknowledgePartRequest;
+import com.intuit.fileUploadDemo.dto.request.BatchPresignPartUrlRequest;
+import com.intuit.fileUploadDemo.dto.request.BulkRegisterFilesRequest;
 import com.intuit.fileUploadDemo.dto.request.CompleteFileRequest;
 import com.intuit.fileUploadDemo.dto.request.PresignPartUrlRequest;
 import com.intuit.fileUploadDemo.dto.request.RegisterFileRequest;
 import com.intuit.fileUploadDemo.dto.request.StartSessionRequest;
+import com.intuit.fileUploadDemo.dto.response.BatchPresignPartUrlResponse;
+import com.intuit.fileUploadDemo.dto.response.BulkRegisterFilesResponse;
+import com.intuit.fileUploadDemo.dto.response.FilePartsResponse;
+import com.intuit.fileUploadDemo.dto.response.PartAckResponse;
 import com.intuit.fileUploadDemo.dto.response.PresignPartUrlResponse;
 import com.intuit.fileUploadDemo.dto.response.RegisterFileResponse;
+import com.intuit.fileUploadDemo.dto.response.SessionStatusResponse;
 import com.intuit.fileUploadDemo.dto.response.StartSessionResponse;
-import com.intuit.fileUploadDemo.entities.UploadChunk;
 import com.intuit.fileUploadDemo.entities.UploadFile;
 import com.intuit.fileUploadDemo.entities.UploadSession;
 import com.intuit.fileUploadDemo.entities.enums.FileStatus;
 import com.intuit.fileUploadDemo.entities.enums.SessionStatus;
+import com.intuit.fileUploadDemo.entities.enums.UploadMode;
 import com.intuit.fileUploadDemo.exception.ResourceNotFoundException;
-import com.intuit.fileUploadDemo.repository.UploadChunkRepository;
 import com.intuit.fileUploadDemo.repository.UploadFileRepository;
 import com.intuit.fileUploadDemo.repository.UploadSessionRepository;
+import com.intuit.fileUploadDemo.repository.projection.FileStatusView;
+import com.intuit.fileUploadDemo.service.ChunkStateStore;
+import com.intuit.fileUploadDemo.service.S3MultipartAsyncService;
+import com.intuit.fileUploadDemo.service.PartSizePlanner;
 import com.intuit.fileUploadDemo.service.S3MultipartService;
 import com.intuit.fileUploadDemo.service.impl.UploadServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,14 +60,32 @@ class UploadServiceImplTest {
 
     @Mock UploadSessionRepository sessionRepo;
     @Mock UploadFileRepository fileRepo;
-    @Mock UploadChunkRepository chunkRepo;
+    @Mock ChunkStateStore chunkStore;
     @Mock
     S3MultipartService s3;
+    @Mock S3MultipartAsyncService asyncS3;
+    @Mock TransactionTemplate tx;
+    @Mock Executor uploadTaskExecutor;
+    @Spy PartSizePlanner partSizePlanner = new PartSizePlanner(
+            DataSize.ofMegabytes(16), DataSize.ofMegabytes(5), 10_000, Duration.ofSeconds(10));
+    @Mock SessionArchive sessionArchive;
+    @Spy UploadLookupCache lookupCache = new UploadLookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    @Spy MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks UploadServiceImpl service;
 
     @BeforeEach
-    void init() {}
+    void init() {
+        ReflectionTestUtils.setField(service, "maxPresignBatchSize", 500);
+        ReflectionTestUtils.setField(service, "singlePutMaxSize", DataSize.ofMegabytes(16));
+    }
+
+    // Run transaction callbacks and executor tasks inline so async paths complete synchronously
+    private void inlineTxAndExecutor() {
+        when(tx.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(inv -> { inv.<Runnable>getArgument(0).run(); return null; })
+                .when(uploadTaskExecutor).execute(any());
+    }
 
     @Test
     void startSession_creates_when_no_existing() {
@@ -73,47 +116,194 @@ class UploadServiceImplTest {
     }
 
     @Test
-    void registerFile_ok() {
+    void registerFileAsync_ok() {
+        inlineTxAndExecutor();
         UploadSession sess = mock(UploadSession.class);
         when(sess.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
         when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
 
-        when(s3.start(anyString(), anyString())).thenReturn("upl-1");
-        when(fileRepo.save(any(UploadFile.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(asyncS3.start(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture("upl-1"));
+        when(fileRepo.saveAndFlush(any(UploadFile.class))).thenAnswer(inv -> inv.getArgument(0));
 
         RegisterFileRequest req = new RegisterFileRequest();
         req.setFileName("report.pdf");
-        req.setFileSize(1000L);
-        req.setChunkCount(3);
+        req.setFileSize(100L * 1024 * 1024);
+        req.setChunkCount(4);
 
-        RegisterFileResponse resp = service.registerFile("S123", req);
+        RegisterFileResponse resp = service.registerFileAsync("S123", req).join();
 
         assertNotNull(resp.getFileId());
         assertEquals("upl-1", resp.getUploadId());
         assertTrue(resp.getS3Key().endsWith("/report.pdf"));
-        verify(chunkRepo, times(3)).save(any(UploadChunk.class));
+        assertEquals(4, resp.getPartCount());
+        assertEquals(25L * 1024 * 1024, resp.getPartSize());
+        verify(chunkStore).initialize(argThat(f -> f.getId().equals(resp.getFileId())
+                && f.getTotalChunks() == 4 && f.getPartSize() == 25L * 1024 * 1024));
+    }
+
+    @Test
+    void registerFileAsync_overrides_chunk_count_below_s3_minimum_part() {
+        inlineTxAndExecutor();
+        UploadSession sess = mock(UploadSession.class);
+        when(sess.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+        when(asyncS3.start(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture("upl-1"));
+        when(fileRepo.saveAndFlush(any(UploadFile.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // 1,000 chunks of ~20 KB would be rejected by S3 (parts below 5 MiB)
+        RegisterFileResponse resp = service.registerFileAsync("S123", new RegisterFileRequest("a.bin", 20L * 1024 * 1024, 1000)).join();
+
+        assertEquals(4, resp.getPartCount());
+        verify(chunkStore).initialize(argThat(f -> f.getTotalChunks() == 4));
     }
 
     @Test
-    void registerFile_throws_when_session_missing() {
+    void registerFileAsync_small_file_uses_single_put_without_multipart_or_chunks() {
+        inlineTxAndExecutor();
+        UploadSession sess = mock(UploadSession.class);
+        when(sess.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+        when(s3.presignPut(anyString(), eq(20_000L))).thenReturn("https://s3/put");
+
+        RegisterFileResponse resp = service.registerFileAsync("S123", new RegisterFileRequest("doc.pdf", 20_000L, null)).join();
+
+        assertEquals(UploadMode.SINGLE_PUT, resp.getUploadMode());
+        assertEquals("https://s3/put", resp.getUploadUrl());
+        assertNull(resp.getUploadId());
+        assertEquals(1, resp.getPartCount());
+        verify(fileRepo).save(argThat(f -> f.getUploadMode() == UploadMode.SINGLE_PUT && f.getTotalChunks() == 1));
+        verify(s3, never()).start(anyString(), anyString());
+        verifyNoInteractions(chunkStore, asyncS3);
+    }
+
+    @Test
+    void completeSingleUpload_marks_uploaded_after_head_matches_size() {
+        inlineTxAndExecutor();
+        UploadSession sess = mock(UploadSession.class);
+        UploadFile file = UploadFile.builder().id("F1").session(sess).s3Key("k").fileSize(20_000L)
+                .totalChunks(1).uploadMode(UploadMode.SINGLE_PUT).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(asyncS3.objectSize("k")).thenReturn(CompletableFuture.completedFuture(Optional.of(20_000L)));
+
+        service.completeSingleUploadAsync("F1").join();
+
+        assertEquals(FileStatus.UPLOADED, file.getStatus());
+        assertEquals(1, file.getUploadedChunks());
+        verifyNoInteractions(chunkStore);
+    }
+
+    @Test
+    void completeSingleUpload_rejects_when_object_missing() {
+        inlineTxAndExecutor();
+        UploadFile file = UploadFile.builder().id("F1").s3Key("k").fileSize(20_000L)
+                .totalChunks(1).uploadMode(UploadMode.SINGLE_PUT).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(asyncS3.objectSize("k")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        CompletionException e = assertThrows(CompletionException.class, () -> service.completeSingleUploadAsync("F1").join());
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(FileStatus.IN_PROGRESS, file.getStatus());
+    }
+
+    @Test
+    void presignPart_rejected_for_single_put_file() {
+        UploadFile file = UploadFile.builder().id("F1").totalChunks(1)
+                .uploadMode(UploadMode.SINGLE_PUT).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+
+        assertThrows(IllegalStateException.class, () -> service.presignPartUrl("F1", new PresignPartUrlRequest(1)));
+        verifyNoInteractions(s3);
+    }
+
+    @Test
+    void registerFiles_reports_failures_per_file_and_inserts_the_rest_in_one_batch() {
+        inlineTxAndExecutor();
+        ReflectionTestUtils.setField(service, "bulkRegisterExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(service, "maxBulkRegisterFiles", 1000);
+        UploadSession sess = mock(UploadSession.class);
+        when(sess.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+        when(s3.start(contains("/ok.bin"), anyString())).thenReturn("upl-ok");
+        when(s3.start(contains("/broken.bin"), anyString())).thenThrow(new RuntimeException("S3 down"));
+        when(s3.presignPut(anyString(), eq(1000L))).thenReturn("https://s3/put");
+
+        BulkRegisterFilesResponse resp = service.registerFiles("S123", new BulkRegisterFilesRequest(List.of(
+                new RegisterFileRequest("ok.bin", 100L * 1024 * 1024, null),
+                new RegisterFileRequest("broken.bin", 100L * 1024 * 1024, null),
+                new RegisterFileRequest("small.txt", 1000L, null),
+                new RegisterFileRequest("huge.bin", PartSizePlanner.MAX_OBJECT_SIZE + 1, null))));
+
+        assertEquals(2, resp.getRegistered());
+        assertEquals(2, resp.getFailed());
+        List<BulkRegisterFilesResponse.FileResult> results = resp.getFiles();
+        assertEquals("upl-ok", results.get(0).getFile().getUploadId());
+        assertTrue(results.get(1).getError().contains("S3 down"));
+        assertEquals(UploadMode.SINGLE_PUT, results.get(2).getFile().getUploadMode());
+        assertEquals("https://s3/put", results.get(2).getFile().getUploadUrl());
+        assertNull(results.get(3).getFile());
+        assertNotNull(results.get(3).getError());
+
+        verify(fileRepo).insertAll(argThat(rows -> rows.size() == 2));
+        verify(chunkStore).initializeAll(argThat(rows -> rows.size() == 1 && rows.iterator().next().getTotalChunks() == 7));
+        verify(fileRepo, never()).save(any());
+    }
+
+    @Test
+    void registerFiles_aborts_started_uploads_when_insert_fails() {
+        inlineTxAndExecutor();
+        ReflectionTestUtils.setField(service, "bulkRegisterExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(service, "maxBulkRegisterFiles", 1000);
+        UploadSession sess = mock(UploadSession.class);
+        when(sess.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+        when(s3.start(anyString(), anyString())).thenReturn("upl-1", "upl-2");
+        doThrow(new IllegalStateException("db down")).when(fileRepo).insertAll(any());
+        when(asyncS3.abort(anyString(), eq("upl-1"))).thenReturn(CompletableFuture.completedFuture(null));
+        when(asyncS3.abort(anyString(), eq("upl-2"))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("s3 down")));
+
+        assertThrows(IllegalStateException.class, () -> service.registerFiles("S123", new BulkRegisterFilesRequest(List.of(
+                new RegisterFileRequest("a.bin", 100L * 1024 * 1024, null),
+                new RegisterFileRequest("b.bin", 100L * 1024 * 1024, null)))));
+
+        verify(asyncS3).abort(anyString(), eq("upl-1"));
+        verify(asyncS3).abort(anyString(), eq("upl-2"));
+        assertEquals(1.0, meterRegistry.counter("upload.register.rollback-aborts", "outcome", "aborted").count());
+        assertEquals(1.0, meterRegistry.counter("upload.register.rollback-aborts", "outcome", "error").count());
+    }
+
+    @Test
+    void registerFiles_rejects_too_many_files() {
+        ReflectionTestUtils.setField(service, "maxBulkRegisterFiles", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> service.registerFiles("S123", new BulkRegisterFilesRequest(List.of(
+                new RegisterFileRequest("a.bin", 10L, null), new RegisterFileRequest("b.bin", 10L, null)))));
+        verifyNoInteractions(s3, fileRepo);
+    }
+
+    @Test
+    void registerFileAsync_throws_when_session_missing() {
+        inlineTxAndExecutor();
         when(sessionRepo.findById("NO")).thenReturn(Optional.empty());
         RegisterFileRequest req = new RegisterFileRequest();
         req.setFileName("a");
         req.setFileSize(1);
         req.setChunkCount(1);
 
-        assertThrows(ResourceNotFoundException.class, () -> service.registerFile("NO", req));
+        assertThrows(ResourceNotFoundException.class, () -> service.registerFileAsync("NO", req));
+    }
+
+    private static UploadFile inProgressFile(int totalChunks) {
+        UploadSession sess = UploadSession.builder().id("S123").status(SessionStatus.IN_PROGRESS).build();
+        return UploadFile.builder().id("F1").session(sess).s3Key("k").uploadId("upl-1")
+                .totalChunks(totalChunks).status(FileStatus.IN_PROGRESS).build();
     }
 
     @Test
     void presignPart_ok() {
-        UploadFile file = mock(UploadFile.class);
-        when(file.getStatus()).thenReturn(FileStatus.IN_PROGRESS);
-        when(file.getTotalChunks()).thenReturn(3);
-        when(file.getS3Key()).thenReturn("k");
-        when(file.getUploadId()).thenReturn("upl-1");
+        UploadFile file = inProgressFile(3);
         when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
-        when(chunkRepo.findByFileIdAndChunkIndex("F1", 0)).thenReturn(Optional.of(mock(UploadChunk.class)));
+        when(chunkStore.existingChunkIndexes(file, List.of(0))).thenReturn(Set.of(0));
         when(s3.presignPart("k","upl-1",1,0L)).thenReturn("https://s3/presigned");
 
         PresignPartUrlRequest req = new PresignPartUrlRequest();
@@ -125,41 +315,225 @@ class UploadServiceImplTest {
     }
 
     @Test
-    void completeFile_ok() {
+    void presignParts_batch_ok() {
+        UploadFile file = inProgressFile(10);
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(chunkStore.existingChunkIndexes(eq(file), anyCollection())).thenReturn(Set.of(1, 2, 3, 7));
+
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (int p : new int[]{2, 3, 4, 8}) urls.put(p, "https://s3/p" + p);
+        when(s3.presignParts(eq("k"), eq("upl-1"), anyCollection())).thenReturn(urls);
+
+        BatchPresignPartUrlRequest req = new BatchPresignPartUrlRequest(List.of(8, 3), 2, 4);
+        BatchPresignPartUrlResponse resp = service.presignPartUrls("F1", req);
+
+        assertEquals(List.of(2, 3, 4, 8), resp.getUrls().stream().map(BatchPresignPartUrlResponse.PartUrl::getPartNumber).toList());
+        assertEquals("https://s3/p8", resp.getUrls().get(3).getUrl());
+        verify(chunkStore, times(1)).existingChunkIndexes(eq(file), anyCollection());
+        verify(s3, never()).presignPart(anyString(), anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void presignParts_rejects_batch_over_max() {
+        ReflectionTestUtils.setField(service, "maxPresignBatchSize", 5);
+        UploadFile file = inProgressFile(10);
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+
+        BatchPresignPartUrlRequest req = new BatchPresignPartUrlRequest(null, 1, 6);
+
+        assertThrows(IllegalArgumentException.class, () -> service.presignPartUrls("F1", req));
+        verifyNoInteractions(chunkStore, s3);
+    }
+
+    @Test
+    void presignParts_throws_when_chunk_missing() {
+        UploadFile file = inProgressFile(3);
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(chunkStore.existingChunkIndexes(eq(file), anyCollection())).thenReturn(Set.of(0));
+
+        BatchPresignPartUrlRequest req = new BatchPresignPartUrlRequest(List.of(1, 2), null, null);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.presignPartUrls("F1", req));
+        verifyNoInteractions(s3);
+    }
+
+    @Test
+    void presignPart_reads_file_once_then_from_cache() {
+        UploadFile file = inProgressFile(3);
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(chunkStore.existingChunkIndexes(eq(file), anyCollection())).thenReturn(Set.of(0, 1));
+        when(s3.presignPart(eq("k"), eq("upl-1"), anyInt(), eq(0L))).thenReturn("https://s3/presigned");
+
+        service.presignPartUrl("F1", new PresignPartUrlRequest(1));
+        service.presignPartUrl("F1", new PresignPartUrlRequest(2));
+
+        verify(fileRepo, times(1)).findById("F1");
+        assertEquals(1, lookupCache.fileStats().hitCount());
+    }
+
+    @Test
+    void pauseFile_invalidates_cached_lookup() {
+        UploadFile file = inProgressFile(3);
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(chunkStore.existingChunkIndexes(eq(file), anyCollection())).thenReturn(Set.of(0));
+        service.presignPartUrl("F1", new PresignPartUrlRequest(1));
+
+        service.pauseFile("F1");
+
+        assertThrows(IllegalStateException.class, () -> service.presignPartUrl("F1", new PresignPartUrlRequest(1)));
+        verify(lookupCache).invalidateFile("F1");
+    }
+
+    @Test
+    void pauseSession_invalidates_cached_files_of_the_session() {
+        UploadFile file = inProgressFile(3);
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(chunkStore.existingChunkIndexes(eq(file), anyCollection())).thenReturn(Set.of(0));
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(file.getSession()));
+        service.presignPartUrl("F1", new PresignPartUrlRequest(1));
+
+        service.pauseSession("S123");
+        file.setStatus(FileStatus.PAUSED); // what the set-based update did to the row
+
+        assertThrows(IllegalStateException.class, () -> service.presignPartUrl("F1", new PresignPartUrlRequest(1)));
+        verify(fileRepo, times(2)).findById("F1");
+    }
+
+    @Test
+    void completeFileAsync_missing_etag_rejected_before_s3() {
+        inlineTxAndExecutor();
         UploadFile file = mock(UploadFile.class);
         when(file.getUploadId()).thenReturn("upl-1");
-        when(file.getTotalChunks()).thenReturn(2);
-        when(file.getS3Key()).thenReturn("k");
-        when(file.getSession()).thenReturn(mock(UploadSession.class));
+        when(file.getTotalChunks()).thenReturn(3);
         when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
 
-        UploadChunk c0 = mock(UploadChunk.class);
-        when(c0.getChunkIndex()).thenReturn(0);
-        UploadChunk c1 = mock(UploadChunk.class);
-        when(c1.getChunkIndex()).thenReturn(1);
-        when(chunkRepo.findByFileIdOrderByChunkIndexAsc("F1")).thenReturn(List.of(c0,c1));
+        CompleteFileRequest req = new CompleteFileRequest("upl-1", List.of(
+                new CompleteFileRequest.PartETag(1, "e1"),
+                new CompleteFileRequest.PartETag(3, "e3")));
+
+        assertThrows(IllegalStateException.class, () -> service.completeFileAsync("F1", req));
+        verifyNoInteractions(asyncS3, chunkStore);
+    }
 
-        doNothing().when(s3).complete(eq("k"), eq("upl-1"), anyList());
-        when(fileRepo.save(any(UploadFile.class))).thenAnswer(inv -> inv.getArgument(0));
+    @Test
+    void completeFileAsync_finalizes_after_s3_future() {
+        inlineTxAndExecutor();
+        UploadSession sess = mock(UploadSession.class);
+        UploadFile file = UploadFile.builder().id("F1").session(sess).uploadId("upl-1").s3Key("k")
+                .totalChunks(2).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(asyncS3.complete(eq("k"), eq("upl-1"), anyList())).thenReturn(CompletableFuture.completedFuture(null));
 
-        CompleteFileRequest.PartETag p1 = new CompleteFileRequest.PartETag();
-        p1.setPartNumber(1);
-        p1.setETag("e1");
-        CompleteFileRequest.PartETag p2 = new CompleteFileRequest.PartETag();
-        p2.setPartNumber(2);
-        p2.setETag("e2");
+        CompleteFileRequest req = new CompleteFileRequest("upl-1", List.of(
+                new CompleteFileRequest.PartETag(1, "e1"),
+                new CompleteFileRequest.PartETag(2, "e2")));
 
-        CompleteFileRequest req = new CompleteFileRequest();
-        req.setUploadId("upl-1");
-        req.setParts(List.of(p1,p2));
+        service.completeFileAsync("F1", req).join();
 
-        assertDoesNotThrow(() -> service.completeFile("F1", req));
-        verify(s3).complete(eq("k"), eq("upl-1"), anyList());
-        verify(fileRepo).save(any(UploadFile.class));
+        assertEquals(FileStatus.UPLOADED, file.getStatus());
+        verify(chunkStore).markAllUploaded(file, Map.of(1, "e1", 2, "e2"));
+        verify(fileRepo).save(file);
+        verifyNoInteractions(s3);
     }
 
     @Test
-    void completeFile_mismatch_uploadId_throws() {
+    void completeFileAsync_leaves_db_untouched_when_s3_fails() {
+        inlineTxAndExecutor();
+        UploadFile file = UploadFile.builder().id("F1").uploadId("upl-1").s3Key("k")
+                .totalChunks(1).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(asyncS3.complete(eq("k"), eq("upl-1"), anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("s3 down")));
+
+        CompleteFileRequest req = new CompleteFileRequest("upl-1", List.of(new CompleteFileRequest.PartETag(1, "e1")));
+
+        CompletableFuture<Void> f = service.completeFileAsync("F1", req);
+
+        assertThrows(CompletionException.class, f::join);
+        assertEquals(FileStatus.IN_PROGRESS, file.getStatus());
+        verifyNoInteractions(chunkStore);
+    }
+
+    @Test
+    void registerFileAsync_aborts_upload_when_persist_fails() {
+        inlineTxAndExecutor();
+        UploadSession sess = mock(UploadSession.class);
+        when(sess.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+        when(asyncS3.start(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture("upl-1"));
+        when(fileRepo.saveAndFlush(any(UploadFile.class))).thenThrow(new IllegalStateException("db down"));
+        when(asyncS3.abort(anyString(), eq("upl-1"))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("s3 down")));
+
+        CompletableFuture<RegisterFileResponse> f = service.registerFileAsync("S123", new RegisterFileRequest("a.bin", 100L * 1024 * 1024, null));
+
+        assertThrows(CompletionException.class, f::join);
+        verify(asyncS3).abort(anyString(), eq("upl-1"));
+        // Nothing else can find this upload again: the failed abort must at least be visible
+        assertEquals(1.0, meterRegistry.counter("upload.register.rollback-aborts", "outcome", "error").count());
+    }
+
+    @Test
+    void acknowledgePart_increments_progress_only_on_first_ack() {
+        UploadFile file = UploadFile.builder().id("F1").uploadId("upl-1").s3Key("k")
+                .totalChunks(3).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(chunkStore.markUploaded(file, 2, "e2")).thenReturn(true, false);
+        when(fileRepo.findUploadedChunksById("F1")).thenReturn(1);
+
+        PartAckResponse first = service.acknowledgePart("F1", 2, new AcknowledgePartRequest("e2"));
+        PartAckResponse retried = service.acknowledgePart("F1", 2, new AcknowledgePartRequest("e2"));
+
+        assertTrue(first.isNewlyUploaded());
+        assertFalse(retried.isNewlyUploaded());
+        assertEquals(1, retried.getUploadedChunks());
+        verify(fileRepo, times(1)).incrementUploadedChunks(eq("F1"), eq(1), any());
+        verifyNoInteractions(s3, asyncS3);
+    }
+
+    @Test
+    void acknowledgePart_rejects_out_of_range_part() {
+        UploadFile file = UploadFile.builder().id("F1").totalChunks(3).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.acknowledgePart("F1", 4, new AcknowledgePartRequest("e4")));
+        verifyNoInteractions(chunkStore);
+    }
+
+    @Test
+    void getFileParts_served_from_store_without_s3() {
+        UploadFile file = UploadFile.builder().id("F1").uploadId("upl-1").s3Key("k")
+                .totalChunks(3).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(chunkStore.uploadedParts(file)).thenReturn(new java.util.TreeMap<>(Map.of(1, "e1", 3, "e3")));
+
+        FilePartsResponse resp = service.getFileParts("F1");
+
+        assertEquals(List.of(1, 3), resp.getUploadedPartNumbers());
+        assertEquals(List.of(2), resp.getPendingPartNumbers());
+        verifyNoInteractions(s3, asyncS3);
+    }
+
+    @Test
+    void reconcile_records_parts_s3_has_but_were_never_acked() {
+        inlineTxAndExecutor();
+        UploadFile file = UploadFile.builder().id("F1").uploadId("upl-1").s3Key("k")
+                .totalChunks(3).status(FileStatus.IN_PROGRESS).build();
+        when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
+        when(asyncS3.listParts("k", "upl-1")).thenReturn(CompletableFuture.completedFuture(
+                List.of(Map.entry(1, "\"e1\""), Map.entry(2, "\"e2\""))));
+        when(chunkStore.markUploaded(file, 1, "e1")).thenReturn(false); // already acked
+        when(chunkStore.markUploaded(file, 2, "e2")).thenReturn(true);
+
+        FilePartsResponse resp = service.reconcileFilePartsAsync("F1").join();
+
+        assertEquals(List.of(3), resp.getPendingPartNumbers());
+        verify(fileRepo).incrementUploadedChunks(eq("F1"), eq(1), any());
+    }
+
+    @Test
+    void completeFileAsync_mismatch_uploadId_throws() {
+        inlineTxAndExecutor();
         UploadFile file = mock(UploadFile.class);
         when(file.getUploadId()).thenReturn("upl-1");
         when(fileRepo.findById("F1")).thenReturn(Optional.of(file));
@@ -167,7 +541,56 @@ class UploadServiceImplTest {
         CompleteFileRequest req = new CompleteFileRequest();
         req.setUploadId("different");
 
-        assertThrows(IllegalArgumentException.class, () -> service.completeFile("F1", req));
+        assertThrows(IllegalArgumentException.class, () -> service.completeFileAsync("F1", req));
+    }
+
+    @Test
+    void sessionStatus_uses_projections_not_per_file_queries() {
+        UploadSession sess = mock(UploadSession.class);
+        when(sess.getId()).thenReturn("S123");
+        when(sess.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+
+        FileStatusView f1 = mock(FileStatusView.class);
+        when(f1.getFileId()).thenReturn("F1");
+        when(f1.getStatus()).thenReturn(FileStatus.IN_PROGRESS);
+        FileStatusView f2 = mock(FileStatusView.class);
+        when(f2.getFileId()).thenReturn("F2");
+        when(f2.getStatus()).thenReturn(FileStatus.UPLOADED);
+        when(fileRepo.findStatusViewsBySessionId("S123")).thenReturn(List.of(f1, f2));
+        when(chunkStore.pendingChunkIndexesBySession("S123")).thenReturn(Map.of("F1", List.of(1, 2)));
+
+        SessionStatusResponse resp = service.getSessionStatus("S123");
+
+        assertEquals(List.of(1, 2), resp.getFiles().get(0).getPendingChunkIndexes());
+        assertEquals(List.of(), resp.getFiles().get(1).getPendingChunkIndexes());
+        verify(chunkStore, times(1)).pendingChunkIndexesBySession("S123");
+        verify(fileRepo, never()).findBySessionIdOrderByCreatedAtAsc(any());
+    }
+
+    @Test
+    void pauseSession_flips_files_with_one_update() {
+        UploadSession sess = UploadSession.builder().id("S123").status(SessionStatus.IN_PROGRESS).build();
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+
+        service.pauseSession("S123");
+
+        assertEquals(SessionStatus.PAUSED, sess.getStatus());
+        verify(fileRepo).updateStatusBySessionId(eq("S123"), eq(FileStatus.IN_PROGRESS), eq(FileStatus.PAUSED), any());
+        verify(fileRepo, never()).findBySessionIdOrderByCreatedAtAsc(any());
+        verify(fileRepo, never()).save(any());
+    }
+
+    @Test
+    void resumeSession_flips_files_with_one_update() {
+        UploadSession sess = UploadSession.builder().id("S123").status(SessionStatus.PAUSED).build();
+        when(sessionRepo.findById("S123")).thenReturn(Optional.of(sess));
+
+        service.resumeSession("S123");
+
+        assertEquals(SessionStatus.IN_PROGRESS, sess.getStatus());
+        verify(fileRepo).updateStatusBySessionId(eq("S123"), eq(FileStatus.PAUSED), eq(FileStatus.IN_PROGRESS), any());
+        verify(fileRepo, never()).save(any());
     }
 
     @Test